@@ -11,6 +11,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import org.epics.graphene.Graph2DRenderer;
 import org.epics.graphene.Graph2DRendererUpdate;
+import org.epics.graphene.GraphBuffer;
 import org.epics.graphene.profile.io.CSVWriter;
 import org.epics.graphene.profile.io.DateUtils;
 import org.epics.graphene.profile.io.ImageWriter;
@@ -58,6 +59,7 @@ public abstract class ProfileGraph2D<T extends Graph2DRenderer, S> extends Profi
     //Temporary (used in iteration)
     private BufferedImage   image = null;
     private Graphics2D      graphics = null;
+    private GraphBuffer     pooledBuffer = null;
     
     protected S data = null;
     protected T renderer = null;
@@ -86,10 +88,16 @@ public abstract class ProfileGraph2D<T extends Graph2DRenderer, S> extends Profi
     protected void iterationAction(){
         //Create Image if necessary
         if (renderSettings.getBufferInLoop()){
-            image = new BufferedImage(renderer.getImageWidth(), 
-                                      renderer.getImageHeight(), 
-                                      BufferedImage.TYPE_3BYTE_BGR);                    
-            graphics = image.createGraphics();
+            if (renderSettings.getBufferPool() != null){
+                pooledBuffer = renderSettings.getBufferPool().acquire(renderer);
+                image = pooledBuffer.getImage();
+                graphics = pooledBuffer.getGraphicsContext();
+            } else {
+                image = new BufferedImage(renderer.getImageWidth(), 
+                                          renderer.getImageHeight(), 
+                                          BufferedImage.TYPE_3BYTE_BGR);                    
+                graphics = image.createGraphics();
+            }
         }
 
         //Subclass render
@@ -103,6 +111,14 @@ public abstract class ProfileGraph2D<T extends Graph2DRenderer, S> extends Profi
             getSaveSettings().setSaveImage(image);
         }
         
+        //Recycles the buffer, unless its image is the one stored
+        if (pooledBuffer != null){
+            if (pooledBuffer.getImage() != getSaveSettings().getSaveImage()){
+                renderSettings.getBufferPool().release(pooledBuffer);
+            }
+            pooledBuffer = null;
+        }
+        
         //Buffer clears
         if (image != null && image.getRGB(0, 0) == 0){
             System.out.println("Black");
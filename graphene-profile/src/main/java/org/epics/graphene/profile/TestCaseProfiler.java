@@ -12,6 +12,7 @@ import org.epics.graphene.profile.impl.ProfileLineGraph2D;
 import org.epics.graphene.profile.utils.Statistics;
 import org.epics.graphene.profile.utils.Resolution;
 import org.epics.graphene.profile.utils.StopWatch;
+import org.epics.graphene.profile.utils.AllocationCounter;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -32,12 +33,15 @@ import javax.imageio.ImageIO;
 import org.epics.graphene.Cell2DDataset;
 import org.epics.graphene.IntensityGraph2DRenderer;
 import org.epics.graphene.LineGraph2DRenderer;
+import org.epics.graphene.LineGraph2DRendererUpdate;
 import org.epics.graphene.Point2DDataset;
 import org.epics.graphene.profile.impl.ProfileAreaGraph2D;
 import org.epics.graphene.profile.impl.ProfileBubbleGraph2D;
 import org.epics.graphene.profile.impl.ProfileMultiYAxisGraph2D;
 import org.epics.graphene.profile.impl.ProfileMultilineGraph2D;
 import org.epics.graphene.profile.impl.ProfileNLineGraphs2D;
+import org.epics.graphene.profile.io.CSVWriter;
+import org.epics.graphene.profile.io.DateUtils;
 import org.epics.graphene.profile.io.ImageWriter;
 import org.epics.graphene.profile.utils.DatasetFactory;
 import org.epics.util.time.TimeDuration;
@@ -665,6 +669,56 @@ public final class TestCaseProfiler {
         ImageWriter.saveImage(profiler.getGraphTitle() + "-Table2D", image);
     }
     
+    /**
+     * Measures the bytes allocated by each draw of the line graph,
+     * with and without reusing the scaling buffers across draws.
+     * Saves the output to a .CSV file, with one row for each setting.
+     * <p>
+     * The allocation is measured on the current thread through
+     * an <code>AllocationCounter</code>: on virtual machines that
+     * cannot count allocations nothing is saved.
+     */
+    @NoRequires
+    public static void allocationPerDraw(){
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        if (counter == null){
+            Logger.getLogger(TestCaseProfiler.class.getName()).log(Level.WARNING, "Thread allocated memory not supported");
+            return;
+        }
+        
+        int nDraws = 100;
+        Point2DDataset data = DatasetFactory.makePoint2DGaussianRandomData(1000000);
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = image.createGraphics();
+        List<List> rows = new ArrayList<>();
+        
+        for (boolean reuseBuffers : new boolean[] {false, true}){
+            LineGraph2DRenderer renderer = new LineGraph2DRenderer(640, 480);
+            renderer.update(new LineGraph2DRendererUpdate().reuseBuffers(reuseBuffers));
+            
+            //Warm up
+            for (int i = 0; i < 10; i++){
+                renderer.draw(g, data);
+            }
+            
+            long start = counter.getAllocatedBytes();
+            for (int i = 0; i < nDraws; i++){
+                renderer.draw(g, data);
+            }
+            long allocated = counter.getAllocatedBytes() - start;
+            
+            rows.add(CSVWriter.arrayCombine(reuseBuffers, data.getCount(), nDraws, allocated / nDraws));
+        }
+        
+        //Save
+        String filename = ProfileGraph2D.LOG_FILEPATH + 
+                          DateUtils.getDate(DateUtils.DateFormat.NONDELIMITED) + 
+                          "-LineGraph2D-AllocationPerDraw";
+        File output = CSVWriter.createFile(filename);
+        CSVWriter.writeRow(output, CSVWriter.arrayCombine("Reuse Buffers", "Number of Data Points", "Number of Draws", "Bytes per Draw"));
+        CSVWriter.writeData(output, rows);
+    }
+    
     //--------------------------------------------------------------------------
     //Test Methods (requiring more memory)
     
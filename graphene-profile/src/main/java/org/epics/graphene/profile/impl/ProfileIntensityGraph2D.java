@@ -139,7 +139,16 @@ public class ProfileIntensityGraph2D extends ProfileGraph2D<IntensityGraph2DRend
     protected void iterationAction(){
         //Create Image if necessary
         if (getRenderSettings().getBufferInLoop()){
-            graphBuffer = new GraphBuffer(renderer);
+            GraphBufferPool bufferPool = getRenderSettings().getBufferPool();
+            if (bufferPool != null){
+                //Recycles the buffer of the previous iteration
+                if (graphBuffer != null){
+                    bufferPool.release(graphBuffer);
+                }
+                graphBuffer = bufferPool.acquire(renderer);
+            } else {
+                graphBuffer = new GraphBuffer(renderer);
+            }
         }
 
         //Subclass render
@@ -202,6 +211,9 @@ public class ProfileIntensityGraph2D extends ProfileGraph2D<IntensityGraph2DRend
         
         map.put("None", null);
         map.put("Not Draw Legend", new IntensityGraph2DRendererUpdate().drawLegend(false));
+        map.put("Parallel Data Image", new IntensityGraph2DRendererUpdate().parallelDataImage(true));
+        map.put("Max Data Reduction", new IntensityGraph2DRendererUpdate().dataReduction(CellReductionScheme.MAX));
+        map.put("Parallel Max Data Reduction", new IntensityGraph2DRendererUpdate().dataReduction(CellReductionScheme.MAX).parallelDataImage(true));
         
         return map;
     }
@@ -102,6 +102,7 @@ public class ProfileMultiYAxisGraph2D extends ProfileGraph2D<MultiAxisLineGraph2
         map.put("None", null);
         map.put("Nearest Neighbor Interpolation", new MultiAxisLineGraph2DRendererUpdate().interpolation(InterpolationScheme.NEAREST_NEIGHBOR));
         map.put("First Max Min Last Reduction", new MultiAxisLineGraph2DRendererUpdate().dataReduction(ReductionScheme.FIRST_MAX_MIN_LAST));
+        map.put("Largest Triangle Three Buckets Reduction", new MultiAxisLineGraph2DRendererUpdate().dataReduction(ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS));
         map.put("No Data Reduction", new MultiAxisLineGraph2DRendererUpdate().dataReduction(ReductionScheme.NONE));
         
         return map;
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.epics.graphene.Graph2DRendererUpdate;
+import org.epics.graphene.GraphBufferPool;
 import org.epics.graphene.profile.ProfileGraph2D;
 
 /**
@@ -23,6 +24,7 @@ public class RenderSettings implements Settings{
     private List<String>                  updateDescriptions;
     
     private boolean                 bufferInLoop = false;
+    private GraphBufferPool         bufferPool;
     private ProfileGraph2D          profiler;
     //--------------------------------------------------------------------------
     
@@ -54,6 +56,17 @@ public class RenderSettings implements Settings{
     public void setBufferInLoop(boolean bufferInLoop){
         this.bufferInLoop = bufferInLoop;
     }
+    
+    /**
+     * Sets the pool from which the image buffer is taken when it is
+     * created within the render loop. The buffer is given back to the pool
+     * at the end of each iteration, so that the images are recycled.
+     * 
+     * @param bufferPool the pool of buffers; null to create a new buffer at each iteration
+     */
+    public void setBufferPool(GraphBufferPool bufferPool){
+        this.bufferPool = bufferPool;
+    }
  
     /**
      * Looks for a corresponding update based on the description,
@@ -105,6 +118,16 @@ public class RenderSettings implements Settings{
     public boolean getBufferInLoop(){
         return this.bufferInLoop;
     }
+    
+    /**
+     * Gets the pool from which the image buffer is taken when it is
+     * created within the render loop.
+     * 
+     * @return the pool of buffers; null if a new buffer is created at each iteration
+     */
+    public GraphBufferPool getBufferPool(){
+        return this.bufferPool;
+    }
 
     /**
      * Gets the updates to be applied to the renderer.
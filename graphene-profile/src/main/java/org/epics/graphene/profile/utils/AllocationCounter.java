@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene.profile.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated by the current thread.
+ * <p>
+ * The count is provided by the <code>com.sun.management.ThreadMXBean</code>,
+ * which is not part of the standard API: on virtual machines that do not
+ * provide it, no counter is available. The bean is only referenced by a
+ * nested class, so that this class loads on any virtual machine.
+ *
+ * @author asbarber
+ */
+public final class AllocationCounter {
+
+    private final long threadId;
+
+    /**
+     * Prevents instantiation outside of <code>forCurrentThread</code>.
+     */
+    private AllocationCounter(long threadId){
+        this.threadId = threadId;
+    }
+
+    /**
+     * Creates a counter for the current thread.
+     *
+     * @return the counter, or null if the virtual machine cannot count
+     * the allocated bytes
+     */
+    public static AllocationCounter forCurrentThread(){
+        try{
+            if (!SunThreadBean.enable()){
+                return null;
+            }
+        }
+        //com.sun.management is not available
+        catch (LinkageError ex){
+            return null;
+        }
+
+        return new AllocationCounter(Thread.currentThread().getId());
+    }
+
+    /**
+     * Returns the total bytes allocated so far by the thread
+     * that created the counter.
+     *
+     * @return allocated bytes
+     */
+    public long getAllocatedBytes(){
+        return SunThreadBean.getAllocatedBytes(threadId);
+    }
+
+    /**
+     * The only class that references <code>com.sun.management</code>.
+     */
+    private static class SunThreadBean{
+
+        private static boolean enable(){
+            if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)){
+                return false;
+            }
+
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (!bean.isThreadAllocatedMemorySupported()){
+                return false;
+            }
+
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return true;
+        }
+
+        private static long getAllocatedBytes(long threadId){
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(threadId);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.epics.graphene.RenderEvents;
 import org.epics.util.time.Timestamp;
 
 /**
@@ -40,12 +41,14 @@ public class RrdToolReader {
         }
         InputStream input = null;
         Process process = null;
+        long eventStart = RenderEvents.start();
         try {
             log.finest("Executing " + args);
             process = new ProcessBuilder(args.toArray(new String[args.size()])).start();
             input = process.getInputStream();
             RrdToolOutputParser parser = new RrdToolOutputParser();
             TimeSeriesMulti data = parser.parse(new BufferedReader(new InputStreamReader(input)));
+            RenderEvents.end("readFile", eventStart, data.getTime().size(), 0, 0, null);
             return data;
         } catch (IOException ex) {
             throw new RuntimeException("Couldn't read RRD data", ex);
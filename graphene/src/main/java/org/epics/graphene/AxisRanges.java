@@ -7,6 +7,7 @@ package org.epics.graphene;
 import java.util.Objects;
 import org.epics.util.stats.Range;
 import org.epics.util.stats.Ranges;
+import org.epics.util.time.TimeDuration;
 
 /**
  * Standard implementation for the logic to calculate the data range to
@@ -28,6 +29,11 @@ import org.epics.util.stats.Ranges;
  * that must be used to display data. So, if you set a 80% threshold, the
  * range will  shrinks if less than 80% of the range contains actual data.
  * This option may have the same performance issues than Data.</li>
+ *   <li><b>Hysteresis</b>: like Auto, but the range is rounded to nice values,
+ * and it shrinks only if the data uses less than the given percentage or
+ * if a smaller range would have been enough for a given time. Small
+ * changes in the data do not change the range, so labels and layout
+ * can be reused.</li>
  * </ul>
  *
  * @author carcassi
@@ -242,6 +248,167 @@ public class AxisRanges {
         
     }
 
+    /**
+     * A range that grows immediately to fit the data, rounded to nice
+     * values. It shrinks to fit the data if the data uses less
+     * than minUsage of the range, or if a smaller range would have fit
+     * the data for the whole decay time.
+     * 
+     * @param minUsage a number from 0.0 to 1.0
+     * @param decay how long the range is kept when it's larger than needed
+     * @return an axis range; never null
+     */
+    public static AxisRange hysteresis(double minUsage, TimeDuration decay) {
+        return new Hysteresis(minUsage, decay);
+    }
+    
+    /**
+     * An AxisRange with Hysteresis value range.
+     */
+    public static class Hysteresis implements AxisRange {
+
+        private final double minUsage;
+        private final TimeDuration decay;
+
+        private Hysteresis(double minUsage, TimeDuration decay) {
+            if (minUsage < 0.0 || minUsage > 1.0) {
+                throw new IllegalArgumentException("minUsage must be between 0.0 and 1.0 (was " + minUsage + ")");
+            }
+            if (decay == null) {
+                throw new NullPointerException("Decay can't be null");
+            }
+            this.minUsage = minUsage;
+            this.decay = decay;
+        }
+
+        @Override
+        public AxisRangeInstance createInstance() {
+            return new HysteresisInstance(this);
+        }
+
+        @Override
+        public String toString() {
+            return "hysteresis(" + (int) (minUsage * 100) + "%, " + decay + ")";
+        }
+
+        /**
+         * The minimum percentage of the range to be used for actual data.
+         * 
+         * @return a number from 0.0 to 1.0
+         */
+        public double getMinUsage() {
+            return minUsage;
+        }
+
+        /**
+         * How long the range is kept when a smaller one would fit the data.
+         * 
+         * @return the decay time
+         */
+        public TimeDuration getDecay() {
+            return decay;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Hysteresis) {
+                return getMinUsage() == ((Hysteresis) obj).getMinUsage() &&
+                        getDecay().equals(((Hysteresis) obj).getDecay());
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + Objects.hashCode(this.getMinUsage());
+            hash = 59 * hash + Objects.hashCode(this.getDecay());
+            return hash;
+        }
+        
+    }
+    
+    static class HysteresisInstance implements AxisRangeInstance {
+
+        private final Hysteresis axisRange;
+        private Range currentRange;
+        // Last time the current range was needed to fit the data
+        private long lastNeededNanos;
+        // Union of the data ranges since then
+        private Range dataSinceNeeded;
+
+        HysteresisInstance(Hysteresis axisRange) {
+            this.axisRange = axisRange;
+        }
+
+        @Override
+        public Range axisRange(Range dataRange, Range displayRange) {
+            return axisRange(dataRange, displayRange, System.nanoTime());
+        }
+
+        Range axisRange(Range dataRange, Range displayRange, long nanoTime) {
+            if (!Ranges.isValid(dataRange)) {
+                return currentRange != null ? currentRange : dataRange;
+            }
+            if (currentRange == null || !Ranges.contains(currentRange, dataRange)) {
+                // Expand right away, keeping the side that still fits
+                currentRange = currentRange == null ? niceRange(dataRange) : niceRange(Ranges.sum(currentRange, dataRange));
+                needed(nanoTime);
+            } else if (Ranges.overlap(currentRange, dataRange) < axisRange.getMinUsage()) {
+                currentRange = niceRange(dataRange);
+                needed(nanoTime);
+            } else {
+                // Shrink only to what fits all the data seen in the meantime,
+                // so that jitter across a nice boundary does not change the range
+                dataSinceNeeded = dataSinceNeeded == null ? dataRange : Ranges.sum(dataSinceNeeded, dataRange);
+                Range niceRange = niceRange(dataSinceNeeded);
+                if (Ranges.equals(niceRange, currentRange)) {
+                    needed(nanoTime);
+                } else if (nanoTime - lastNeededNanos >= axisRange.getDecay().toNanosLong()) {
+                    currentRange = niceRange;
+                    needed(nanoTime);
+                }
+            }
+            return currentRange;
+        }
+        
+        private void needed(long nanoTime) {
+            lastNeededNanos = nanoTime;
+            dataSinceNeeded = null;
+        }
+
+        @Override
+        public AxisRange getAxisRange() {
+            return axisRange;
+        }
+    }
+    
+    /**
+     * Rounds the range outwards to a multiple of 1, 2 or 5 times a power
+     * of ten, about a tenth of the range.
+     */
+    static Range niceRange(Range range) {
+        double min = range.getMinimum().doubleValue();
+        double max = range.getMaximum().doubleValue();
+        double span = max - min;
+        if (!(span > 0) || Double.isInfinite(span)) {
+            return range;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(span / 10)));
+        double step;
+        if (span / 10 <= magnitude) {
+            step = magnitude;
+        } else if (span / 10 <= 2 * magnitude) {
+            step = 2 * magnitude;
+        } else if (span / 10 <= 5 * magnitude) {
+            step = 5 * magnitude;
+        } else {
+            step = 10 * magnitude;
+        }
+        return Ranges.range(Math.floor(min / step) * step, Math.ceil(max / step) * step);
+    }
+
     /**
      * The suggested range for the data.
      * 
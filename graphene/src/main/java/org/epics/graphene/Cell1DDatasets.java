@@ -4,9 +4,9 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
 import org.epics.util.stats.Range;
+import org.epics.util.array.ArrayFloat;
 import org.epics.util.array.ListNumber;
 import org.epics.util.array.ListNumbers;
 import org.epics.util.stats.Ranges;
@@ -28,7 +28,7 @@ public class Cell1DDatasets {
      * @return the dataset from the values; never null
      */
     public static Cell1DDataset linearRange(final ListNumber values, final double minValue, final double maxValue) {
-        final Statistics statistics = StatisticsUtil.statisticsOf(values);
+        final LazyStatistics statistics = new LazyStatistics(values);
         final Range range = Ranges.range(minValue, maxValue);
         final ListNumber xBoundaries = ListNumbers.linearListFromRange(minValue, maxValue, values.size() + 1);
         return new Cell1DDataset() {
@@ -45,7 +45,7 @@ public class Cell1DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
@@ -65,6 +65,21 @@ public class Cell1DDatasets {
         };
     }
     
+    /**
+     * Wraps a float array into a {@link Cell1DDataset}, without copying
+     * or widening the values.
+     * <p>
+     * It assumes the argument will not be changed in the future.
+     * 
+     * @param values the values for the dataset
+     * @param minValue the lower boundary of the first cell
+     * @param maxValue the upper boundary of the last cell
+     * @return the dataset from the values; never null
+     */
+    public static Cell1DDataset linearRange(final float[] values, final double minValue, final double maxValue) {
+        return linearRange(new ArrayFloat(values), minValue, maxValue);
+    }
+    
     /**
      * Wraps {@link ListNumber}s for values and boundaries into a {@link Point1DDataset}.
      * <p>
@@ -76,7 +91,7 @@ public class Cell1DDatasets {
      * @return the dataset from the values; never null
      */
     public static Cell1DDataset datasetFrom(final ListNumber values, final ListNumber xBoundaries) {
-        final Statistics statistics = StatisticsUtil.statisticsOf(values);
+        final LazyStatistics statistics = new LazyStatistics(values);
         final Range range = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(xBoundaries.size() - 1));
         return new Cell1DDataset() {
 
@@ -92,7 +107,7 @@ public class Cell1DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
@@ -112,8 +127,22 @@ public class Cell1DDatasets {
         };
     }
     
+    /**
+     * Wraps a float array for the values into a {@link Cell1DDataset},
+     * without copying or widening the values.
+     * <p>
+     * It assumes the argument will not be changed in the future.
+     * 
+     * @param values the values for the dataset
+     * @param xBoundaries the cell boundaries
+     * @return the dataset from the values; never null
+     */
+    public static Cell1DDataset datasetFrom(final float[] values, final ListNumber xBoundaries) {
+        return datasetFrom(new ArrayFloat(values), xBoundaries);
+    }
+    
     public static Cell1DDataset datasetFrom(final ListNumber values, final ListNumber xBoundaries, final Range displayRange) {
-        final Statistics statistics = StatisticsUtil.statisticsOf(values);
+        final LazyStatistics statistics = new LazyStatistics(values);
         final Range range = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(xBoundaries.size() - 1));
         return new Cell1DDataset() {
 
@@ -129,7 +158,7 @@ public class Cell1DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
@@ -43,11 +43,12 @@ class Cell1DHistogramDataset implements Cell1DDataset {
             throw new NullPointerException("dataset is null");
         }
         
+        long eventStart = RenderEvents.start();
         IteratorNumber newValues = dataset.getValues().iterator();
         if (autoValueRange) {
             this.minValueRange = dataset.getStatistics().getMinimum().doubleValue();
             this.maxValueRange = dataset.getStatistics().getMaximum().doubleValue();
-            xBoundaries = ListNumbers.linearListFromRange(minValueRange, maxValueRange, nBins);
+            xBoundaries = ListNumbers.linearListFromRange(minValueRange, maxValueRange, nBins + 1);
             xRange = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(nBins));
         }
         values = new double[nBins];
@@ -56,6 +57,7 @@ class Cell1DHistogramDataset implements Cell1DDataset {
         }
 
         statistics = StatisticsUtil.statisticsOf(new ArrayDouble(values));
+        RenderEvents.end("histogramBinning", eventStart, dataset.getCount(), 0, 0, null);
     }
     
     private void addValueToBin(double value) {
@@ -4,7 +4,6 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
 import org.epics.util.stats.Range;
 import org.epics.util.array.*;
@@ -46,7 +45,13 @@ public class Cell2DDatasets {
         final ListNumber xBoundaries = ListNumbers.linearListFromRange(xRange.getMinimum().doubleValue(), xRange.getMaximum().doubleValue(), xCount + 1);
         final ListNumber yBoundaries = ListNumbers.linearListFromRange(yRange.getMinimum().doubleValue(), yRange.getMaximum().doubleValue(), yCount + 1);
 
-        final Statistics stats = StatisticsUtil.statisticsOf(data);
+        // Arrays can be read directly, a row at a time
+        Cell2DRowDataset arrayDataset = arrayDataset(data, xBoundaries, xRange, yBoundaries, yRange);
+        if (arrayDataset != null) {
+            return arrayDataset;
+        }
+        
+        final LazyStatistics stats = new LazyStatistics(data);
         return new Cell2DDataset() {
             @Override
             public double getValue(int x, int y) {
@@ -55,12 +60,12 @@ public class Cell2DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return stats;
+                return stats.getStatistics();
             }
 
             @Override
             public Range getDisplayRange() {
-                return stats;
+                return stats.getStatistics();
             }
 
             @Override
@@ -95,6 +100,22 @@ public class Cell2DDatasets {
         };
     }
 
+    /**
+     * Returns a Cell2DDataset backed by the given float array, with cells
+     * of equal size. The values are neither copied nor widened, and the
+     * rows can be read in bulk.
+     *
+     * @param data the cell values, one row of xCount values after the other
+     * @param xRange the range along x
+     * @param xCount the number of cells along x
+     * @param yRange the range along y
+     * @param yCount the number of cells along y
+     * @return a new dataset
+     */
+    public static Cell2DRowDataset linearRange(final float[] data, final Range xRange, final int xCount, final Range yRange, final int yCount) {
+        return (Cell2DRowDataset) linearRange(new ArrayFloat(data), xRange, xCount, yRange, yCount);
+    }
+
     public static Cell2DDataset linearRange(final Function2D function, final Range xRange, final int xCount, final Range yRange, final int yCount) {
 
         final ListNumber xBoundaries = ListNumbers.linearListFromRange(xRange.getMinimum().doubleValue(), xRange.getMaximum().doubleValue(), xCount + 1);
@@ -132,7 +153,7 @@ public class Cell2DDatasets {
                 return xCount * yCount;
             }
         };
-        final Statistics stats = StatisticsUtil.statisticsOf(data);
+        final LazyStatistics stats = new LazyStatistics(data);
         return new Cell2DDataset() {
             @Override
             public double getValue(int x, int y) {
@@ -141,12 +162,12 @@ public class Cell2DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return stats;
+                return stats.getStatistics();
             }
 
             @Override
             public Range getDisplayRange() {
-                return stats;
+                return stats.getStatistics();
             }
 
             @Override
@@ -192,12 +213,10 @@ public class Cell2DDatasets {
                 values[y * xCount + x] = function.getValue(middleX, middleY);
             }
         }
-        ListDouble data = new ArrayDouble(values);
-        return datasetFrom(data, xBoundaries, yBoundaries);
+        return datasetFrom(values, xBoundaries, yBoundaries);
     }
 
     public static Cell2DDataset datasetFrom(final ListNumber values, final ListNumber xBoundaries, final ListNumber yBoundaries) {
-        final Statistics statistics = StatisticsUtil.statisticsOf(values);
         final Range xRange = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(xBoundaries.size() - 1));
         final Range yRange = Ranges.range(yBoundaries.getDouble(0), yBoundaries.getDouble(yBoundaries.size() - 1));
 
@@ -207,6 +226,14 @@ public class Cell2DDatasets {
         if (values.size() != xCount * yCount) {
             throw new IllegalArgumentException("Number of boundaries do not match number of cells (" + xCount + " * " + yCount + " !+ " + values.size() + ")");
         }
+        
+        // Arrays can be read directly, a row at a time
+        Cell2DRowDataset arrayDataset = arrayDataset(values, xBoundaries, xRange, yBoundaries, yRange);
+        if (arrayDataset != null) {
+            return arrayDataset;
+        }
+        
+        final LazyStatistics statistics = new LazyStatistics(values);
         return new Cell2DDataset() {
 
             @Override
@@ -216,12 +243,12 @@ public class Cell2DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
             public Range getDisplayRange() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
@@ -255,4 +282,136 @@ public class Cell2DDatasets {
             }
         };
     }
+    
+    /**
+     * Returns a Cell2DDataset backed by the given array, where the value
+     * of the cell (x, y) is at the index y * xCount + x. The array is not
+     * copied, and the rows can be read in bulk.
+     * 
+     * @param values the cell values, one row after the other
+     * @param xBoundaries the boundaries of the cells along x
+     * @param yBoundaries the boundaries of the cells along y
+     * @return a new dataset
+     */
+    public static Cell2DRowDataset datasetFrom(double[] values, ListNumber xBoundaries, ListNumber yBoundaries) {
+        return (Cell2DRowDataset) datasetFrom(new ArrayDouble(values), xBoundaries, yBoundaries);
+    }
+    
+    /**
+     * Returns a Cell2DDataset backed by the given array, where the value
+     * of the cell (x, y) is at the index y * xCount + x. The array is not
+     * copied, and the rows can be read in bulk.
+     * 
+     * @param values the cell values, one row after the other
+     * @param xBoundaries the boundaries of the cells along x
+     * @param yBoundaries the boundaries of the cells along y
+     * @return a new dataset
+     */
+    public static Cell2DRowDataset datasetFrom(float[] values, ListNumber xBoundaries, ListNumber yBoundaries) {
+        return (Cell2DRowDataset) datasetFrom(new ArrayFloat(values), xBoundaries, yBoundaries);
+    }
+    
+    /**
+     * Returns a dataset that reads directly from the array wrapped by the
+     * given list, or null if the list does not wrap a double or float array.
+     */
+    private static Cell2DRowDataset arrayDataset(ListNumber values, ListNumber xBoundaries, Range xRange, ListNumber yBoundaries, Range yRange) {
+        final LazyStatistics statistics = new LazyStatistics(values);
+        final int xCount = xBoundaries.size() - 1;
+        final double[] doubleValues = CollectionNumbers.wrappedDoubleArray(values);
+        if (doubleValues != null) {
+            return new ArrayCell2DDataset(statistics, xBoundaries, xRange, yBoundaries, yRange) {
+
+                @Override
+                public double getValue(int x, int y) {
+                    return doubleValues[y * xCount + x];
+                }
+
+                @Override
+                public void getRow(int y, double[] dest) {
+                    System.arraycopy(doubleValues, y * xCount, dest, 0, xCount);
+                }
+            };
+        }
+        
+        final float[] floatValues = CollectionNumbers.wrappedFloatArray(values);
+        if (floatValues != null) {
+            return new ArrayCell2DDataset(statistics, xBoundaries, xRange, yBoundaries, yRange) {
+
+                @Override
+                public double getValue(int x, int y) {
+                    return floatValues[y * xCount + x];
+                }
+
+                @Override
+                public void getRow(int y, double[] dest) {
+                    int offset = y * xCount;
+                    for (int x = 0; x < xCount; x++) {
+                        dest[x] = floatValues[offset + x];
+                    }
+                }
+            };
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Common part of the datasets backed by an array.
+     */
+    private static abstract class ArrayCell2DDataset implements Cell2DRowDataset {
+        private final LazyStatistics statistics;
+        private final ListNumber xBoundaries;
+        private final Range xRange;
+        private final ListNumber yBoundaries;
+        private final Range yRange;
+
+        public ArrayCell2DDataset(LazyStatistics statistics, ListNumber xBoundaries, Range xRange, ListNumber yBoundaries, Range yRange) {
+            this.statistics = statistics;
+            this.xBoundaries = xBoundaries;
+            this.xRange = xRange;
+            this.yBoundaries = yBoundaries;
+            this.yRange = yRange;
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            return statistics.getStatistics();
+        }
+
+        @Override
+        public Range getDisplayRange() {
+            return statistics.getStatistics();
+        }
+
+        @Override
+        public ListNumber getXBoundaries() {
+            return xBoundaries;
+        }
+
+        @Override
+        public Range getXRange() {
+            return xRange;
+        }
+
+        @Override
+        public int getXCount() {
+            return xBoundaries.size() - 1;
+        }
+
+        @Override
+        public ListNumber getYBoundaries() {
+            return yBoundaries;
+        }
+
+        @Override
+        public Range getYRange() {
+            return yRange;
+        }
+
+        @Override
+        public int getYCount() {
+            return yBoundaries.size() - 1;
+        }
+    }
 }
@@ -0,0 +1,28 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * A {@link Cell2DDataset} that can copy a whole row of values at once.
+ * <p>
+ * Renderers check for this interface so that they can read the values
+ * of a row from an array instead of calling {@link #getValue(int, int) }
+ * for each cell.
+ *
+ * @author carcassi
+ */
+public interface Cell2DRowDataset extends Cell2DDataset {
+    
+    /**
+     * Copies the values of the given row in the given array. The value
+     * of the cell at x is copied at the index x.
+     * 
+     * @throws ArrayIndexOutOfBoundsException if y is &lt; 0 or &gt;= {@link #getYCount()},
+     * or if the array is smaller than {@link #getXCount()}
+     * @param y the y coordinate of the row
+     * @param dest the array where the values are copied
+     */
+    public void getRow(int y, double[] dest);
+}
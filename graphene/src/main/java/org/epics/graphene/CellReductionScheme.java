@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * The strategy used to reduce the cells of a 2D dataset that fall
+ * in the same pixel.
+ *
+ * @author carcassi
+ */
+public enum CellReductionScheme {
+
+    /**
+     * Each pixel displays a single cell; the other cells that fall
+     * in the same pixel are not displayed.
+     */
+    NONE,
+
+    /**
+     * Each pixel displays the maximum of the cells that fall in it.
+     */
+    MAX,
+
+    /**
+     * Each pixel displays the minimum of the cells that fall in it.
+     */
+    MIN,
+
+    /**
+     * Each pixel displays the mean of the cells that fall in it.
+     */
+    MEAN;
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The configuration of a renderer, which can be shared by multiple threads
+ * drawing different datasets at the same time.
+ * <p>
+ * A renderer keeps the state of the current draw (graphics, plot coordinates,
+ * reference lines, ...) in its fields, so it can only be used by one thread
+ * at a time. The plan separates the configuration from that state: it is
+ * immutable, and it is made of the updates to apply to a new renderer.
+ * Each thread draws with its own renderer, which is created the first time
+ * the thread asks for it, so that a configuration change is done once
+ * on the plan instead of once for each renderer.
+ * <p>
+ * The renderers of all plans are kept in a single per-thread cache, with
+ * weak references to the plans: when a plan is replaced by an updated one
+ * and discarded, its renderers are released, even on pooled threads.
+ * <p>
+ * The updates must not be modified after they are added to the plan.
+ *
+ * @param <R> the type of the renderer
+ * @param <T> the type of the update for the renderer
+ * @author carcassi
+ */
+public final class Graph2DRenderPlan<R extends Graph2DRenderer<T>, T extends Graph2DRendererUpdate<T>> {
+
+    /**
+     * Creates new renderers for a plan.
+     *
+     * @param <R> the type of the renderer
+     */
+    public interface RendererFactory<R> {
+
+        /**
+         * Creates a new renderer, with its default configuration.
+         *
+         * @return a new renderer
+         */
+        public R newRenderer();
+    }
+
+    // The renderers of the current thread, for each plan still in use
+    private static final ThreadLocal<Map<Graph2DRenderPlan<?, ?>, Graph2DRenderer<?>>> renderers =
+            new ThreadLocal<Map<Graph2DRenderPlan<?, ?>, Graph2DRenderer<?>>>() {
+
+        @Override
+        protected Map<Graph2DRenderPlan<?, ?>, Graph2DRenderer<?>> initialValue() {
+            return new WeakHashMap<>();
+        }
+    };
+
+    private final RendererFactory<R> factory;
+    private final List<T> updates;
+
+    /**
+     * Creates a plan for renderers with the default configuration.
+     *
+     * @param factory creates the renderers; can't be null
+     */
+    public Graph2DRenderPlan(RendererFactory<R> factory) {
+        this(factory, Collections.<T>emptyList());
+    }
+
+    private Graph2DRenderPlan(RendererFactory<R> factory, List<T> updates) {
+        if (factory == null) {
+            throw new NullPointerException("Factory can't be null");
+        }
+        this.factory = factory;
+        this.updates = updates;
+    }
+
+    /**
+     * Returns a new plan that applies the given update after the ones
+     * of this plan. This plan is not changed.
+     *
+     * @param update the update to add; can't be null
+     * @return a new plan
+     */
+    public Graph2DRenderPlan<R, T> update(T update) {
+        if (update == null) {
+            throw new NullPointerException("Update can't be null");
+        }
+        List<T> newUpdates = new ArrayList<>(updates.size() + 1);
+        newUpdates.addAll(updates);
+        newUpdates.add(update);
+        return new Graph2DRenderPlan<>(factory, Collections.unmodifiableList(newUpdates));
+    }
+
+    /**
+     * The updates that are applied to the renderers, in order.
+     *
+     * @return an unmodifiable list of updates
+     */
+    public List<T> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Creates a new renderer with the configuration of this plan.
+     * The renderer is not shared: it can be used by the caller until
+     * it is discarded.
+     *
+     * @return a new renderer
+     */
+    public R newRenderer() {
+        R renderer = factory.newRenderer();
+        for (T update : updates) {
+            renderer.update(update);
+        }
+        return renderer;
+    }
+
+    /**
+     * The renderer with the configuration of this plan for the current thread.
+     * The same renderer is returned to each call from the same thread, so that
+     * the buffers and the layout it caches are reused from one draw to the next.
+     * The renderer must not be passed to other threads, or be updated.
+     *
+     * @return the renderer for the current thread
+     */
+    @SuppressWarnings("unchecked")
+    public R renderer() {
+        Map<Graph2DRenderPlan<?, ?>, Graph2DRenderer<?>> threadRenderers = renderers.get();
+        R renderer = (R) threadRenderers.get(this);
+        if (renderer == null) {
+            renderer = newRenderer();
+            threadRenderers.put(this, renderer);
+        }
+        return renderer;
+    }
+}
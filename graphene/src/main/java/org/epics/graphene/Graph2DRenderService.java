@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Draws render jobs on a bounded pool of worker threads, for services
+ * that draw many graphs at the same time (e.g. one for each web request).
+ * <p>
+ * A job is made of a render plan, which gives the configuration and
+ * the size of the graph, a dataset and a drawer, which draws the dataset
+ * with the renderer on a graph buffer and converts the result (e.g. copies
+ * the image or encodes it). Each worker draws with its own renderer for
+ * the plan, and the graph buffers are pooled, so that neither renderers
+ * nor images are allocated for each job.
+ * <p>
+ * A job that is equal to one still queued or running (same plan, equal
+ * dataset and same drawer) is not drawn again: the future of the first
+ * one is returned. When all the workers are busy and the queue is full,
+ * the job is rejected with a {@link RejectedExecutionException}, so that
+ * the caller can push back (or drop the request) instead of piling up work.
+ *
+ * @author carcassi
+ */
+public class Graph2DRenderService {
+
+    /**
+     * Draws the dataset of a job and converts the result.
+     *
+     * @param <R> the type of the renderer
+     * @param <D> the type of the dataset
+     * @param <V> the type of the result
+     */
+    public interface JobDrawer<R, D, V> {
+
+        /**
+         * Draws the dataset with the renderer on the buffer. The buffer
+         * is reused by other jobs after this returns, so the result must not
+         * refer to it or to its image.
+         *
+         * @param renderer the renderer for the plan of the job
+         * @param buffer a cleared buffer of the size of the renderer
+         * @param dataset the dataset of the job
+         * @return the result of the job
+         */
+        public V draw(R renderer, GraphBuffer buffer, D dataset);
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final GraphBufferPool bufferPool;
+
+    // The jobs queued or running, guarded by this
+    private final Map<List<Object>, Future<?>> jobsInFlight = new HashMap<>();
+
+    /**
+     * Creates a service with a worker for each processor, and at most
+     * four queued jobs for each worker.
+     */
+    public Graph2DRenderService() {
+        this(Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a service with the given number of workers and queued jobs.
+     *
+     * @param nWorkers the number of jobs drawn at the same time; must be positive
+     * @param maxQueuedJobs the maximum number of jobs waiting for a worker; must be positive
+     */
+    public Graph2DRenderService(int nWorkers, int maxQueuedJobs) {
+        if (nWorkers <= 0 || maxQueuedJobs <= 0) {
+            throw new IllegalArgumentException("Number of workers and queued jobs must be positive");
+        }
+        executor = new ThreadPoolExecutor(nWorkers, nWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(maxQueuedJobs), new WorkerFactory());
+        bufferPool = new GraphBufferPool(nWorkers);
+    }
+
+    /**
+     * Submits a job. If an equal job is queued or running, its future
+     * is returned instead.
+     *
+     * @param <R> the type of the renderer
+     * @param <T> the type of the update for the renderer
+     * @param <D> the type of the dataset
+     * @param <V> the type of the result
+     * @param plan the configuration of the renderer; can't be null
+     * @param dataset the dataset to draw
+     * @param drawer draws the dataset; can't be null
+     * @return the future result of the job
+     * @throws RejectedExecutionException if the queue is full or the service
+     * was shut down
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <R extends Graph2DRenderer<T>, T extends Graph2DRendererUpdate<T>, D, V> Future<V> submit(Graph2DRenderPlan<R, T> plan, D dataset, JobDrawer<? super R, ? super D, V> drawer) {
+        if (plan == null || drawer == null) {
+            throw new NullPointerException("Plan and drawer can't be null");
+        }
+        List<Object> key = Arrays.asList(plan, dataset, drawer);
+        Future<V> future = (Future<V>) jobsInFlight.get(key);
+        if (future != null && !future.isDone()) {
+            return future;
+        }
+        Job<R, T, D, V> job = new Job<>(key, plan, dataset, drawer);
+        jobsInFlight.put(key, job);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException ex) {
+            jobsInFlight.remove(key);
+            throw ex;
+        }
+        return job;
+    }
+
+    /**
+     * The number of jobs queued or running.
+     *
+     * @return the number of jobs
+     */
+    public synchronized int getJobsInFlight() {
+        return jobsInFlight.size();
+    }
+
+    /**
+     * Stops accepting jobs. The jobs already submitted are still drawn.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private synchronized void jobDone(List<Object> key, Future<?> job) {
+        if (jobsInFlight.get(key) == job) {
+            jobsInFlight.remove(key);
+        }
+    }
+
+    private class Job<R extends Graph2DRenderer<T>, T extends Graph2DRendererUpdate<T>, D, V> extends FutureTask<V> {
+
+        private final List<Object> key;
+
+        Job(List<Object> key, final Graph2DRenderPlan<R, T> plan, final D dataset, final JobDrawer<? super R, ? super D, V> drawer) {
+            super(new Callable<V>() {
+
+                @Override
+                public V call() throws Exception {
+                    R renderer = plan.renderer();
+                    GraphBuffer buffer = bufferPool.acquire(renderer);
+                    try {
+                        return drawer.draw(renderer, buffer, dataset);
+                    } finally {
+                        bufferPool.release(buffer);
+                    }
+                }
+            });
+            this.key = key;
+        }
+
+        @Override
+        protected void done() {
+            jobDone(key, this);
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+
+        private static final AtomicInteger serviceCount = new AtomicInteger();
+        private final int service = serviceCount.incrementAndGet();
+        private final AtomicInteger workerCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "graphene render service " + service + " worker " + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
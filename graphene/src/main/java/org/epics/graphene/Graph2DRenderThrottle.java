@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.epics.util.time.TimeDuration;
+
+/**
+ * Collects the updates and the datasets for a renderer, and draws
+ * at most once per frame period, on the given scheduler.
+ * <p>
+ * Updates and datasets can arrive from any thread and at any rate. The updates
+ * are applied to the renderer as they arrive, which is the same as applying
+ * a single update with the last value of each field, and only the latest
+ * dataset is drawn. Only one frame is drawn at a time: the renderer is used
+ * only by the throttle, and must not be used by other threads.
+ * <p>
+ * The updates that arrive while a frame is being drawn are merged into
+ * a single one, with the last value of each field, which is applied when
+ * the frame ends: updating never waits for the frame, and takes no more
+ * memory however many updates arrive.
+ *
+ * @param <R> the type of the renderer
+ * @param <T> the type of the update for the renderer
+ * @param <D> the type of the dataset
+ * @author carcassi
+ */
+public class Graph2DRenderThrottle<R extends Graph2DRenderer<T>, T extends Graph2DRendererUpdate<T>, D> {
+
+    /**
+     * Draws a frame.
+     *
+     * @param <R> the type of the renderer
+     * @param <D> the type of the dataset
+     */
+    public interface FrameDrawer<R, D> {
+
+        /**
+         * Draws the dataset with the renderer, and hands over the
+         * result for display.
+         *
+         * @param renderer the renderer, with all the updates applied
+         * @param dataset the latest dataset
+         */
+        public void drawFrame(R renderer, D dataset);
+    }
+
+    private final R renderer;
+    private final FrameDrawer<R, D> drawer;
+    private final ScheduledExecutorService scheduler;
+    private final long framePeriodNanos;
+
+    // Guarded by this
+    private T pendingUpdate;
+    private D dataset;
+    private boolean changed;
+    private boolean frameScheduled;
+    private boolean drawing;
+    private long lastFrameNanos;
+    private int frameCount;
+
+    private final Runnable frameTask = new Runnable() {
+
+        @Override
+        public void run() {
+            drawFrame();
+        }
+    };
+
+    /**
+     * Creates a throttle for the given renderer.
+     *
+     * @param renderer the renderer; it must not be used elsewhere
+     * @param drawer draws the frames
+     * @param scheduler the scheduler on which the frames are drawn
+     * @param framePeriod the minimum time between the start of two frames
+     */
+    public Graph2DRenderThrottle(R renderer, FrameDrawer<R, D> drawer, ScheduledExecutorService scheduler, TimeDuration framePeriod) {
+        if (renderer == null || drawer == null || scheduler == null || framePeriod == null) {
+            throw new NullPointerException("Renderer, drawer, scheduler and frame period can't be null");
+        }
+        this.renderer = renderer;
+        this.drawer = drawer;
+        this.scheduler = scheduler;
+        this.framePeriodNanos = framePeriod.toNanosLong();
+        this.lastFrameNanos = System.nanoTime() - framePeriodNanos;
+    }
+
+    /**
+     * Applies an update to the renderer. If a frame is being drawn, the update
+     * is merged with the others that arrived during the frame, and applied
+     * when the frame ends. This never waits for the frame.
+     *
+     * @param update the update to apply; it must not be modified afterwards
+     */
+    public synchronized void update(T update) {
+        if (drawing) {
+            if (pendingUpdate == null) {
+                pendingUpdate = renderer.newUpdate();
+            }
+            pendingUpdate.merge(update);
+        } else {
+            renderer.update(update);
+        }
+        changed();
+    }
+
+    /**
+     * Sets the dataset for the next frame, replacing the one that
+     * was not drawn yet.
+     *
+     * @param dataset the new dataset
+     */
+    public synchronized void setDataset(D dataset) {
+        this.dataset = dataset;
+        changed();
+    }
+
+    /**
+     * The number of frames drawn so far.
+     *
+     * @return the number of frames
+     */
+    public synchronized int getFrameCount() {
+        return frameCount;
+    }
+
+    private void changed() {
+        changed = true;
+        if (!frameScheduled) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        long delay = Math.max(0, lastFrameNanos + framePeriodNanos - System.nanoTime());
+        scheduler.schedule(frameTask, delay, TimeUnit.NANOSECONDS);
+        // If the scheduler rejects the frame, the next change tries again
+        frameScheduled = true;
+    }
+
+    private void drawFrame() {
+        D frameDataset;
+        synchronized (this) {
+            frameDataset = dataset;
+            changed = false;
+            lastFrameNanos = System.nanoTime();
+            drawing = true;
+        }
+
+        try {
+            // Nothing to draw until the first dataset
+            if (frameDataset != null) {
+                drawer.drawFrame(renderer, frameDataset);
+                synchronized (this) {
+                    frameCount++;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                drawing = false;
+                frameScheduled = false;
+                try {
+                    if (pendingUpdate != null) {
+                        renderer.update(pendingUpdate);
+                    }
+                } finally {
+                    pendingUpdate = null;
+                    // Changes during the frame are drawn in the next one
+                    if (changed) {
+                        scheduleFrame();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
 import java.util.Arrays;
@@ -20,6 +21,7 @@ import static org.epics.graphene.InterpolationScheme.CUBIC;
 import static org.epics.graphene.InterpolationScheme.LINEAR;
 import static org.epics.graphene.InterpolationScheme.NEAREST_NEIGHBOR;
 import static org.epics.graphene.ReductionScheme.FIRST_MAX_MIN_LAST;
+import static org.epics.graphene.ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS;
 import static org.epics.graphene.ReductionScheme.NONE;
 import org.epics.util.array.ArrayDouble;
 import org.epics.util.array.ListDouble;
@@ -151,6 +153,40 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
     private boolean xAsPoints = true;
     private boolean yAsPoints = true;
     
+    // Layout of the previous draw, reused if its inputs did not change
+    private LabelLayout labelLayout;
+    private AreaLayout areaLayout;
+    
+    // Buffers reused across draws
+    private boolean reuseBuffers = false;
+    private final ScaledData scratchScaledData = new ScaledData();
+    private Path2D.Double scratchPath = new Path2D.Double();
+    /**
+     * Passes the scaled values to {@link #processScaledValue(int, double, double, double, double) }.
+     */
+    protected final ProcessValue scratchProcessValue = new ProcessValue() {
+
+        @Override
+        public void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
+            Graph2DRenderer.this.processScaledValue(index, valueX, valueY, scaledX, scaledY);
+        }
+    };
+    private final LineScaling lineScaling = new LineScaling() {
+
+        @Override
+        double scaledX(double value) {
+            return Graph2DRenderer.this.scaledX(value);
+        }
+
+        @Override
+        double scaledY(double value) {
+            return Graph2DRenderer.this.scaledY(value);
+        }
+    };
+    
+    // Instrumentation; set by any thread, read by the one that draws
+    private volatile RenderListener renderListener;
+    
     /**
      * The current strategy to calculate the x range for the graph.
      * 
@@ -205,6 +241,56 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         return yPlotRange;
     }
     
+    /**
+     * Whether the buffers used to scale the data and to create the
+     * lines are kept and reused across draws.
+     * 
+     * @return true if the buffers are reused
+     */
+    public boolean isReuseBuffers() {
+        return reuseBuffers;
+    }
+    
+    /**
+     * The listener that receives the timings of each phase of the draw.
+     * 
+     * @return the listener; null if the draw is not instrumented
+     */
+    public RenderListener getRenderListener() {
+        return renderListener;
+    }
+
+    /**
+     * Changes the listener that receives the timings of each phase of the draw.
+     * It is called on the thread that draws, and it can be changed
+     * from any thread.
+     * 
+     * @param renderListener the new listener; null to stop the instrumentation
+     */
+    public void setRenderListener(RenderListener renderListener) {
+        this.renderListener = renderListener;
+    }
+    
+    /**
+     * Marks the start of a phase of the draw.
+     * 
+     * @return the start time, to be passed to {@link #phaseEnd(org.epics.graphene.RenderPhase, long) }
+     */
+    protected final long phaseStart() {
+        return RenderPhases.start(renderListener);
+    }
+    
+    /**
+     * Marks the end of a phase of the draw, and reports it to the listener.
+     * 
+     * @param phase the phase that was completed
+     * @param start the value returned by {@link #phaseStart() }
+     * @return the end time, which can be used as the start of the next phase
+     */
+    protected final long phaseEnd(RenderPhase phase, long start) {
+        return RenderPhases.end(renderListener, phase, start);
+    }
+    
     /**
      * Applies the update to the renderer.
      * <p>
@@ -274,6 +360,14 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         if (update.getYLabelMargin() != null){
             yLabelMargin = update.getYLabelMargin();
         }
+        if (update.getReuseBuffers() != null){
+            reuseBuffers = update.getReuseBuffers();
+            if (!reuseBuffers) {
+                // Release the memory
+                scratchScaledData.clear();
+                scratchPath = new Path2D.Double();
+            }
+        }
     }
     
     static Range aggregateRange(Range dataRange, Range aggregatedRange) {
@@ -301,8 +395,10 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * @param yDisplayRange the new display range for y
      */
     protected void calculateRanges(Range xDataRange, Range xDisplayRange, Range yDataRange, Range yDisplayRange) {
+        long start = phaseStart();
         xPlotRange = xAxisRange.axisRange(xDataRange, xDisplayRange);
         yPlotRange = yAxisRange.axisRange(yDataRange, yDisplayRange);
+        phaseEnd(RenderPhase.RANGES, start);
     }
     
     /**
@@ -340,6 +436,15 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * </ul>
      */
     protected void calculateLabels() {
+        // Reuse the labels of the previous draw if nothing they depend on changed
+        long start = phaseStart();
+        FontRenderContext fontRenderContext = g.getFontRenderContext();
+        if (labelLayout != null && labelLayout.isValid(fontRenderContext)) {
+            labelLayout.apply();
+            phaseEnd(RenderPhase.LABELS, start);
+            return;
+        }
+        
         // Calculate horizontal axis references. If range is zero, use special logic
         if (!xPlotRange.getMinimum().equals(xPlotRange.getMaximum())) {
             ValueAxis xAxis = xValueScale.references(xPlotRange, 2, Math.max(2, getImageWidth() / 60));
@@ -374,6 +479,8 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
             yLabelWidths[i] = labelFontMetrics.stringWidth(yReferenceLabels.get(i));
             yLabelMaxWidth = Math.max(yLabelMaxWidth, yLabelWidths[i]);
         }
+        labelLayout = new LabelLayout(fontRenderContext);
+        phaseEnd(RenderPhase.LABELS, start);
     }
         
     /**
@@ -390,6 +497,14 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * prior to calling calculateGraphAreaNoLabels().
      */    
     protected void calculateGraphArea() {
+        // Reuse the area of the previous draw if nothing it depends on changed
+        long start = phaseStart();
+        if (areaLayout != null && areaLayout.isValid()) {
+            areaLayout.apply();
+            phaseEnd(RenderPhase.LAYOUT, start);
+            return;
+        }
+        
         int areaFromBottom = bottomMargin + xLabelMaxHeight + xLabelMargin;
         int areaFromLeft = leftMargin + yLabelMaxWidth + yLabelMargin;
 
@@ -435,14 +550,155 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
             }
             yReferenceCoords = new ArrayDouble(yRefCoords);
         }
+        areaLayout = new AreaLayout();
+        phaseEnd(RenderPhase.LAYOUT, start);
+    }
+    
+    /**
+     * The result of {@link #calculateLabels() }, together with the inputs
+     * it was calculated from. Calculating the references and measuring
+     * the labels is a significant part of a draw when the data changes
+     * but the ranges do not.
+     */
+    private class LabelLayout {
+        // Inputs
+        private final Range xPlotRange = Graph2DRenderer.this.xPlotRange;
+        private final Range yPlotRange = Graph2DRenderer.this.yPlotRange;
+        private final int imageWidth = Graph2DRenderer.this.imageWidth;
+        private final int imageHeight = Graph2DRenderer.this.imageHeight;
+        private final ValueScale xValueScale = Graph2DRenderer.this.xValueScale;
+        private final ValueScale yValueScale = Graph2DRenderer.this.yValueScale;
+        private final Font labelFont = Graph2DRenderer.this.labelFont;
+        private final FontRenderContext fontRenderContext;
+        // Outputs
+        private final List<String> xReferenceLabels = Graph2DRenderer.this.xReferenceLabels;
+        private final ListDouble xReferenceValues = Graph2DRenderer.this.xReferenceValues;
+        private final List<String> yReferenceLabels = Graph2DRenderer.this.yReferenceLabels;
+        private final ListDouble yReferenceValues = Graph2DRenderer.this.yReferenceValues;
+        private final FontMetrics labelFontMetrics = Graph2DRenderer.this.labelFontMetrics;
+        private final int xLabelMaxHeight = Graph2DRenderer.this.xLabelMaxHeight;
+        private final int yLabelMaxWidth = Graph2DRenderer.this.yLabelMaxWidth;
+
+        private LabelLayout(FontRenderContext fontRenderContext) {
+            this.fontRenderContext = fontRenderContext;
+        }
+        
+        private boolean isValid(FontRenderContext fontRenderContext) {
+            return sameRange(xPlotRange, Graph2DRenderer.this.xPlotRange) &&
+                    sameRange(yPlotRange, Graph2DRenderer.this.yPlotRange) &&
+                    imageWidth == Graph2DRenderer.this.imageWidth &&
+                    imageHeight == Graph2DRenderer.this.imageHeight &&
+                    xValueScale == Graph2DRenderer.this.xValueScale &&
+                    yValueScale == Graph2DRenderer.this.yValueScale &&
+                    labelFont.equals(Graph2DRenderer.this.labelFont) &&
+                    this.fontRenderContext.equals(fontRenderContext);
+        }
+        
+        private void apply() {
+            Graph2DRenderer.this.xReferenceLabels = xReferenceLabels;
+            Graph2DRenderer.this.xReferenceValues = xReferenceValues;
+            Graph2DRenderer.this.yReferenceLabels = yReferenceLabels;
+            Graph2DRenderer.this.yReferenceValues = yReferenceValues;
+            Graph2DRenderer.this.labelFontMetrics = labelFontMetrics;
+            Graph2DRenderer.this.xLabelMaxHeight = xLabelMaxHeight;
+            Graph2DRenderer.this.yLabelMaxWidth = yLabelMaxWidth;
+        }
+    }
+    
+    /**
+     * The result of {@link #calculateGraphArea() }, together with the inputs
+     * it was calculated from.
+     */
+    private class AreaLayout {
+        // Inputs
+        private final Range xPlotRange = Graph2DRenderer.this.xPlotRange;
+        private final Range yPlotRange = Graph2DRenderer.this.yPlotRange;
+        private final int imageWidth = Graph2DRenderer.this.imageWidth;
+        private final int imageHeight = Graph2DRenderer.this.imageHeight;
+        private final ValueScale xValueScale = Graph2DRenderer.this.xValueScale;
+        private final ValueScale yValueScale = Graph2DRenderer.this.yValueScale;
+        private final ListDouble xReferenceValues = Graph2DRenderer.this.xReferenceValues;
+        private final ListDouble yReferenceValues = Graph2DRenderer.this.yReferenceValues;
+        private final int xLabelMaxHeight = Graph2DRenderer.this.xLabelMaxHeight;
+        private final int yLabelMaxWidth = Graph2DRenderer.this.yLabelMaxWidth;
+        private final int[] margins = margins();
+        private final double xPointMargin = Graph2DRenderer.this.xPointMargin;
+        private final double yPointMargin = Graph2DRenderer.this.yPointMargin;
+        // Outputs
+        private final double xPlotValueStart = Graph2DRenderer.this.xPlotValueStart;
+        private final double xPlotValueEnd = Graph2DRenderer.this.xPlotValueEnd;
+        private final double yPlotValueStart = Graph2DRenderer.this.yPlotValueStart;
+        private final double yPlotValueEnd = Graph2DRenderer.this.yPlotValueEnd;
+        private final int xAreaCoordStart = Graph2DRenderer.this.xAreaCoordStart;
+        private final int xAreaCoordEnd = Graph2DRenderer.this.xAreaCoordEnd;
+        private final int yAreaCoordStart = Graph2DRenderer.this.yAreaCoordStart;
+        private final int yAreaCoordEnd = Graph2DRenderer.this.yAreaCoordEnd;
+        private final double xPlotCoordStart = Graph2DRenderer.this.xPlotCoordStart;
+        private final double xPlotCoordEnd = Graph2DRenderer.this.xPlotCoordEnd;
+        private final double xPlotCoordWidth = Graph2DRenderer.this.xPlotCoordWidth;
+        private final double yPlotCoordStart = Graph2DRenderer.this.yPlotCoordStart;
+        private final double yPlotCoordEnd = Graph2DRenderer.this.yPlotCoordEnd;
+        private final double yPlotCoordHeight = Graph2DRenderer.this.yPlotCoordHeight;
+        private final ListDouble xReferenceCoords = Graph2DRenderer.this.xReferenceCoords;
+        private final ListDouble yReferenceCoords = Graph2DRenderer.this.yReferenceCoords;
+        
+        private boolean isValid() {
+            return sameRange(xPlotRange, Graph2DRenderer.this.xPlotRange) &&
+                    sameRange(yPlotRange, Graph2DRenderer.this.yPlotRange) &&
+                    imageWidth == Graph2DRenderer.this.imageWidth &&
+                    imageHeight == Graph2DRenderer.this.imageHeight &&
+                    xValueScale == Graph2DRenderer.this.xValueScale &&
+                    yValueScale == Graph2DRenderer.this.yValueScale &&
+                    xReferenceValues == Graph2DRenderer.this.xReferenceValues &&
+                    yReferenceValues == Graph2DRenderer.this.yReferenceValues &&
+                    xLabelMaxHeight == Graph2DRenderer.this.xLabelMaxHeight &&
+                    yLabelMaxWidth == Graph2DRenderer.this.yLabelMaxWidth &&
+                    Arrays.equals(margins, margins()) &&
+                    xPointMargin == Graph2DRenderer.this.xPointMargin &&
+                    yPointMargin == Graph2DRenderer.this.yPointMargin;
+        }
+        
+        private void apply() {
+            Graph2DRenderer.this.xPlotValueStart = xPlotValueStart;
+            Graph2DRenderer.this.xPlotValueEnd = xPlotValueEnd;
+            Graph2DRenderer.this.yPlotValueStart = yPlotValueStart;
+            Graph2DRenderer.this.yPlotValueEnd = yPlotValueEnd;
+            Graph2DRenderer.this.xAreaCoordStart = xAreaCoordStart;
+            Graph2DRenderer.this.xAreaCoordEnd = xAreaCoordEnd;
+            Graph2DRenderer.this.yAreaCoordStart = yAreaCoordStart;
+            Graph2DRenderer.this.yAreaCoordEnd = yAreaCoordEnd;
+            Graph2DRenderer.this.xPlotCoordStart = xPlotCoordStart;
+            Graph2DRenderer.this.xPlotCoordEnd = xPlotCoordEnd;
+            Graph2DRenderer.this.xPlotCoordWidth = xPlotCoordWidth;
+            Graph2DRenderer.this.yPlotCoordStart = yPlotCoordStart;
+            Graph2DRenderer.this.yPlotCoordEnd = yPlotCoordEnd;
+            Graph2DRenderer.this.yPlotCoordHeight = yPlotCoordHeight;
+            Graph2DRenderer.this.xReferenceCoords = xReferenceCoords;
+            Graph2DRenderer.this.yReferenceCoords = yReferenceCoords;
+        }
+    }
+    
+    private int[] margins() {
+        return new int[] {bottomMargin, topMargin, leftMargin, rightMargin,
+            bottomAreaMargin, topAreaMargin, leftAreaMargin, rightAreaMargin,
+            xLabelMargin, yLabelMargin};
+    }
+    
+    private static boolean sameRange(Range range1, Range range2) {
+        // The type of the numbers matters, as it changes the labels
+        return range1 != null && range2 != null &&
+                range1.getMinimum().equals(range2.getMinimum()) &&
+                range1.getMaximum().equals(range2.getMaximum());
     }
 
     /**
      * Draws the background with the background color.
      */
     protected void drawBackground() {
+        long start = phaseStart();
         g.setColor(backgroundColor);
         g.fillRect(0, 0, getImageWidth(), getImageHeight());
+        phaseEnd(RenderPhase.BACKGROUND, start);
     }
     
     /**
@@ -450,6 +706,7 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * lines and the labels.
      */
     protected void drawGraphArea() {
+        long start = phaseStart();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         // When drawing the reference line, align them to the pixel
         drawVerticalReferenceLines();
@@ -457,83 +714,9 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         
         drawYLabels();
         drawXLabels();
+        phaseEnd(RenderPhase.BACKGROUND, start);
     }
 
-    private ScaledData scaleNoReduction(ListNumber xValues, ListNumber yValues) {
-        return scaleNoReduction(xValues, yValues, 0);
-    }
-
-    private ScaledData scaleNoReduction(ListNumber xValues, ListNumber yValues, int dataStart) {
-        ScaledData scaledData = new ScaledData();
-        int dataCount = xValues.size();
-        scaledData.scaledX = new double[dataCount];
-        scaledData.scaledY = new double[dataCount];
-        for (int i = 0; i < scaledData.scaledY.length; i++) {
-            scaledData.scaledX[i] = scaledX(xValues.getDouble(i));
-            scaledData.scaledY[i] = scaledY(yValues.getDouble(i));
-            processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), scaledData.scaledX[i], scaledData.scaledY[i]);
-        }
-        scaledData.end = dataCount;
-        return scaledData;
-    }
-
-    private ScaledData scaleFirstMaxMinLastReduction(ListNumber xValues, ListNumber yValues, int dataStart) {
-        // The number of points generated by this is about 4 times the 
-        // number of points on the x axis. If the number of points is less
-        // than that, it's not worth it. Don't do the data reduction.
-        if (xValues.size() < xPlotCoordWidth * 4) {
-            return scaleNoReduction(xValues, yValues, dataStart);
-        }
-
-        ScaledData scaledData = new ScaledData();
-        scaledData.scaledX = new double[((int) xPlotCoordWidth + 1)*4 ];
-        scaledData.scaledY = new double[((int) xPlotCoordWidth + 1)*4];
-        int cursor = 0;
-        int previousPixel = (int) scaledX(xValues.getDouble(0));
-        double last = scaledY(yValues.getDouble(0));
-        double min = last;
-        double max = last;
-        scaledData.scaledX[0] = previousPixel;
-        scaledData.scaledY[0] = min;
-        processScaledValue(dataStart, xValues.getDouble(0), yValues.getDouble(0), scaledX(xValues.getDouble(0)), last);
-        cursor++;
-        for (int i = 1; i < xValues.size(); i++) {
-            double currentScaledX = scaledX(xValues.getDouble(i));
-            int currentPixel = (int) currentScaledX;
-            if (currentPixel == previousPixel) {
-                last = scaledY(yValues.getDouble(i));
-                min = MathIgnoreNaN.min(min, last);
-                max = MathIgnoreNaN.max(max, last);
-                processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), currentScaledX, last);
-            } else {
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = max;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = min;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
-                previousPixel = currentPixel;
-                last = scaledY(yValues.getDouble(i));
-                min = last;
-                max = last;
-                scaledData.scaledX[cursor] = currentPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
-            }
-        }
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = max;
-        cursor++;
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = min;
-        cursor++;
-        scaledData.end = cursor;
-        return scaledData;
-    }
-    
     /**
      *Empty function, designed to be implemented in sub-classes.
      * <p>Used on every value in a dataset.</p>
@@ -546,11 +729,34 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
     protected void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
     }
     
-    private static class ScaledData {
-        private double[] scaledX;
-        private double[] scaledY;
-        private int start;
-        private int end;
+    /**
+     * Returns the structure to hold the scaled values. If buffers are reused,
+     * the structure of the previous draw is returned, and its arrays
+     * are only reallocated if they are too small.
+     * 
+     * @return the structure for the scaled values
+     */
+    protected ScaledData newScaledData() {
+        if (reuseBuffers) {
+            return scratchScaledData;
+        } else {
+            return new ScaledData();
+        }
+    }
+    
+    /**
+     * Returns an empty path for the line. If buffers are reused,
+     * the path of the previous draw is reset and returned.
+     * 
+     * @return an empty path
+     */
+    protected Path2D.Double newPath() {
+        if (reuseBuffers) {
+            scratchPath.reset();
+            return scratchPath;
+        } else {
+            return new Path2D.Double();
+        }
     }
     
     /**
@@ -562,38 +768,14 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * @param interpolation the interpolation scheme
      */
     protected void drawValueLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation) {
-        ReductionScheme reductionScheme = ReductionScheme.NONE;
-        
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
 
-        ScaledData scaledData;
+        long start = phaseStart();
+        ScaledData scaledData = newScaledData();
+        lineScaling.scaleNoReduction(xValues, yValues, 0, scaledData, scratchProcessValue);
         
-        switch (reductionScheme) {
-            default:
-                throw new IllegalArgumentException("Reduction scheme " + reductionScheme + " not supported");
-            case NONE:
-                scaledData = scaleNoReduction(xValues, yValues);
-                break;
-        }
-        
-        // create path
-        Path2D path;
-        switch (interpolation) {
-            default:
-            case NEAREST_NEIGHBOR:
-                path = nearestNeighbour(scaledData);
-                break;
-            case LINEAR:
-                path = linearInterpolation(scaledData);
-                break;
-            case CUBIC:
-                path = cubicInterpolation(scaledData);
-                break;
-        }
-
-        // Draw the line
-        g.draw(path);
+        drawScaledLine(xValues.size(), scaledData, interpolation, start);
     }
     
     /**
@@ -606,7 +788,25 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
      * @param reduction the reduction
      */
     protected void drawValueExplicitLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction) {
-        ScaledData scaledData;
+        drawValueExplicitLine(xValues, yValues, interpolation, reduction, null);
+    }
+    
+    /**
+     * Draws an explicit line give the interpolation and reduction schemes,
+     * the x values and the y values. The function will scale the values.
+     * If an index of the y values is given, it is used by the
+     * first/max/min/last reduction.
+     * 
+     * @param xValues the x values
+     * @param yValues the y values
+     * @param interpolation the interpolation
+     * @param reduction the reduction
+     * @param yPyramid the index of the y values; can be null
+     */
+    protected void drawValueExplicitLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction, MinMaxPyramid yPyramid) {
+        long eventStart = RenderEvents.start();
+        long phaseStart = phaseStart();
+        int pointsIn = xValues.size();
         
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
@@ -618,42 +818,47 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         xValues = ListMath.limit(xValues, start, end + 1);
         yValues = ListMath.limit(yValues, start, end + 1);
         
-        switch (reduction) {
-            default:
-                throw new IllegalArgumentException("Reduction scheme " + reduction + " not supported");
-            case NONE:
-                scaledData = scaleNoReduction(xValues, yValues, start);
-                break;
-            case FIRST_MAX_MIN_LAST:
-                scaledData = scaleFirstMaxMinLastReduction(xValues, yValues, start);
-                break;
-        }
+        ScaledData scaledData = newScaledData();
+        lineScaling.scale(reduction, xValues, yValues, start, xPlotCoordWidth, yPyramid, scaledData, scratchProcessValue);
+        
+        drawScaledLine(pointsIn, scaledData, interpolation, phaseStart);
+        RenderEvents.end("drawValueExplicitLine", eventStart, pointsIn, getImageWidth(), getImageHeight(), reduction.name());
+    }
+    
+    /**
+     * Builds the path for the scaled data and draws it, reporting the phases
+     * that started at the given time.
+     */
+    private void drawScaledLine(int pointsIn, ScaledData scaledData, InterpolationScheme interpolation, long start) {
+        start = phaseEnd(RenderPhase.DATA_REDUCTION, start);
         
         // create path
         Path2D path;
         switch (interpolation) {
             default:
             case NEAREST_NEIGHBOR:
-                path = nearestNeighbour(scaledData);
+                path = nearestNeighbour(scaledData, newPath());
                 break;
             case LINEAR:
-                path = linearInterpolation(scaledData);
+                path = linearInterpolation(scaledData, newPath());
                 break;
             case CUBIC:
-                path = cubicInterpolation(scaledData);
+                path = cubicInterpolation(scaledData, newPath());
                 break;
         }
+        start = phaseEnd(RenderPhase.PATH, start);
 
         // Draw the line
         g.draw(path);
+        phaseEnd(RenderPhase.STROKE, start);
+        RenderPhases.lineDrawn(renderListener, pointsIn, scaledData.end - scaledData.start);
     }
 
-    private static Path2D.Double nearestNeighbour(ScaledData scaledData) {
+    private static Path2D.Double nearestNeighbour(ScaledData scaledData, Path2D.Double line) {
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
         line.moveTo(scaledX[start], scaledY[start]);
         for (int i = 1; i < end; i++) {
             double halfX = scaledX[i - 1] + (scaledX[i] - scaledX[i - 1]) / 2;
@@ -669,12 +874,11 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         return line;
     }
    
-    private static Path2D.Double linearInterpolation(ScaledData scaledData){
+    private static Path2D.Double linearInterpolation(ScaledData scaledData, Path2D.Double line){
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
         
         for (int i = start; i < end; i++) {
             // Do I have a current value?
@@ -700,12 +904,11 @@ public abstract class Graph2DRenderer<T extends Graph2DRendererUpdate> {
         return line;
     }
     
-    private static Path2D.Double cubicInterpolation(ScaledData scaledData){
+    private static Path2D.Double cubicInterpolation(ScaledData scaledData, Path2D.Double path){
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double path = new Path2D.Double();
         for (int i = start; i < end; i++) {
             
             double y1;
@@ -9,6 +9,7 @@ import org.epics.util.stats.Range;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
+import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.util.Arrays;
 import java.util.Collections;
@@ -86,6 +87,8 @@ class GraphAreaData {
     int graphPaddingRight = 0;
     int graphPaddingBottom = 0;
     int graphPaddingTop = 0;
+    
+    boolean asCell;
 
     /**
      * Changes the buffer where the graph area is going to be rendered.
@@ -234,6 +237,7 @@ class GraphAreaData {
      */
     public void prepareGraphArea(boolean asCell, Color referenceLineColor) {
         this.referenceLineColor = referenceLineColor;
+        this.asCell = asCell;
         
         // Prepare x positions
         graphLeft = areaLeft + yLabelMaxWidth + labelMarginLeft;
@@ -290,4 +294,46 @@ class GraphAreaData {
         graphBuffer.drawLeftLabels(yReferenceLabels, yReferencePixels, labelColor, labelFont, graphBottom, graphTop, graphLeft - labelMarginLeft - 1);
     }
     
+    /**
+     * Draws the background and the graph area. The result is saved in the
+     * graph buffer as the static layer of the given owner: if the inputs
+     * of the graph area did not change, the next call copies the saved
+     * pixels instead of drawing.
+     * 
+     * @param owner the renderer that draws the graph area
+     * @param backgroundColor the color of the background
+     */
+    protected void drawBackgroundAndGraphArea(Object owner, Color backgroundColor) {
+        List<Object> key = Arrays.<Object>asList(backgroundColor, labelFont, labelColor, referenceLineColor, asCell,
+                areaLeft, areaBottom, areaRight, areaTop,
+                graphPaddingLeft, graphPaddingBottom, graphPaddingRight, graphPaddingTop,
+                labelMarginBottom, labelMarginLeft,
+                xValueRange.getMinimum(), xValueRange.getMaximum(), xValueScale,
+                yValueRange.getMinimum(), yValueRange.getMaximum(), yValueScale);
+        if (graphBuffer.restoreStaticLayer(owner, key)) {
+            restoreGraphAreaContext();
+            return;
+        }
+        graphBuffer.drawBackground(backgroundColor);
+        drawGraphArea();
+        graphBuffer.saveStaticLayer(owner, key);
+    }
+    
+    /**
+     * Leaves the graphics context as drawing the graph area does, so that
+     * what is drawn next (data, legends, ...) looks the same whether the
+     * static layer was drawn or restored.
+     */
+    private void restoreGraphAreaContext() {
+        Graphics2D g = graphBuffer.getGraphicsContext();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        if ((xReferenceLabels != null && !xReferenceLabels.isEmpty()) || (yReferenceLabels != null && !yReferenceLabels.isEmpty())) {
+            g.setColor(labelColor);
+            g.setFont(labelFont);
+        } else {
+            g.setColor(referenceLineColor);
+        }
+    }
+    
 }
@@ -4,15 +4,26 @@
  */
 package org.epics.graphene;
 import org.epics.util.stats.Range;
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Shape;
 import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.epics.util.array.ListInt;
 import org.epics.util.array.ListMath;
 import org.epics.util.array.ListNumber;
@@ -37,13 +48,16 @@ import org.epics.util.array.SortedListView;
 public class GraphBuffer {
     
     private final BufferedImage image;
-    private final Graphics2D g;
+    private Graphics2D g;
     
     /**
      * Represents the pixels of a 2D image. if a the image has a width w, then
      * the point (x, y) is represented by the y*width + x pixel.
+     * Only one of the two is set: bytes for TYPE_3BYTE_BGR,
+     * one int per pixel for TYPE_INT_RGB and TYPE_INT_ARGB.
      */
     private final byte[] pixels;
+    private final int[] intPixels;
     private final boolean hasAlphaChannel;
     private final int width, height;
     
@@ -61,8 +75,15 @@ public class GraphBuffer {
     private  double yPlotCoordEnd;
     private  double xPlotCoordEnd;
     
+    // The pre-rendered part of the graph that does not depend on the data,
+    // for each renderer that draws on this buffer
+    private final Map<Object, StaticLayer> staticLayers = new WeakHashMap<>();
+    
      // Pixel focus
     private Integer focusPixelX;
+    
+    // Instrumentation; set by any thread, read by the one that draws
+    private volatile RenderListener renderListener;
     //private int focusValueIndex = -1;
     //private boolean highlightFocusValue = false;
 
@@ -76,7 +97,14 @@ public class GraphBuffer {
         this.image = image;
         width = image.getWidth();
         height = image.getHeight();
-        pixels = ((DataBufferByte)this.image.getRaster().getDataBuffer()).getData();
+        DataBuffer dataBuffer = this.image.getRaster().getDataBuffer();
+        if (dataBuffer instanceof DataBufferInt) {
+            intPixels = ((DataBufferInt) dataBuffer).getData();
+            pixels = null;
+        } else {
+            intPixels = null;
+            pixels = ((DataBufferByte) dataBuffer).getData();
+        }
         hasAlphaChannel = image.getAlphaRaster() != null;
         g = image.createGraphics();
         
@@ -96,6 +124,33 @@ public class GraphBuffer {
         this(new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR));
     }
     
+    /**
+     * Creates a GraphBuffer with the given width, height and image type.
+     * <p>
+     * With TYPE_INT_RGB and TYPE_INT_ARGB each pixel is a single int in
+     * the raster, which makes pixel operations a single store and
+     * the image cheaper to hand over to the toolkit.
+     * 
+     * @param width width of the graph
+     * @param height height of the graph
+     * @param imageType one of BufferedImage.TYPE_3BYTE_BGR, TYPE_INT_RGB
+     * or TYPE_INT_ARGB
+     */
+    public GraphBuffer(int width, int height, int imageType) {
+        this(new BufferedImage(width, height, checkImageType(imageType)));
+    }
+    
+    private static int checkImageType(int imageType) {
+        switch (imageType) {
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+                return imageType;
+            default:
+                throw new IllegalArgumentException("Image type " + imageType + " not supported");
+        }
+    }
+    
     /**
      * Creates a GraphBuffer suitable for the given renderer. Makes sure
      * all the parameters from the renderer are consistent with the buffer itself.
@@ -115,7 +170,10 @@ public class GraphBuffer {
      * @param color color-value of the pixel
      */
     public void setPixel(int x, int y, int color){
-        if(hasAlphaChannel){
+        if(intPixels != null){
+            intPixels[y*width + x] = color;
+        }
+        else if(hasAlphaChannel){
             pixels[y*image.getWidth()*4 + x*4 + 3] = (byte)(color >> 24 & 0xFF);
             pixels[y*image.getWidth()*4 + x*4 + 0] = (byte)(color >> 0 & 0xFF);
             pixels[y*image.getWidth()*4 + x*4 + 1] = (byte)(color >> 8 & 0xFF);
@@ -147,6 +205,48 @@ public class GraphBuffer {
         return g;
     }
     
+    /**
+     * The listener that receives the timings of each phase of the lines
+     * drawn on this buffer.
+     * 
+     * @return the listener; null if the draw is not instrumented
+     */
+    public RenderListener getRenderListener() {
+        return renderListener;
+    }
+
+    /**
+     * Changes the listener that receives the timings of each phase of the
+     * lines drawn on this buffer. It is called on the thread that draws,
+     * and it can be changed from any thread. A renderer that draws on the
+     * buffer sets its own listener before drawing.
+     * 
+     * @param renderListener the new listener; null to stop the instrumentation
+     */
+    public void setRenderListener(RenderListener renderListener) {
+        this.renderListener = renderListener;
+    }
+    
+    /**
+     * Brings the buffer back to the state of a new one, so that it can be
+     * reused for another graph of the same size: the pixels are set to zero
+     * and a new graphics context replaces the current one. This costs a fill
+     * of the raster instead of the allocation of a new image.
+     * <p>
+     * The static layers are kept, as they are only restored if the
+     * inputs of the renderer match. The render listener is removed.
+     */
+    void clear() {
+        renderListener = null;
+        if (intPixels != null) {
+            Arrays.fill(intPixels, 0);
+        } else {
+            Arrays.fill(pixels, (byte) 0);
+        }
+        g.dispose();
+        g = image.createGraphics();
+    }
+    
     /**
      * Plots the given data points on this buffer. 
      * @param xStartPoint the starting x-coordinate of the data image
@@ -161,13 +261,169 @@ public class GraphBuffer {
     public void drawDataImage(int xStartPoint, int yStartPoint,
 			int[] xPointToDataMap, int[] yPointToDataMap,
 			Cell2DDataset data, NumberColorMapInstance colorMap) {
+        long eventStart = RenderEvents.start();
+        drawDataImageRows(xStartPoint, yStartPoint, xPointToDataMap, yPointToDataMap,
+                data, colorMap, 0, yPointToDataMap.length);
+        RenderEvents.end("drawDataImage", eventStart, data.getXCount() * data.getYCount(), width, height, null);
+    }
+    
+    /**
+     * Plots the given data points on this buffer, splitting the rows
+     * in horizontal bands that are drawn in parallel on the given pool.
+     * Each band behaves as the sequential version: a row that maps to the
+     * same data row as the previous one in the band is copied.
+     * <p>
+     * The color map and the data must support concurrent reads.
+     * 
+     * @param xStartPoint the starting x-coordinate of the data image
+     * @param yStartPoint the starting y-coordinate of the data image
+     * @param xPointToDataMap the x-coordinates of data points to plot
+     * @param yPointToDataMap the y-coordinates of data points to plot
+     * @param data a third-coordinate, z, of data points to plot 
+     * this third-coordinate gets represented by a color
+     * @param colorMap a mapping of real numbers to colors, so that 
+     * we can represent the z-coordinate of data points as a color
+     * @param pool the pool on which the bands are drawn
+     */
+    public void drawDataImage(int xStartPoint, int yStartPoint,
+			int[] xPointToDataMap, int[] yPointToDataMap,
+			Cell2DDataset data, NumberColorMapInstance colorMap, ForkJoinPool pool) {
+        long eventStart = RenderEvents.start();
+        pool.invoke(new DataImageBand(xStartPoint, yStartPoint, xPointToDataMap, null, yPointToDataMap, null,
+                data, colorMap, null, 0, yPointToDataMap.length, bandRows(yPointToDataMap.length, pool)));
+        RenderEvents.end("drawDataImage", eventStart, data.getXCount() * data.getYCount(), width, height, null);
+    }
+    
+    /**
+     * Plots the given data on this buffer, reducing all the cells that fall
+     * in the same pixel to a single value. The cells for the pixel at a given
+     * offset go from the index in the point to data map (included) to the
+     * index in the point to data end (excluded).
+     * <p>
+     * The data is read one data row at a time, in the order it is stored
+     * by the datasets of this package. Pixel rows that cover the same
+     * data rows as the previous one are copied.
+     * 
+     * @param xStartPoint the starting x-coordinate of the data image
+     * @param yStartPoint the starting y-coordinate of the data image
+     * @param xPointToDataMap the first x index of the cells of each pixel column
+     * @param xPointToDataEnd the x index after the last cell of each pixel column
+     * @param yPointToDataMap the first y index of the cells of each pixel row
+     * @param yPointToDataEnd the y index after the last cell of each pixel row
+     * @param data a third-coordinate, z, of data points to plot 
+     * this third-coordinate gets represented by a color
+     * @param colorMap a mapping of real numbers to colors, so that 
+     * we can represent the z-coordinate of data points as a color
+     * @param reduction how the cells within the same pixel are reduced
+     * @param pool the pool on which the rows are drawn in parallel bands;
+     * null to draw on the current thread
+     */
+    public void drawDataImage(int xStartPoint, int yStartPoint,
+			int[] xPointToDataMap, int[] xPointToDataEnd, int[] yPointToDataMap, int[] yPointToDataEnd,
+			Cell2DDataset data, NumberColorMapInstance colorMap, CellReductionScheme reduction, ForkJoinPool pool) {
+        long eventStart = RenderEvents.start();
+        if (reduction == CellReductionScheme.NONE) {
+            reduction = null;
+        }
+        if (pool == null) {
+            drawDataImageRows(xStartPoint, yStartPoint, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                    data, colorMap, reduction, 0, yPointToDataMap.length);
+        } else {
+            pool.invoke(new DataImageBand(xStartPoint, yStartPoint, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                    data, colorMap, reduction, 0, yPointToDataMap.length, bandRows(yPointToDataMap.length, pool)));
+        }
+        RenderEvents.end("drawDataImage", eventStart, data.getXCount() * data.getYCount(), width, height,
+                reduction == null ? null : reduction.name());
+    }
+    
+    private static final int MIN_BAND_ROWS = 16;
+    
+    private static int bandRows(int nRows, ForkJoinPool pool) {
+        // A few bands per thread, so that the work is balanced
+        // even if the rows do not cost the same
+        return Math.max(MIN_BAND_ROWS, nRows / (pool.getParallelism() * 4) + 1);
+    }
+    
+    /**
+     * Draws the rows of the data image in the given range, splitting
+     * recursively until the bands are small enough.
+     */
+    private class DataImageBand extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int xStartPoint;
+        private final int yStartPoint;
+        private final int[] xPointToDataMap;
+        private final int[] xPointToDataEnd;
+        private final int[] yPointToDataMap;
+        private final int[] yPointToDataEnd;
+        private final Cell2DDataset data;
+        private final NumberColorMapInstance colorMap;
+        private final CellReductionScheme reduction;
+        private final int fromRow;
+        private final int toRow;
+        private final int bandRows;
+
+        public DataImageBand(int xStartPoint, int yStartPoint, int[] xPointToDataMap, int[] xPointToDataEnd,
+                int[] yPointToDataMap, int[] yPointToDataEnd, Cell2DDataset data, NumberColorMapInstance colorMap,
+                CellReductionScheme reduction, int fromRow, int toRow, int bandRows) {
+            this.xStartPoint = xStartPoint;
+            this.yStartPoint = yStartPoint;
+            this.xPointToDataMap = xPointToDataMap;
+            this.xPointToDataEnd = xPointToDataEnd;
+            this.yPointToDataMap = yPointToDataMap;
+            this.yPointToDataEnd = yPointToDataEnd;
+            this.data = data;
+            this.colorMap = colorMap;
+            this.reduction = reduction;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= bandRows) {
+                if (reduction == null) {
+                    drawDataImageRows(xStartPoint, yStartPoint, xPointToDataMap, yPointToDataMap,
+                            data, colorMap, fromRow, toRow);
+                } else {
+                    drawDataImageRows(xStartPoint, yStartPoint, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                            data, colorMap, reduction, fromRow, toRow);
+                }
+            } else {
+                int middleRow = (fromRow + toRow) >>> 1;
+                invokeAll(new DataImageBand(xStartPoint, yStartPoint, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                                data, colorMap, reduction, fromRow, middleRow, bandRows),
+                        new DataImageBand(xStartPoint, yStartPoint, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                                data, colorMap, reduction, middleRow, toRow, bandRows));
+            }
+        }
+    }
+    
+    private void drawDataImageRows(int xStartPoint, int yStartPoint,
+			int[] xPointToDataMap, int[] yPointToDataMap,
+			Cell2DDataset data, NumberColorMapInstance colorMap, int fromRow, int toRow) {
 	
         int previousYData = -1;
+        
+        // Datasets that can copy a whole row are read from the array
+        Cell2DRowDataset rowData = null;
+        double[] row = null;
+        if (data instanceof Cell2DRowDataset) {
+            rowData = (Cell2DRowDataset) data;
+            row = new double[data.getXCount()];
+        }
 	
 	//go through each data point
-        for (int yOffset = 0; yOffset < yPointToDataMap.length; yOffset++) {
+        for (int yOffset = fromRow; yOffset < toRow; yOffset++) {
             int yData = yPointToDataMap[yOffset];
-            if (yData != previousYData) {
+            if (yData != previousYData && row != null) {
+                rowData.getRow(yData, row);
+                for (int xOffset = 0; xOffset < xPointToDataMap.length; xOffset++) {
+                    setPixel(xStartPoint + xOffset, yStartPoint + yOffset, colorMap.colorFor(row[xPointToDataMap[xOffset]]));
+                }
+            } else if (yData != previousYData) {
                 for (int xOffset = 0; xOffset < xPointToDataMap.length; xOffset++) {  
                     int xData = xPointToDataMap[xOffset];
 		    
@@ -181,18 +437,108 @@ public class GraphBuffer {
 	    // If the current line is the same as the previous, it's
             // faster to make a copy
             } else {
-                if (hasAlphaChannel) {
-                    System.arraycopy(pixels, (yStartPoint + yOffset - 1)*width*4 + 4*xStartPoint,
-                            pixels, (yStartPoint + yOffset)*width*4 + 4*xStartPoint, xPointToDataMap.length*4);
-                } else {
-                    System.arraycopy(pixels, (yStartPoint + yOffset - 1)*width*3 + 3*xStartPoint,
-                            pixels, (yStartPoint + yOffset)*width*3 + 3*xStartPoint, xPointToDataMap.length*3);
-                }
+                copyPreviousRow(xStartPoint, yStartPoint + yOffset, xPointToDataMap.length);
             }
             previousYData = yData;
         }
     }
     
+    private void drawDataImageRows(int xStartPoint, int yStartPoint,
+			int[] xPointToDataMap, int[] xPointToDataEnd, int[] yPointToDataMap, int[] yPointToDataEnd,
+			Cell2DDataset data, NumberColorMapInstance colorMap, CellReductionScheme reduction, int fromRow, int toRow) {
+        if (reduction == null) {
+            drawDataImageRows(xStartPoint, yStartPoint, xPointToDataMap, yPointToDataMap, data, colorMap, fromRow, toRow);
+            return;
+        }
+        
+        // Reduced values for the current pixel row, and number of values for the mean
+        double[] rowValues = new double[xPointToDataMap.length];
+        int[] rowCounts = new int[xPointToDataMap.length];
+        int previousYStart = -1;
+        int previousYEnd = -1;
+        
+        // Datasets that can copy a whole row are read from the array
+        Cell2DRowDataset rowData = null;
+        double[] row = null;
+        if (data instanceof Cell2DRowDataset) {
+            rowData = (Cell2DRowDataset) data;
+            row = new double[data.getXCount()];
+        }
+        
+        for (int yOffset = fromRow; yOffset < toRow; yOffset++) {
+            int yStart = yPointToDataMap[yOffset];
+            int yEnd = Math.max(yStart + 1, yPointToDataEnd[yOffset]);
+            if (yStart != previousYStart || yEnd != previousYEnd) {
+                Arrays.fill(rowValues, java.lang.Double.NaN);
+                Arrays.fill(rowCounts, 0);
+                
+                // One data row at a time, left to right
+                for (int yData = yStart; yData < yEnd; yData++) {
+                    if (row != null) {
+                        rowData.getRow(yData, row);
+                    }
+                    for (int xOffset = 0; xOffset < xPointToDataMap.length; xOffset++) {
+                        int xStart = xPointToDataMap[xOffset];
+                        int xEnd = Math.max(xStart + 1, xPointToDataEnd[xOffset]);
+                        double current = rowValues[xOffset];
+                        for (int xData = xStart; xData < xEnd; xData++) {
+                            double value = row != null ? row[xData] : data.getValue(xData, yData);
+                            if (!java.lang.Double.isNaN(value)) {
+                                if (java.lang.Double.isNaN(current)) {
+                                    current = value;
+                                } else {
+                                    switch (reduction) {
+                                        case MAX:
+                                            current = Math.max(current, value);
+                                            break;
+                                        case MIN:
+                                            current = Math.min(current, value);
+                                            break;
+                                        default:
+                                        case MEAN:
+                                            current += value;
+                                            break;
+                                    }
+                                }
+                                rowCounts[xOffset]++;
+                            }
+                        }
+                        rowValues[xOffset] = current;
+                    }
+                }
+                
+                for (int xOffset = 0; xOffset < xPointToDataMap.length; xOffset++) {
+                    double value = rowValues[xOffset];
+                    if (reduction == CellReductionScheme.MEAN && rowCounts[xOffset] != 0) {
+                        value = value / rowCounts[xOffset];
+                    }
+                    setPixel(xStartPoint + xOffset, yStartPoint + yOffset, colorMap.colorFor(value));
+                }
+            } else {
+                copyPreviousRow(xStartPoint, yStartPoint + yOffset, xPointToDataMap.length);
+            }
+            previousYStart = yStart;
+            previousYEnd = yEnd;
+        }
+    }
+    
+    /**
+     * Copies the given number of pixels, starting from the given x, from the
+     * row above to the given row.
+     */
+    private void copyPreviousRow(int x, int y, int length) {
+        if (intPixels != null) {
+            System.arraycopy(intPixels, (y - 1)*width + x,
+                    intPixels, y*width + x, length);
+        } else if (hasAlphaChannel) {
+            System.arraycopy(pixels, (y - 1)*width*4 + 4*x,
+                    pixels, y*width*4 + 4*x, length*4);
+        } else {
+            System.arraycopy(pixels, (y - 1)*width*3 + 3*x,
+                    pixels, y*width*3 + 3*x, length*3);
+        }
+    }
+    
     private double xLeftValue;
     private double xRightValue;
     private double xLeftPixel;
@@ -364,7 +710,73 @@ public class GraphBuffer {
 
     void drawBackground(Color color) {
         g.setColor(color);
-        g.fillRect(0, 0, width, height);
+        if (intPixels != null && color.getAlpha() == 255) {
+            // An opaque fill simply replaces all the pixels
+            Arrays.fill(intPixels, color.getRGB());
+        } else {
+            g.fillRect(0, 0, width, height);
+        }
+    }
+    
+    /**
+     * A copy of the pixels of the buffer, together with the inputs
+     * used to draw them.
+     */
+    private static class StaticLayer {
+        private Object key;
+        private byte[] pixels;
+        private int[] intPixels;
+    }
+    
+    /**
+     * Copies back the pixels saved by {@link #saveStaticLayer(java.lang.Object, java.lang.Object) }
+     * for the given owner, if they were saved with an equal key. The key
+     * should contain everything that affects the static part of the graph,
+     * so that any change in the inputs invalidates the layer.
+     * 
+     * @param owner the renderer that saved the layer
+     * @param key the inputs used to draw the layer
+     * @return true if the layer was restored, false if it needs to be drawn
+     */
+    boolean restoreStaticLayer(Object owner, Object key) {
+        StaticLayer layer = staticLayers.get(owner);
+        if (layer == null || !layer.key.equals(key)) {
+            return false;
+        }
+        if (intPixels != null) {
+            System.arraycopy(layer.intPixels, 0, intPixels, 0, intPixels.length);
+        } else {
+            System.arraycopy(layer.pixels, 0, pixels, 0, pixels.length);
+        }
+        return true;
+    }
+    
+    /**
+     * Saves the current pixels as the static layer of the given owner,
+     * so that they can be restored at the next draw. It should be called
+     * after the background, reference lines and labels are drawn,
+     * and before the data.
+     * 
+     * @param owner the renderer that draws the layer
+     * @param key the inputs used to draw the layer
+     */
+    void saveStaticLayer(Object owner, Object key) {
+        StaticLayer layer = staticLayers.get(owner);
+        if (layer == null) {
+            layer = new StaticLayer();
+            if (intPixels != null) {
+                layer.intPixels = new int[intPixels.length];
+            } else {
+                layer.pixels = new byte[pixels.length];
+            }
+            staticLayers.put(owner, layer);
+        }
+        if (intPixels != null) {
+            System.arraycopy(intPixels, 0, layer.intPixels, 0, intPixels.length);
+        } else {
+            System.arraycopy(pixels, 0, layer.pixels, 0, pixels.length);
+        }
+        layer.key = key;
     }
     
     private static final int MIN = 0;
@@ -560,95 +972,53 @@ public class GraphBuffer {
         }
     }
     
-     private static class ScaledData {
-        private double[] scaledX;
-        private double[] scaledY;
-        private int start;
-        private int end;
-    }
-
     public void drawValueLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation,ProcessValue pv) {
-        ReductionScheme reductionScheme = ReductionScheme.NONE;
-        
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
 
-        ScaledData scaledData;
-        
-        switch (reductionScheme) {
-            default:
-                throw new IllegalArgumentException("Reduction scheme " + reductionScheme + " not supported");
-            case NONE:
-                scaledData = scaleNoReduction(xValues, yValues,pv);
-                break;
-        }
+        long phaseStart = RenderPhases.start(renderListener);
+        ScaledData scaledData = new ScaledData();
+        lineScaling.scaleNoReduction(xValues, yValues, 0, scaledData, pv);
         
-        // create path
-        Path2D path;
-        switch (interpolation) {
-            default:
-            case NEAREST_NEIGHBOR:
-                path = nearestNeighbour(scaledData);
-                break;
-            case LINEAR:
-                path = linearInterpolation(scaledData);
-                break;
-            case CUBIC:
-                path = cubicInterpolation(scaledData);
-                break;
-        }
-
-        // Draw the line
-        g.draw(path);
+        drawScaledLine(xValues.size(), scaledData, interpolation, phaseStart);
     }
     
     public void drawValueExplicitLine(Point2DDataset data, InterpolationScheme interpolation, ReductionScheme reduction,ProcessValue pv){
  
-        SortedListView xValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
-        ListNumber yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), xValues.getIndexes());
-        this.drawValueExplicitLine(xValues, yValues, interpolation, reduction, pv);
+        ListNumber xValues;
+        ListNumber yValues;
+        MinMaxPyramid yPyramid = null;
+        if (Point2DDatasets.isXSorted(data)) {
+            xValues = data.getXValues();
+            yValues = data.getYValues();
+            if (data instanceof Point2DPyramidDataset) {
+                yPyramid = ((Point2DPyramidDataset) data).getYPyramid();
+            }
+        } else {
+            SortedListView sortedXValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
+            xValues = sortedXValues;
+            yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), sortedXValues.getIndexes());
+        }
+        this.drawValueExplicitLine(xValues, yValues, interpolation, reduction, pv, yPyramid);
     }
-    private void drawValueExplicitLine(ListNumber xValues,ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction,ProcessValue pv) {
+    private void drawValueExplicitLine(ListNumber xValues,ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction,ProcessValue pv, MinMaxPyramid yPyramid) {
        
+        long phaseStart = RenderPhases.start(renderListener);
+        int pointsIn = xValues.size();
+        
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
         
-        ScaledData scaledData;
-             
         int start = org.epics.util.array.ListNumbers.binarySearchValueOrLower(xValues, xPlotValueStart);
         int end = org.epics.util.array.ListNumbers.binarySearchValueOrHigher(xValues, xPlotValueEnd);
         
         xValues =ListMath.limit(xValues, start, end + 1);
         yValues = ListMath.limit(yValues, start, end + 1);
         
-        switch (reduction) {
-            default:
-                throw new IllegalArgumentException("Reduction scheme " + reduction + " not supported");
-            case NONE:
-                scaledData = scaleNoReduction(xValues, yValues, start,pv);
-                break;
-            case FIRST_MAX_MIN_LAST:
-                scaledData = scaleFirstMaxMinLastReduction(xValues, yValues, start,pv);
-                break;
-        }
+        ScaledData scaledData = new ScaledData();
+        lineScaling.scale(reduction, xValues, yValues, start, xPlotCoordEnd - xPlotCoordStart, yPyramid, scaledData, pv);
         
-        // create path
-        Path2D path;
-        switch (interpolation) {
-            default:
-            case NEAREST_NEIGHBOR:
-                path = nearestNeighbour(scaledData);
-                break;
-            case LINEAR:
-                path = linearInterpolation(scaledData);
-                break;
-            case CUBIC:
-                path = cubicInterpolation(scaledData);
-                break;
-        }
-
-        // Draw the line
-        g.draw(path);
+        drawScaledLine(pointsIn, scaledData, interpolation, phaseStart);
     }
     public void preparePlot(Range xPlotRange, Range yPlotRange,double xPlotCoordStart,double xPlotCoordEnd, double yPlotCoordStart, double yPlotCoordEnd){
        
@@ -670,110 +1040,460 @@ public class GraphBuffer {
     private double scaledY(double value) {
         return yValueScale.scaleValue(value, yPlotValueStart, yPlotValueEnd,yPlotCoordStart, yPlotCoordEnd);
     }
-    private ScaledData scaleNoReduction(ListNumber xValues, ListNumber yValues,ProcessValue pv) {
-        return scaleNoReduction(xValues, yValues, 0,pv);
+    
+    private final LineScaling lineScaling = new LineScaling() {
+
+        @Override
+        double scaledX(double value) {
+            return GraphBuffer.this.scaledX(value);
+        }
+
+        @Override
+        double scaledY(double value) {
+            return GraphBuffer.this.scaledY(value);
+        }
+    };
+    
+    /**
+     * Draws the line through the scaled points. Nearest neighbour, previous
+     * value and linear interpolations are rasterized directly on the pixels
+     * of the image when the result is the same as Java2D; otherwise,
+     * and for cubic interpolation, the line is drawn through Java2D.
+     * <p>
+     * The phases that started at the given time are reported to the listener.
+     * When rasterizing, no path is built: the path phase only prepares
+     * the raster, and the pixels are set during the stroke.
+     * 
+     * @param pointsIn the number of points in the data of the line
+     * @param scaledData the scaled points
+     * @param interpolation the interpolation scheme
+     * @param start the start of the data reduction
+     */
+    private void drawScaledLine(int pointsIn, ScaledData scaledData, InterpolationScheme interpolation, long start) {
+        RenderListener listener = renderListener;
+        start = RenderPhases.end(listener, RenderPhase.DATA_REDUCTION, start);
+        if (interpolation == InterpolationScheme.CUBIC) {
+            Path2D.Double path = cubicInterpolation(scaledData);
+            start = RenderPhases.end(listener, RenderPhase.PATH, start);
+            g.draw(path);
+            RenderPhases.end(listener, RenderPhase.STROKE, start);
+            RenderPhases.lineDrawn(listener, pointsIn, scaledData.end - scaledData.start);
+            return;
+        }
+        
+        if (scaledData.start >= scaledData.end) {
+            return;
+        }
+        if (canRaster(scaledData)) {
+            prepareRaster();
+            start = RenderPhases.end(listener, RenderPhase.PATH, start);
+            walkLine(scaledData, interpolation, rasterPen);
+        } else {
+            PathPen pathPen = new PathPen();
+            walkLine(scaledData, interpolation, pathPen);
+            start = RenderPhases.end(listener, RenderPhase.PATH, start);
+            g.draw(pathPen.path);
+        }
+        RenderPhases.end(listener, RenderPhase.STROKE, start);
+        RenderPhases.lineDrawn(listener, pointsIn, scaledData.end - scaledData.start);
+    }
+    
+    private static void walkLine(ScaledData scaledData, InterpolationScheme interpolation, LinePen pen) {
+        switch (interpolation) {
+            default:
+            case NEAREST_NEIGHBOR:
+                nearestNeighbour(scaledData, pen);
+                break;
+            case PREVIOUS_VALUE:
+                previousValue(scaledData, pen);
+                break;
+            case LINEAR:
+                linearInterpolation(scaledData, pen);
+                break;
+        }
     }
+    
+    /**
+     * Receives the segments of a line.
+     */
+    private interface LinePen {
+        public void moveTo(double x, double y);
+        public void lineTo(double x, double y);
+    }
+    
+    /**
+     * Collects the segments in a path, to be drawn through Java2D.
+     */
+    private static class PathPen implements LinePen {
+        private final Path2D.Double path = new Path2D.Double();
 
-    private ScaledData scaleNoReduction(ListNumber xValues, ListNumber yValues, int dataStart,ProcessValue pv) {
-        ScaledData scaledData = new ScaledData();
-        int dataCount = xValues.size();
-        scaledData.scaledX = new double[dataCount];
-        scaledData.scaledY = new double[dataCount];
-        for (int i = 0; i < scaledData.scaledY.length; i++) {
-            scaledData.scaledX[i] = scaledX(xValues.getDouble(i));
-            scaledData.scaledY[i] = scaledY(yValues.getDouble(i));
-            pv.processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), scaledData.scaledX[i], scaledData.scaledY[i]);
-        }
-        scaledData.end = dataCount;
-        return scaledData;
-    }
-    
-    private ScaledData scaleFirstMaxMinLastReduction(ListNumber xValues, ListNumber yValues, int dataStart,ProcessValue pv) {
-        // The number of points generated by this is about 4 times the 
-        // number of points on the x axis. If the number of points is less
-        // than that, it's not worth it. Don't do the data reduction.
-        int xPlotCoordWidth=300; 
-        if (xValues.size() < xPlotCoordWidth * 4) {
-            return scaleNoReduction(xValues, yValues, dataStart,pv);
+        @Override
+        public void moveTo(double x, double y) {
+            path.moveTo(x, y);
         }
 
-        ScaledData scaledData = new ScaledData();
-        scaledData.scaledX = new double[((int) xPlotCoordWidth + 1)*4 ];
-        scaledData.scaledY = new double[((int) xPlotCoordWidth + 1)*4];
-        int cursor = 0;
-        int previousPixel = (int) scaledX(xValues.getDouble(0));
-        double last = scaledY(yValues.getDouble(0));
-        double min = last;
-        double max = last;
-        scaledData.scaledX[0] = previousPixel;
-        scaledData.scaledY[0] = min;
-        pv.processScaledValue(dataStart, xValues.getDouble(0), yValues.getDouble(0), scaledX(xValues.getDouble(0)), last);
-        cursor++;
-        for (int i = 1; i < xValues.size(); i++) {
-            double currentScaledX = scaledX(xValues.getDouble(i));
-            int currentPixel = (int) currentScaledX;
-            if (currentPixel == previousPixel) {
-                last = scaledY(yValues.getDouble(i));
-                min = MathIgnoreNaN.min(min, last);
-                max = MathIgnoreNaN.max(max, last);
-                pv.processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), currentScaledX, last);
+        @Override
+        public void lineTo(double x, double y) {
+            path.lineTo(x, y);
+        }
+    }
+    
+    private final LinePen rasterPen = new LinePen() {
+
+        @Override
+        public void moveTo(double x, double y) {
+            rasterMoveTo(x, y);
+        }
+
+        @Override
+        public void lineTo(double x, double y) {
+            rasterLineTo(x, y);
+        }
+    };
+    
+    private static final BasicStroke DEFAULT_STROKE = new BasicStroke();
+    
+    /**
+     * Whether the direct rasterization gives the same result as Java2D:
+     * an opaque color painted over, the default one pixel stroke, no
+     * transform, a rectangular clip and points within the range where
+     * the rasterization was checked against Java2D. Antialiasing is always
+     * turned off and the stroke control is pure before drawing the line.
+     */
+    private boolean canRaster(ScaledData scaledData) {
+        if (!(g.getPaint() instanceof Color) || ((Color) g.getPaint()).getAlpha() != 255) {
+            return false;
+        }
+        if (!AlphaComposite.SrcOver.equals(g.getComposite()) || !DEFAULT_STROKE.equals(g.getStroke())
+                || !g.getTransform().isIdentity()) {
+            return false;
+        }
+        Shape clip = g.getClip();
+        if (clip != null && !(clip instanceof Rectangle2D && clip.getBounds().equals(clip))) {
+            return false;
+        }
+        for (int i = scaledData.start; i < scaledData.end; i++) {
+            if (Math.abs(scaledData.scaledX[i]) > RASTER_MAX_COORD || Math.abs(scaledData.scaledY[i]) > RASTER_MAX_COORD) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Java2D draws thin lines in fixed point, with MDP_PREC bits for the
+    // fraction (see sun.java2d.loops.ProcessPath): the direct rasterization
+    // uses the same arithmetic so that the same pixels are set
+    private static final int MDP_PREC = 10;
+    private static final int MDP_MULT = 1 << MDP_PREC;
+    private static final int MDP_HALF_MULT = MDP_MULT >> 1;
+    private static final int MDP_W_MASK = -MDP_MULT;
+    private static final float RASTER_EPSF = 1.0f / MDP_MULT;
+    
+    // Beyond this the float rounding of the clipping can differ from Java2D
+    private static final double RASTER_MAX_COORD = 1.0e6;
+    
+    // Current state of the direct rasterization: the pen position
+    // (with pixel centers at integer coordinates), the color bytes,
+    // the clip in pixels (max excluded) and the clip for the pen position
+    private float rasterX;
+    private float rasterY;
+    private int rasterColor;
+    private byte rasterAlpha;
+    private byte rasterRed;
+    private byte rasterGreen;
+    private byte rasterBlue;
+    private int rasterClipXMin;
+    private int rasterClipXMax;
+    private int rasterClipYMin;
+    private int rasterClipYMax;
+    private float rasterClipXMinf;
+    private float rasterClipXMaxf;
+    private float rasterClipYMinf;
+    private float rasterClipYMaxf;
+    private final float[] rasterCoords = new float[4];
+    
+    /**
+     * Prepares the direct rasterization with the current color and clip
+     * of the graphics context.
+     */
+    private void prepareRaster() {
+        int color = g.getColor().getRGB();
+        rasterColor = color;
+        rasterAlpha = (byte)(color >> 24 & 0xFF);
+        rasterRed = (byte)(color >> 16 & 0xFF);
+        rasterGreen = (byte)(color >> 8 & 0xFF);
+        rasterBlue = (byte)(color >> 0 & 0xFF);
+        
+        java.awt.Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            rasterClipXMin = 0;
+            rasterClipYMin = 0;
+            rasterClipXMax = width;
+            rasterClipYMax = height;
+        } else {
+            rasterClipXMin = Math.max(0, clip.x);
+            rasterClipYMin = Math.max(0, clip.y);
+            rasterClipXMax = Math.min(width, clip.x + clip.width);
+            rasterClipYMax = Math.min(height, clip.y + clip.height);
+        }
+        rasterClipXMinf = rasterClipXMin - 0.5f;
+        rasterClipYMinf = rasterClipYMin - 0.5f;
+        rasterClipXMaxf = rasterClipXMax - 0.5f - RASTER_EPSF;
+        rasterClipYMaxf = rasterClipYMax - 0.5f - RASTER_EPSF;
+        rasterX = java.lang.Float.NaN;
+        rasterY = java.lang.Float.NaN;
+    }
+    
+    private void rasterMoveTo(double x, double y) {
+        rasterX = (float) x - 0.5f;
+        rasterY = (float) y - 0.5f;
+    }
+    
+    /**
+     * Draws a segment from the current pen position to the given point.
+     * As in Java2D, a missing point (NaN or infinite) is skipped, and
+     * a segment from a missing point starts a new line.
+     */
+    private void rasterLineTo(double x, double y) {
+        float penX = (float) x - 0.5f;
+        float penY = (float) y - 0.5f;
+        if (!isFinite(penX) || !isFinite(penY)) {
+            return;
+        }
+        if (isFinite(rasterX) && isFinite(rasterY)) {
+            rasterSegment(rasterX, rasterY, penX, penY);
+        }
+        rasterX = penX;
+        rasterY = penY;
+    }
+    
+    private static boolean isFinite(float value) {
+        return !java.lang.Float.isNaN(value) && !java.lang.Float.isInfinite(value);
+    }
+    
+    /**
+     * Writes a one pixel wide segment directly in the pixel array, setting
+     * the same pixels as Java2D with pure stroke control: the segment is
+     * clipped, its end points are moved to where it crosses the border of
+     * their pixels and it is then rasterized with Bresenham's algorithm.
+     */
+    private void rasterSegment(float x0, float y0, float x1, float y1) {
+        float[] c = rasterCoords;
+        c[0] = x0;
+        c[1] = y0;
+        c[2] = x1;
+        c[3] = y1;
+        if (!clipEnd(c, 1, 0, 3, 2, rasterClipYMinf, rasterClipYMaxf)
+                || !clipEnd(c, 3, 2, 1, 0, rasterClipYMinf, rasterClipYMaxf)
+                || !clipEnd(c, 0, 1, 2, 3, rasterClipXMinf, rasterClipXMaxf)
+                || !clipEnd(c, 2, 3, 0, 1, rasterClipXMinf, rasterClipXMaxf)) {
+            return;
+        }
+        int fixedX0 = (int) (c[0] * MDP_MULT);
+        int fixedY0 = (int) (c[1] * MDP_MULT);
+        int fixedX1 = (int) (c[2] * MDP_MULT);
+        int fixedY1 = (int) (c[3] * MDP_MULT);
+        
+        // Segment inside a single pixel: only a point is drawn
+        int c01 = (fixedX0 ^ fixedX1) | (fixedY0 ^ fixedY1);
+        if ((c01 & MDP_W_MASK) == 0) {
+            if (c01 == 0) {
+                rasterClippedPixel((fixedX0 + MDP_HALF_MULT) >> MDP_PREC, (fixedY0 + MDP_HALF_MULT) >> MDP_PREC);
+            }
+            return;
+        }
+        
+        int rx0, ry0, rx1, ry1;
+        if (fixedX0 == fixedX1 || fixedY0 == fixedY1) {
+            rx0 = fixedX0 + MDP_HALF_MULT;
+            ry0 = fixedY0 + MDP_HALF_MULT;
+            rx1 = fixedX1 + MDP_HALF_MULT;
+            ry1 = fixedY1 + MDP_HALF_MULT;
+        } else {
+            int dx = fixedX1 - fixedX0;
+            int dy = fixedY1 - fixedY0;
+            int floorX0 = fixedX0 & MDP_W_MASK;
+            int floorY0 = fixedY0 & MDP_W_MASK;
+            int floorX1 = fixedX1 & MDP_W_MASK;
+            int floorY1 = fixedY1 & MDP_W_MASK;
+            
+            if (floorX0 == fixedX0 || floorY0 == fixedY0) {
+                rx0 = fixedX0 + MDP_HALF_MULT;
+                ry0 = fixedY0 + MDP_HALF_MULT;
             } else {
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = max;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = min;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
-                previousPixel = currentPixel;
-                last = scaledY(yValues.getDouble(i));
-                min = last;
-                max = last;
-                scaledData.scaledX[cursor] = currentPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
+                // Where the segment leaves the pixel of the first point
+                int borderX = (fixedX0 < fixedX1) ? floorX0 + MDP_MULT : floorX0;
+                int borderY = (fixedY0 < fixedY1) ? floorY0 + MDP_MULT : floorY0;
+                int cross = fixedY0 + ((borderX - fixedX0) * dy) / dx;
+                if (cross >= floorY0 && cross <= floorY0 + MDP_MULT) {
+                    rx0 = borderX;
+                    ry0 = cross + MDP_HALF_MULT;
+                } else {
+                    cross = fixedX0 + ((borderY - fixedY0) * dx) / dy;
+                    rx0 = cross + MDP_HALF_MULT;
+                    ry0 = borderY;
+                }
+            }
+            
+            if (floorX1 == fixedX1 || floorY1 == fixedY1) {
+                rx1 = fixedX1 + MDP_HALF_MULT;
+                ry1 = fixedY1 + MDP_HALF_MULT;
+            } else {
+                // Where the segment enters the pixel of the last point
+                int borderX = (fixedX0 > fixedX1) ? floorX1 + MDP_MULT : floorX1;
+                int borderY = (fixedY0 > fixedY1) ? floorY1 + MDP_MULT : floorY1;
+                int cross = fixedY1 + ((borderX - fixedX1) * dy) / dx;
+                if (cross >= floorY1 && cross <= floorY1 + MDP_MULT) {
+                    rx1 = borderX;
+                    ry1 = cross + MDP_HALF_MULT;
+                } else {
+                    cross = fixedX1 + ((borderY - fixedY1) * dx) / dy;
+                    rx1 = cross + MDP_HALF_MULT;
+                    ry1 = borderY;
+                }
             }
         }
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = max;
-        cursor++;
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = min;
-        cursor++;
-        scaledData.end = cursor;
-        return scaledData;
+        rasterBresenham(rx0 >> MDP_PREC, ry0 >> MDP_PREC, rx1 >> MDP_PREC, ry1 >> MDP_PREC);
     }
     
+    /**
+     * Clips the first end point of the segment along one axis. The
+     * coordinates are at the given indexes: a for the clipped axis and b
+     * for the other one.
+     * 
+     * @return false if the segment is entirely outside
+     */
+    private static boolean clipEnd(float[] c, int a1, int b1, int a2, int b2, float min, float max) {
+        if (c[a1] < min || c[a1] > max) {
+            double t;
+            if (c[a1] < min) {
+                if (c[a2] < min) {
+                    return false;
+                }
+                t = min;
+            } else {
+                if (c[a2] > max) {
+                    return false;
+                }
+                t = max;
+            }
+            c[b1] = (float) (c[b1] + (t - c[a1]) * (c[b2] - c[b1]) / (c[a2] - c[a1]));
+            c[a1] = (float) t;
+        }
+        return true;
+    }
+    
+    /**
+     * Bresenham's algorithm, with the same rounding as Java2D, from
+     * the first to the last pixel included.
+     */
+    private void rasterBresenham(int x0, int y0, int x1, int y1) {
+        int dx = x1 - x0;
+        int dy = y1 - y0;
+        int stepX = dx < 0 ? -1 : 1;
+        int stepY = dy < 0 ? -1 : 1;
+        boolean xMajor = Math.abs(dx) >= Math.abs(dy);
+        int errMajor;
+        int errMinor;
+        int steps;
+        if (xMajor) {
+            errMajor = Math.abs(dy) * 2;
+            errMinor = Math.abs(dx) * 2;
+            steps = Math.abs(dx) + 1;
+        } else {
+            errMajor = Math.abs(dx) * 2;
+            errMinor = Math.abs(dy) * 2;
+            steps = Math.abs(dy) + 1;
+        }
+        int error = errMajor - errMinor / 2;
+        errMinor -= errMajor;
+        int px = x0;
+        int py = y0;
+        while (steps-- > 0) {
+            rasterClippedPixel(px, py);
+            if (error < 0) {
+                if (xMajor) {
+                    px += stepX;
+                } else {
+                    py += stepY;
+                }
+                error += errMajor;
+            } else {
+                px += stepX;
+                py += stepY;
+                error -= errMinor;
+            }
+        }
+    }
     
-    private static Path2D.Double nearestNeighbour(ScaledData scaledData) {
+    private void rasterClippedPixel(int x, int y) {
+        if (x >= rasterClipXMin && x < rasterClipXMax && y >= rasterClipYMin && y < rasterClipYMax) {
+            rasterPixel(x, y);
+        }
+    }
+    
+    /**
+     * Writes the raster color on the given pixel, with the same layout
+     * used by {@link #setPixel(int, int, int) }.
+     */
+    private void rasterPixel(int x, int y) {
+        if (intPixels != null) {
+            intPixels[y * width + x] = rasterColor;
+        } else if (hasAlphaChannel) {
+            int offset = (y * width + x) * 4;
+            pixels[offset + 3] = rasterAlpha;
+            pixels[offset + 0] = rasterBlue;
+            pixels[offset + 1] = rasterGreen;
+            pixels[offset + 2] = rasterRed;
+        } else {
+            int offset = (y * width + x) * 3;
+            pixels[offset + 0] = rasterBlue;
+            pixels[offset + 1] = rasterGreen;
+            pixels[offset + 2] = rasterRed;
+        }
+    }
+    
+    private static void nearestNeighbour(ScaledData scaledData, LinePen pen) {
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
-        line.moveTo(scaledX[start], scaledY[start]);
-        for (int i = 1; i < end; i++) {
+        pen.moveTo(scaledX[start], scaledY[start]);
+        for (int i = start + 1; i < end; i++) {
             double halfX = scaledX[i - 1] + (scaledX[i] - scaledX[i - 1]) / 2;
             if (!java.lang.Double.isNaN(scaledY[i-1])) {
-                line.lineTo(halfX, scaledY[i - 1]);
+                pen.lineTo(halfX, scaledY[i - 1]);
                 if (!java.lang.Double.isNaN(scaledY[i]))
-                    line.lineTo(halfX, scaledY[i]);
+                    pen.lineTo(halfX, scaledY[i]);
+            } else {
+                pen.moveTo(halfX, scaledY[i]);
+            }
+        }
+        pen.lineTo(scaledX[end - 1], scaledY[end - 1]);
+    }
+    
+    private static void previousValue(ScaledData scaledData, LinePen pen) {
+        double[] scaledX = scaledData.scaledX;
+        double[] scaledY = scaledData.scaledY;
+        int start = scaledData.start;
+        int end = scaledData.end;
+        pen.moveTo(scaledX[start], scaledY[start]);
+        for (int i = start + 1; i < end; i++) {
+            // Missing values leave a gap until the next value
+            if (java.lang.Double.isNaN(scaledY[i - 1])) {
+                pen.moveTo(scaledX[i], scaledY[i]);
             } else {
-                line.moveTo(halfX, scaledY[i]);
+                pen.lineTo(scaledX[i], scaledY[i - 1]);
+                pen.lineTo(scaledX[i], scaledY[i]);
             }
         }
-        line.lineTo(scaledX[end - 1], scaledY[end - 1]);
-        return line;
     }
     
-    private static Path2D.Double linearInterpolation(ScaledData scaledData){
+    private static void linearInterpolation(ScaledData scaledData, LinePen pen) {
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
         
         for (int i = start; i < end; i++) {
             // Do I have a current value?
@@ -781,22 +1501,21 @@ public class GraphBuffer {
                 // Do I have a previous value?
                 if (i != start && !java.lang.Double.isNaN(scaledY[i - 1])) {
                     // Here I have both the previous value and the current value
-                    line.lineTo(scaledX[i], scaledY[i]);
+                    pen.lineTo(scaledX[i], scaledY[i]);
                 } else {
                     // Don't have a previous value
                     // Do I have a next value?
                     if (i != end - 1 && !java.lang.Double.isNaN(scaledY[i + 1])) {
                         // There is no value before, but there is a value after
-                        line.moveTo(scaledX[i], scaledY[i]);
+                        pen.moveTo(scaledX[i], scaledY[i]);
                     } else {
                         // There is no value either before or after
-                        line.moveTo(scaledX[i] - 1, scaledY[i]);
-                        line.lineTo(scaledX[i] + 1, scaledY[i]);
+                        pen.moveTo(scaledX[i] - 1, scaledY[i]);
+                        pen.lineTo(scaledX[i] + 1, scaledY[i]);
                     }
                 }
             } 
         }
-        return line;
     }
     
     private static Path2D.Double cubicInterpolation(ScaledData scaledData){
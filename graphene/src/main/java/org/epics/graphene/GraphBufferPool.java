@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pool of buffers, so that the images of a graph that is drawn repeatedly
+ * are recycled instead of allocated at every draw.
+ * <p>
+ * A buffer is taken with {@link #acquire(int, int, int) } and given back with
+ * {@link #release(org.epics.graphene.GraphBuffer) } when its image is not
+ * needed anymore. A buffer taken from the pool is cleared, so that it is
+ * the same as a new buffer. The buffers are kept by size and image type,
+ * and at most a given number of buffers are kept for each: the buffers
+ * released when the pool is full are left to the garbage collector.
+ * <p>
+ * All methods are thread-safe.
+ *
+ * @author carcassi
+ */
+public class GraphBufferPool {
+
+    private final int maxIdleBuffers;
+    private final Map<List<Integer>, Deque<GraphBuffer>> idleBuffers = new HashMap<>();
+
+    /**
+     * Creates a pool that keeps at most the given number of unused buffers
+     * for each size and image type.
+     *
+     * @param maxIdleBuffers the maximum number of unused buffers per size and type
+     */
+    public GraphBufferPool(int maxIdleBuffers) {
+        if (maxIdleBuffers <= 0) {
+            throw new IllegalArgumentException("Max idle buffers must be greater than 0 (was " + maxIdleBuffers + ")");
+        }
+        this.maxIdleBuffers = maxIdleBuffers;
+    }
+
+    /**
+     * The maximum number of unused buffers kept for each size and image type.
+     *
+     * @return the maximum number of unused buffers
+     */
+    public int getMaxIdleBuffers() {
+        return maxIdleBuffers;
+    }
+
+    private static List<Integer> key(int width, int height, int imageType) {
+        return Arrays.asList(width, height, imageType);
+    }
+
+    /**
+     * Returns a buffer of the given size and image type, reusing
+     * an unused one if available.
+     *
+     * @param width width of the graph
+     * @param height height of the graph
+     * @param imageType one of BufferedImage.TYPE_3BYTE_BGR, TYPE_INT_RGB
+     * or TYPE_INT_ARGB
+     * @return a cleared buffer
+     */
+    public GraphBuffer acquire(int width, int height, int imageType) {
+        GraphBuffer buffer;
+        synchronized (this) {
+            Deque<GraphBuffer> buffers = idleBuffers.get(key(width, height, imageType));
+            buffer = buffers != null ? buffers.pollLast() : null;
+        }
+        if (buffer == null) {
+            return new GraphBuffer(width, height, imageType);
+        }
+        // Cleared outside the lock, as it touches every pixel
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer suitable for the given renderer, reusing
+     * an unused one if available.
+     *
+     * @param renderer the graph renderer
+     * @return a cleared buffer
+     */
+    public GraphBuffer acquire(Graph2DRenderer<?> renderer) {
+        return acquire(renderer.getImageWidth(), renderer.getImageHeight(), BufferedImage.TYPE_3BYTE_BGR);
+    }
+
+    /**
+     * Gives back a buffer to the pool. Neither the buffer nor its image
+     * can be used after they are released.
+     *
+     * @param buffer the buffer that is not used anymore
+     */
+    public synchronized void release(GraphBuffer buffer) {
+        BufferedImage image = buffer.getImage();
+        List<Integer> key = key(image.getWidth(), image.getHeight(), image.getType());
+        Deque<GraphBuffer> buffers = idleBuffers.get(key);
+        if (buffers == null) {
+            buffers = new ArrayDeque<>();
+            idleBuffers.put(key, buffers);
+        }
+        for (GraphBuffer idleBuffer : buffers) {
+            if (idleBuffer == buffer) {
+                throw new IllegalArgumentException("Buffer was already released");
+            }
+        }
+        if (buffers.size() < maxIdleBuffers) {
+            buffers.addLast(buffer);
+        }
+    }
+
+    /**
+     * The number of unused buffers currently kept by the pool.
+     *
+     * @return the number of unused buffers
+     */
+    public synchronized int getIdleCount() {
+        int count = 0;
+        for (Deque<GraphBuffer> buffers : idleBuffers.values()) {
+            count += buffers.size();
+        }
+        return count;
+    }
+}
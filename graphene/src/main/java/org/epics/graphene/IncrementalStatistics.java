@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.CollectionNumber;
+import org.epics.util.array.IteratorNumber;
+import org.epics.util.stats.Statistics;
+
+/**
+ * Statistics of values that are added over time, so that each new
+ * value costs O(1) instead of a full scan of the data.
+ * <p>
+ * NaN values are skipped, as in {@link org.epics.util.stats.StatisticsUtil}.
+ * Values can be added from one thread at a time; the statistics returned
+ * are immutable and can be shared.
+ *
+ * @author carcassi
+ */
+public class IncrementalStatistics {
+    
+    private int count;
+    // Welford's update: the mean and the sum of the squared distances
+    // from it, which stay precise when the values are far from zero
+    private double mean;
+    private double sumSquaredDeltas;
+    private double min;
+    private double max;
+
+    /**
+     * Adds a value.
+     * 
+     * @param value the new value
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else if (value > max) {
+            max = value;
+        } else if (value < min) {
+            min = value;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumSquaredDeltas += delta * (value - mean);
+    }
+    
+    /**
+     * Adds all the values of the collection.
+     * 
+     * @param values the new values
+     */
+    public void addAll(CollectionNumber values) {
+        IteratorNumber iterator = values.iterator();
+        while (iterator.hasNext()) {
+            add(iterator.nextDouble());
+        }
+    }
+    
+    /**
+     * Returns the statistics of all the values added so far.
+     * 
+     * @return the statistics; null if no value, or only NaN, was added
+     */
+    public Statistics getStatistics() {
+        if (count == 0) {
+            return null;
+        }
+        double stdDev = Math.sqrt(Math.max(0, sumSquaredDeltas / count));
+        return new StatisticsSnapshot(count, min, max, mean, stdDev);
+    }
+    
+    private static class StatisticsSnapshot implements Statistics {
+        private final int count;
+        private final Double minimum;
+        private final Double maximum;
+        private final double average;
+        private final double stdDev;
+
+        public StatisticsSnapshot(int count, double minimum, double maximum, double average, double stdDev) {
+            this.count = count;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.average = average;
+            this.stdDev = stdDev;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public double getAverage() {
+            return average;
+        }
+
+        @Override
+        public double getStdDev() {
+            return stdDev;
+        }
+
+        @Override
+        public Number getMinimum() {
+            return minimum;
+        }
+
+        @Override
+        public Number getMaximum() {
+            return maximum;
+        }
+    }
+}
@@ -10,10 +10,9 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.epics.util.array.ListNumbers;
 import org.epics.util.array.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
 import org.epics.util.stats.Ranges;
 
 /**
@@ -34,6 +33,16 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
      */
     public static boolean DEFAULT_DRAW_LEGEND = false;
     
+    // Pool shared by all the renderers that draw the data image in parallel
+    private static ForkJoinPool dataImagePool;
+    
+    private static synchronized ForkJoinPool dataImagePool() {
+        if (dataImagePool == null) {
+            dataImagePool = new ForkJoinPool();
+        }
+        return dataImagePool;
+    }
+    
     //Colors to be used when drawing the graph, gives a color based on a given value and the range of data.
     private NumberColorMapInstance colorMapInstance;
     private Range optimizedRange;
@@ -62,6 +71,12 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         if(update.getDrawLegend() != null){
             drawLegend = update.getDrawLegend();
         }
+        if(update.getParallelDataImage() != null){
+            parallelDataImage = update.getParallelDataImage();
+        }
+        if(update.getDataReduction() != null){
+            dataReduction = update.getDataReduction();
+        }
         if(update.getColorMap() != null){
             colorMap = update.getColorMap();
             colorMapInstance = null;
@@ -94,6 +109,8 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
                 graphAreaToLegendMargin = 3;
     protected int zLabelMargin = 3;
     private boolean drawLegend = DEFAULT_DRAW_LEGEND;
+    private boolean parallelDataImage = false;
+    private CellReductionScheme dataReduction = CellReductionScheme.NONE;
     private Range zRange;
     private Range zAggregatedRange;
     private Range zPlotRange;
@@ -128,10 +145,8 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         //Use super class to draw basics of graph.
         this.g = graphBuffer.getGraphicsContext();
         GraphAreaData area = new GraphAreaData();
-        BufferedImage image = graphBuffer.getImage();
         calculateRanges(data.getXRange(), data.getXRange(), data.getYRange(), data.getYRange());
         area.setGraphBuffer(graphBuffer);
-        graphBuffer.drawBackground(backgroundColor);
         calculateZRange(data.getStatistics(), data.getDisplayRange()); 
         
         // TODO: the calculation for leaving space for the legend is somewhat hacked
@@ -148,9 +163,13 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         area.setGraphPadding(leftAreaMargin, bottomAreaMargin, rightAreaMargin, topAreaMargin);
         area.setLabelMargin(xLabelMargin, yLabelMargin);
         area.setRanges(getXPlotRange(), xValueScale, getYPlotRange(), yValueScale);
+        long start = phaseStart();
         area.prepareLabels(labelFont, labelColor);
+        start = phaseEnd(RenderPhase.LABELS, start);
         area.prepareGraphArea(true, referenceLineColor);
-        area.drawGraphArea();
+        start = phaseEnd(RenderPhase.LAYOUT, start);
+        area.drawBackgroundAndGraphArea(this, backgroundColor);
+        phaseEnd(RenderPhase.BACKGROUND, start);
         
         /*Wait to calculate the coordinates of the legend labels till after yPlotCoordRange is calculated.
         Allows for the use of yPlotCoordEnd/start in calculations.*/
@@ -194,7 +213,17 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         int endY = area.graphBottom;//(int) Math.ceil(yPlotCoordEnd);
         PointToDataMap xPointToDataMap = createXPointToDataMap(startX, endX, graphBuffer, data.getXBoundaries()); //createPointToDataMap(startX, endX+1, getXPlotRange(), data.getXBoundaries(), false);
         PointToDataMap yPointToDataMap = createYPointToDataMap(startY, endY, graphBuffer, data.getYBoundaries());//getYPlotRange(), data.getYBoundaries(), true);
-        graphBuffer.drawDataImage(xPointToDataMap.startPoint, yPointToDataMap.startPoint, xPointToDataMap.pointToDataMap, yPointToDataMap.pointToDataMap, data, colorMapInstance);
+        if (dataReduction != CellReductionScheme.NONE) {
+            int[] xPointToDataEnd = createXPointToDataEnd(xPointToDataMap, graphBuffer, data.getXBoundaries());
+            int[] yPointToDataEnd = createYPointToDataEnd(yPointToDataMap, graphBuffer, data.getYBoundaries());
+            graphBuffer.drawDataImage(xPointToDataMap.startPoint, yPointToDataMap.startPoint,
+                    xPointToDataMap.pointToDataMap, xPointToDataEnd, yPointToDataMap.pointToDataMap, yPointToDataEnd,
+                    data, colorMapInstance, dataReduction, parallelDataImage ? dataImagePool() : null);
+        } else if (parallelDataImage) {
+            graphBuffer.drawDataImage(xPointToDataMap.startPoint, yPointToDataMap.startPoint, xPointToDataMap.pointToDataMap, yPointToDataMap.pointToDataMap, data, colorMapInstance, dataImagePool());
+        } else {
+            graphBuffer.drawDataImage(xPointToDataMap.startPoint, yPointToDataMap.startPoint, xPointToDataMap.pointToDataMap, yPointToDataMap.pointToDataMap, data, colorMapInstance);
+        }
         
         if(drawLegend && legendWidth>0){
             /*dataList is made by splitting the aggregated range of the z(color) data into a list of the
@@ -203,7 +232,7 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
             //legendData is a Cell2DDataset representation of dataList.
             Cell2DDataset legendData = Cell2DDatasets.linearRange(dataList, Ranges.range(0, 1), 1, Ranges.range(0, (int)yHeightTotal), (int)yHeightTotal);
             int xLegendStart = getImageWidth() - originalRightMargin - zLabelMaxWidth - zLabelMargin - legendWidth;
-            drawRectanglesArray(g, legendData, xLegendStart, yEndGraph, legendWidth, yHeightTotal, 1, legendWidth, image);
+            drawRectanglesArray(g, legendData, xLegendStart, yEndGraph, legendWidth, yHeightTotal, 1, legendWidth, graphBuffer);
             graphBuffer.drawLeftLabels(zReferenceLabels, zReferenceCoords, labelColor, labelFont, area.areaBottom, area.areaTop, getImageWidth() - originalRightMargin - 1);
         }
         
@@ -351,11 +380,61 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         return result;
     }
     
+    /**
+     * Calculates, for each pixel column, the index after the last cell
+     * that falls in that column. The cells skipped while building the
+     * point to data map fall in the column before. The last column takes
+     * all the remaining cells that start within it.
+     */
+    int[] createXPointToDataEnd(PointToDataMap xPointToDataMap, GraphBuffer buffer, ListNumber xBoundaries) {
+        int[] pointToDataMap = xPointToDataMap.pointToDataMap;
+        int[] pointToDataEnd = new int[pointToDataMap.length];
+        if (pointToDataMap.length == 0) {
+            return pointToDataEnd;
+        }
+        
+        int last = pointToDataMap.length - 1;
+        for (int i = 0; i < last; i++) {
+            pointToDataEnd[i] = Math.max(pointToDataMap[i] + 1, pointToDataMap[i + 1]);
+        }
+        int lastPixel = xPointToDataMap.startPoint + last;
+        int end = pointToDataMap[last] + 1;
+        while (end < xBoundaries.size() - 1 && buffer.xValueToPixel(xBoundaries.getDouble(end)) <= lastPixel) {
+            end++;
+        }
+        pointToDataEnd[last] = end;
+        return pointToDataEnd;
+    }
+    
+    /**
+     * Calculates, for each pixel row, the index after the last cell
+     * that falls in that row. Rows go from top to bottom, while the
+     * data indexes go from bottom to top: the cells skipped while building
+     * the point to data map fall in the row below. The top row takes
+     * all the remaining cells that start within it.
+     */
+    int[] createYPointToDataEnd(PointToDataMap yPointToDataMap, GraphBuffer buffer, ListNumber yBoundaries) {
+        int[] pointToDataMap = yPointToDataMap.pointToDataMap;
+        int[] pointToDataEnd = new int[pointToDataMap.length];
+        if (pointToDataMap.length == 0) {
+            return pointToDataEnd;
+        }
+        
+        for (int i = 1; i < pointToDataMap.length; i++) {
+            pointToDataEnd[i] = Math.max(pointToDataMap[i] + 1, pointToDataMap[i - 1]);
+        }
+        int topPixel = yPointToDataMap.startPoint;
+        int end = pointToDataMap[0] + 1;
+        while (end < yBoundaries.size() - 1 && buffer.yValueToPixel(yBoundaries.getDouble(end)) >= topPixel) {
+            end++;
+        }
+        pointToDataEnd[0] = end;
+        return pointToDataEnd;
+    }
+    
     private void drawRectanglesArray(Graphics2D g, Cell2DDataset data, double xStartGraph, double yEndGraph,
-            double xWidthTotal, double yHeightTotal, double cellHeight, double cellWidth, BufferedImage image){
+            double xWidthTotal, double yHeightTotal, double cellHeight, double cellWidth, GraphBuffer graphBuffer){
         
-        byte pixels[] = ((DataBufferByte)image.getRaster().getDataBuffer()).getData();
-        boolean hasAlphaChannel = image.getAlphaRaster() != null;
         int countY = 0;
         int countX;
         double yPosition = yEndGraph-yHeightTotal;
@@ -368,17 +447,7 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
                     int rgb = colorMapInstance.colorFor(data.getValue((int)countX, data.getYCount()-1-(int)countY));
                     for(int w = 0; w < (int)cellWidth + 1; w++){
                         for(int h = 0; h < (int)cellHeight + 1; h++){
-                            if(hasAlphaChannel){
-                            pixels[(yPositionInt+h)*getImageWidth()*4 + 4*xPositionInt + 0] = (byte)(rgb >> 24 & 0xFF);
-                            pixels[(yPositionInt+h)*getImageWidth()*4 + 4*xPositionInt + 1] = (byte)(rgb & 0xFF);
-                            pixels[(yPositionInt+h)*getImageWidth()*4 + 4*xPositionInt + 2] = (byte)(rgb >> 8 & 0xFF);
-                            pixels[(yPositionInt+h)*getImageWidth()*4 + 4*xPositionInt + 3] = (byte)(rgb >> 16 & 0xFF);
-                            }
-                            else{
-                            pixels[(yPositionInt+h)*getImageWidth()*3 + 3*(xPositionInt+w) + 0] = (byte)(rgb & 0xFF);
-                            pixels[(yPositionInt+h)*getImageWidth()*3 + 3*(xPositionInt+w) + 1] = (byte)((rgb >> 8 & 0xFF) );
-                            pixels[(yPositionInt+h)*getImageWidth()*3 + 3*(xPositionInt+w) + 2] = (byte)((rgb >> 16 & 0xFF));
-                            }
+                            graphBuffer.setPixel(xPositionInt + w, yPositionInt + h, rgb);
                         }
                     }
                     xPosition = xPosition + cellWidth;
@@ -449,6 +518,26 @@ public class IntensityGraph2DRenderer extends Graph2DRenderer<IntensityGraph2DRe
         return drawLegend;
     }
 
+    /**
+     * Whether the data image is drawn in parallel, in horizontal bands.
+     * Default is false.
+     * 
+     * @return true if the data image is drawn in parallel
+     */
+    public boolean isParallelDataImage() {
+        return parallelDataImage;
+    }
+
+    /**
+     * The reduction applied to the cells that fall in the same pixel.
+     * Default is {@link CellReductionScheme#NONE}.
+     * 
+     * @return the data reduction; can't be null
+     */
+    public CellReductionScheme getDataReduction() {
+        return dataReduction;
+    }
+
     /**
      * Return the color scheme used for the value. Default is {@link #DEFAULT_COLOR_MAP}.
      * 
@@ -32,6 +32,8 @@ public class IntensityGraph2DRendererUpdate extends Graph2DRendererUpdate<Intens
     private Integer graphAreaToLegendMargin;
 
     private Boolean drawLegend;
+    private Boolean parallelDataImage;
+    private CellReductionScheme dataReduction;
 
     private NumberColorMap colorMap;
     
@@ -51,6 +53,34 @@ public class IntensityGraph2DRendererUpdate extends Graph2DRendererUpdate<Intens
         return self();
     }
 
+    /**
+     * Sets whether the data image should be drawn in parallel. The plot area
+     * is split in horizontal bands, which are colored on a shared pool
+     * with as many threads as available processors.
+     * @param parallelDataImage true if the data image should be drawn in parallel
+     * @return this
+     */
+    public IntensityGraph2DRendererUpdate parallelDataImage(boolean parallelDataImage) {
+        this.parallelDataImage = parallelDataImage;
+        return self();
+    }
+
+    /**
+     * Sets how the cells that fall in the same pixel are reduced. With
+     * {@link CellReductionScheme#NONE} only one cell per pixel is displayed;
+     * the other schemes aggregate all the cells, so that isolated values
+     * remain visible when the data is larger than the plot.
+     * @param dataReduction the reduction scheme; can't be null
+     * @return this
+     */
+    public IntensityGraph2DRendererUpdate dataReduction(CellReductionScheme dataReduction) {
+        if (dataReduction == null) {
+            throw new NullPointerException("Data reduction scheme can't be null");
+        }
+        this.dataReduction = dataReduction;
+        return self();
+    }
+
     // TODO: add keepAspectRatio
     // If enables, the plot should stretch but keep the ratio of the image
     // the same as the one given by the range of the x and y boundaries
@@ -127,6 +157,22 @@ public class IntensityGraph2DRendererUpdate extends Graph2DRendererUpdate<Intens
         return drawLegend;
     }
     
+    /**
+     *
+     * @return Boolean parallelDataImage, used to determine whether the data image is drawn in parallel. Can be null.
+     */
+    public Boolean getParallelDataImage() {
+        return parallelDataImage;
+    }
+    
+    /**
+     *
+     * @return CellReductionScheme dataReduction, used to determine how the cells within the same pixel are reduced. Can be null.
+     */
+    public CellReductionScheme getDataReduction() {
+        return dataReduction;
+    }
+    
     /**
      *
      * @return ColorScheme colorMap, used to determine which color scheme will be used when drawing an intensity graph. 
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ListNumber;
+
+/**
+ * Implementation of the Largest-Triangle-Three-Buckets data reduction.
+ * <p>
+ * The data is divided in buckets of equal size, and from each bucket
+ * the point that forms the largest triangle with the point selected in the
+ * previous bucket and the average of the next bucket is retained. The first
+ * and last point are always retained. The number of points generated only
+ * depends on the number of buckets (and therefore on the size of the plot),
+ * while peaks are preserved since they form the largest triangles.
+ * <p>
+ * The triangle areas are computed on the scaled coordinates, so that the
+ * selection matches what is visible on the screen regardless of the
+ * value scale.
+ *
+ * @author carcassi
+ */
+final class LargestTriangleThreeBuckets {
+
+    private LargestTriangleThreeBuckets() {
+        // Prevent instances
+    }
+
+    /**
+     * Reduces the given data to the given number of points. The scaled lists
+     * are expected to be views that compute the scaled values on the fly,
+     * so that no array proportional to the data size needs to be allocated.
+     * <p>
+     * The process value callback is called exactly once for each data point.
+     * NaN values are ignored when computing the bucket averages and never
+     * become the anchor of the next triangle; a bucket for which no triangle
+     * can be computed retains its first point.
+     *
+     * @param xValues the x values
+     * @param yValues the y values
+     * @param scaledX the x values scaled to the graph area
+     * @param scaledY the y values scaled to the graph area
+     * @param dataStart the offset of the first value within the dataset
+     * @param nPoints the number of points to retain; must be at least 3
+     * and smaller than the number of values
+     * @param outX the array where the retained scaled x values are written
+     * @param outY the array where the retained scaled y values are written
+     * @param processValue the callback for each value; can be null
+     * @return the number of points written in the output arrays
+     */
+    static int reduce(ListNumber xValues, ListNumber yValues,
+            ListNumber scaledX, ListNumber scaledY, int dataStart, int nPoints,
+            double[] outX, double[] outY, ProcessValue processValue) {
+        int dataCount = xValues.size();
+        if (nPoints < 3 || nPoints >= dataCount) {
+            throw new IllegalArgumentException("Number of points must be at least 3 and less than the data size (" + nPoints + " for " + dataCount + " values)");
+        }
+
+        // The first and last point are always in their own bucket
+        double bucketSize = (double) (dataCount - 2) / (nPoints - 2);
+        int cursor = 0;
+
+        double firstX = scaledX.getDouble(0);
+        double firstY = scaledY.getDouble(0);
+        if (processValue != null) {
+            processValue.processScaledValue(dataStart, xValues.getDouble(0), yValues.getDouble(0), firstX, firstY);
+        }
+        outX[cursor] = firstX;
+        outY[cursor] = firstY;
+        cursor++;
+        
+        // The vertex of the triangle in the previous bucket
+        double anchorX = firstX;
+        double anchorY = firstY;
+
+        for (int bucket = 0; bucket < nPoints - 2; bucket++) {
+            // Average of the next bucket
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, dataCount);
+            double averageX = 0;
+            double averageY = 0;
+            int averageCount = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                double y = scaledY.getDouble(i);
+                if (!Double.isNaN(y)) {
+                    averageX += scaledX.getDouble(i);
+                    averageY += y;
+                    averageCount++;
+                }
+            }
+            averageX /= averageCount;
+            averageY /= averageCount;
+
+            // Point of the current bucket with the largest triangle
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            double maxAreaX = scaledX.getDouble(start);
+            double maxAreaY = scaledY.getDouble(start);
+            for (int i = start; i < end; i++) {
+                double x = scaledX.getDouble(i);
+                double y = scaledY.getDouble(i);
+                if (processValue != null) {
+                    processValue.processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), x, y);
+                }
+                // Twice the area: the factor is irrelevant for the comparison
+                double area = Math.abs((anchorX - averageX) * (y - anchorY)
+                        - (anchorX - x) * (averageY - anchorY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaX = x;
+                    maxAreaY = y;
+                }
+            }
+            outX[cursor] = maxAreaX;
+            outY[cursor] = maxAreaY;
+            cursor++;
+            if (!Double.isNaN(maxAreaY) || Double.isNaN(anchorY)) {
+                anchorX = maxAreaX;
+                anchorY = maxAreaY;
+            }
+        }
+
+        double lastX = scaledX.getDouble(dataCount - 1);
+        double lastY = scaledY.getDouble(dataCount - 1);
+        if (processValue != null) {
+            processValue.processScaledValue(dataStart + dataCount - 1, xValues.getDouble(dataCount - 1), yValues.getDouble(dataCount - 1), lastX, lastY);
+        }
+        outX[cursor] = lastX;
+        outY[cursor] = lastY;
+        cursor++;
+        return cursor;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.CollectionNumber;
+import org.epics.util.stats.Statistics;
+import org.epics.util.stats.StatisticsUtil;
+
+/**
+ * Statistics of a collection of values, calculated the first time
+ * they are requested.
+ * <p>
+ * Datasets use this so that the values are not scanned when the dataset
+ * is created, and never scanned if the statistics are not used (e.g. the
+ * axis range is fixed). The calculation happens only once, even if the
+ * statistics are requested from multiple threads at the same time.
+ *
+ * @author carcassi
+ */
+public class LazyStatistics {
+    
+    private final CollectionNumber data;
+    private Statistics statistics;
+    private volatile boolean calculated;
+
+    /**
+     * Creates the lazy statistics for the given data. The data
+     * must not change.
+     * 
+     * @param data the values
+     */
+    public LazyStatistics(CollectionNumber data) {
+        this.data = data;
+    }
+    
+    /**
+     * Returns the statistics of the data, calculating them if this is
+     * the first call.
+     * 
+     * @return the statistics; null if there are no values, or if all values are NaN
+     */
+    public Statistics getStatistics() {
+        if (!calculated) {
+            synchronized (this) {
+                if (!calculated) {
+                    statistics = StatisticsUtil.statisticsOf(data);
+                    calculated = true;
+                }
+            }
+        }
+        return statistics;
+    }
+}
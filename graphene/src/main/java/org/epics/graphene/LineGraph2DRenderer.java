@@ -10,6 +10,7 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.util.Arrays;
 import java.util.List;
+import org.epics.util.array.ListInt;
 import org.epics.util.array.ListNumber;
 import org.epics.util.array.SortedListView;
 import org.epics.util.stats.Ranges;
@@ -22,7 +23,7 @@ import org.epics.util.stats.Ranges;
 public class LineGraph2DRenderer extends Graph2DRenderer<LineGraph2DRendererUpdate> {
 
     public static java.util.List<InterpolationScheme> supportedInterpolationScheme = Arrays.asList(InterpolationScheme.NEAREST_NEIGHBOR, InterpolationScheme.LINEAR, InterpolationScheme.CUBIC);
-    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.NONE);
+    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS, ReductionScheme.NONE);
     
     @Override
     public LineGraph2DRendererUpdate newUpdate() {
@@ -129,17 +130,32 @@ public class LineGraph2DRenderer extends Graph2DRenderer<LineGraph2DRendererUpda
         drawBackground();
         drawGraphArea();
         
-        SortedListView xValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
-        ListNumber yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), xValues.getIndexes());
+        ListNumber xValues;
+        ListNumber yValues;
+        ListInt xIndexes;
+        MinMaxPyramid yPyramid = null;
+        if (Point2DDatasets.isXSorted(data)) {
+            xValues = data.getXValues();
+            yValues = data.getYValues();
+            xIndexes = null;
+            if (data instanceof Point2DPyramidDataset) {
+                yPyramid = ((Point2DPyramidDataset) data).getYPyramid();
+            }
+        } else {
+            SortedListView sortedXValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
+            xValues = sortedXValues;
+            xIndexes = sortedXValues.getIndexes();
+            yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), xIndexes);
+        }
 
         setClip(g);
         g.setColor(Color.BLACK);
 
         currentIndex = 0;
         currentScaledDiff = getImageWidth();
-        drawValueExplicitLine(xValues, yValues, interpolation, reduction);
+        drawValueExplicitLine(xValues, yValues, interpolation, reduction, yPyramid);
         if (focusPixelX != null) {
-            focusValueIndex = xValues.getIndexes().getInt(currentIndex);
+            focusValueIndex = xIndexes == null ? currentIndex : xIndexes.getInt(currentIndex);
             if (highlightFocusValue) {
                 g.setColor(new Color(0, 0, 0, 128));
                 int x = (int) scaledX(xValues.getDouble(currentIndex));
@@ -156,20 +172,24 @@ public class LineGraph2DRenderer extends Graph2DRenderer<LineGraph2DRendererUpda
        calculateRanges(data.getXStatistics(),data.getXDisplayRange(),data.getYStatistics(),data.getYDisplayRange());  
        calculateGraphArea();
        buffer.preparePlot(getXPlotRange(), getYPlotRange(), xPlotCoordStart, xPlotCoordEnd, yPlotCoordStart, yPlotCoordEnd);
+       buffer.setRenderListener(getRenderListener());
        
        
        GraphAreaData area =new GraphAreaData(); 
        area.setGraphBuffer(buffer);
        
-       buffer.drawBackground(backgroundColor);
        int areaRightPixel = getImageWidth() - 1 - rightMargin;
         area.setGraphArea(leftMargin, getImageHeight() - 1 - bottomMargin, areaRightPixel, topMargin);
         area.setGraphPadding(leftAreaMargin, bottomAreaMargin, rightAreaMargin, topAreaMargin);
         area.setLabelMargin(xLabelMargin, yLabelMargin);
         area.setRanges(getXPlotRange(), xValueScale, getYPlotRange(), yValueScale);
+        long start = phaseStart();
         area.prepareLabels(labelFont, labelColor);
+        start = phaseEnd(RenderPhase.LABELS, start);
         area.prepareGraphArea(false, referenceLineColor);
-        area.drawGraphArea();
+        start = phaseEnd(RenderPhase.LAYOUT, start);
+        area.drawBackgroundAndGraphArea(this, backgroundColor);
+        phaseEnd(RenderPhase.BACKGROUND, start);
        
         ProcessValue pv=new ProcessValue() {
 
@@ -214,11 +234,24 @@ public class LineGraph2DRenderer extends Graph2DRenderer<LineGraph2DRendererUpda
         }
         //Draw a line for each set of data in the data array.
         for(int datasetNumber = 0; datasetNumber < data.size(); datasetNumber++){
-            SortedListView xValues = org.epics.util.array.ListNumbers.sortedView(data.get(datasetNumber).getXValues());
-            ListNumber yValues = org.epics.util.array.ListNumbers.sortedView(data.get(datasetNumber).getYValues(), xValues.getIndexes());        
+            Point2DDataset dataPiece = data.get(datasetNumber);
+            ListNumber xValues;
+            ListNumber yValues;
+            MinMaxPyramid yPyramid = null;
+            if (Point2DDatasets.isXSorted(dataPiece)) {
+                xValues = dataPiece.getXValues();
+                yValues = dataPiece.getYValues();
+                if (dataPiece instanceof Point2DPyramidDataset) {
+                    yPyramid = ((Point2DPyramidDataset) dataPiece).getYPyramid();
+                }
+            } else {
+                SortedListView sortedXValues = org.epics.util.array.ListNumbers.sortedView(dataPiece.getXValues());
+                xValues = sortedXValues;
+                yValues = org.epics.util.array.ListNumbers.sortedView(dataPiece.getYValues(), sortedXValues.getIndexes());
+            }
             setClip(g);
             g.setColor(new Color(valueColorSchemeInstance.colorFor((double)datasetNumber)));
-            drawValueExplicitLine(xValues, yValues, interpolation, reduction);
+            drawValueExplicitLine(xValues, yValues, interpolation, reduction, yPyramid);
         }
     }
 
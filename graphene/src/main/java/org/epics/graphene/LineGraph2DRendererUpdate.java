@@ -40,7 +40,7 @@ public class LineGraph2DRendererUpdate extends Graph2DRendererUpdate<LineGraph2D
     
     /**
      *Sets this object's data reduction scheme to the given scheme.
-     * @param scheme can not be null, must be a supported scheme. Supported schemes:FIRST_MAX_MIN_LAST,NONE
+     * @param scheme can not be null, must be a supported scheme. Supported schemes:FIRST_MAX_MIN_LAST,LARGEST_TRIANGLE_THREE_BUCKETS,NONE
      * @return this
      */
     public LineGraph2DRendererUpdate dataReduction(ReductionScheme scheme) {
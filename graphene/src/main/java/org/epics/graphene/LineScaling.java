@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ListDouble;
+import org.epics.util.array.ListNumber;
+
+/**
+ * Scales the points of a line to the graph area, applying the data reduction.
+ * The renderers that draw lines only provide how a single value is scaled:
+ * the reduction is the same for all of them.
+ * <p>
+ * The reductions generate a number of points proportional to the width of
+ * the plot. If the data has fewer points than that, it is only scaled.
+ *
+ * @author carcassi
+ */
+abstract class LineScaling {
+
+    /**
+     * Scales a value along x.
+     *
+     * @param value the x value
+     * @return the x coordinate in the graph area
+     */
+    abstract double scaledX(double value);
+
+    /**
+     * Scales a value along y.
+     *
+     * @param value the y value
+     * @return the y coordinate in the graph area
+     */
+    abstract double scaledY(double value);
+
+    /**
+     * Scales the data applying the given reduction. The data is expected to be
+     * sorted on x and narrowed to the plot, plus at most one point on each side.
+     *
+     * @param reduction the reduction scheme
+     * @param xValues the x values
+     * @param yValues the y values
+     * @param dataStart the offset of the first value within the dataset
+     * @param plotWidth the width of the plot in pixels
+     * @param yPyramid the index of the y values, used by the first/max/min/last
+     * reduction; can be null
+     * @param scaledData where the scaled points are written
+     * @param processValue the callback for each scaled value; can be null
+     */
+    final void scale(ReductionScheme reduction, ListNumber xValues, ListNumber yValues, int dataStart,
+            double plotWidth, MinMaxPyramid yPyramid, ScaledData scaledData, ProcessValue processValue) {
+        switch (reduction) {
+            default:
+                throw new IllegalArgumentException("Reduction scheme " + reduction + " not supported");
+            case NONE:
+                scaleNoReduction(xValues, yValues, dataStart, scaledData, processValue);
+                break;
+            case FIRST_MAX_MIN_LAST:
+                scaleFirstMaxMinLastReduction(xValues, yValues, dataStart, plotWidth, yPyramid, scaledData, processValue);
+                break;
+            case LARGEST_TRIANGLE_THREE_BUCKETS:
+                scaleLargestTriangleThreeBucketsReduction(xValues, yValues, dataStart, plotWidth, scaledData, processValue);
+                break;
+        }
+    }
+
+    /**
+     * Scales all the points.
+     *
+     * @param xValues the x values
+     * @param yValues the y values
+     * @param dataStart the offset of the first value within the dataset
+     * @param scaledData where the scaled points are written
+     * @param processValue the callback for each scaled value; can be null
+     */
+    final void scaleNoReduction(ListNumber xValues, ListNumber yValues, int dataStart,
+            ScaledData scaledData, ProcessValue processValue) {
+        int dataCount = xValues.size();
+        scaledData.prepare(dataCount);
+        for (int i = 0; i < dataCount; i++) {
+            scaledData.scaledX[i] = scaledX(xValues.getDouble(i));
+            scaledData.scaledY[i] = scaledY(yValues.getDouble(i));
+            if (processValue != null) {
+                processValue.processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), scaledData.scaledX[i], scaledData.scaledY[i]);
+            }
+        }
+        scaledData.end = dataCount;
+    }
+
+    private void scaleFirstMaxMinLastReduction(ListNumber xValues, ListNumber yValues, int dataStart,
+            double plotWidth, MinMaxPyramid yPyramid, ScaledData scaledData, ProcessValue processValue) {
+        // The number of points generated by this is about 4 times the 
+        // number of points on the x axis. If the number of points is less
+        // than that, it's not worth it. Don't do the data reduction.
+        if (xValues.size() < plotWidth * 4) {
+            scaleNoReduction(xValues, yValues, dataStart, scaledData, processValue);
+            return;
+        }
+        
+        // The points just outside the plot may add two more columns
+        scaledData.prepare(((int) plotWidth + 4) * 4);
+        
+        // With the index, only a few points per pixel column are read.
+        if (yPyramid != null) {
+            scaledData.end = yPyramid.reduce(xValues, yValues, scaledXValues(xValues), scaledYValues(yValues),
+                    dataStart, scaledData.scaledX, scaledData.scaledY, processValue);
+            return;
+        }
+
+        double[] scaledX = scaledData.scaledX;
+        double[] scaledY = scaledData.scaledY;
+        int cursor = 0;
+        double firstScaledX = scaledX(xValues.getDouble(0));
+        int previousPixel = (int) firstScaledX;
+        double last = scaledY(yValues.getDouble(0));
+        double min = last;
+        double max = last;
+        scaledX[0] = previousPixel;
+        scaledY[0] = min;
+        if (processValue != null) {
+            processValue.processScaledValue(dataStart, xValues.getDouble(0), yValues.getDouble(0), firstScaledX, last);
+        }
+        cursor++;
+        for (int i = 1; i < xValues.size(); i++) {
+            double currentScaledX = scaledX(xValues.getDouble(i));
+            int currentPixel = (int) currentScaledX;
+            if (currentPixel == previousPixel) {
+                last = scaledY(yValues.getDouble(i));
+                min = MathIgnoreNaN.min(min, last);
+                max = MathIgnoreNaN.max(max, last);
+                if (processValue != null) {
+                    processValue.processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), currentScaledX, last);
+                }
+            } else {
+                scaledX[cursor] = previousPixel;
+                scaledY[cursor] = max;
+                cursor++;
+                scaledX[cursor] = previousPixel;
+                scaledY[cursor] = min;
+                cursor++;
+                scaledX[cursor] = previousPixel;
+                scaledY[cursor] = last;
+                cursor++;
+                previousPixel = currentPixel;
+                last = scaledY(yValues.getDouble(i));
+                min = last;
+                max = last;
+                scaledX[cursor] = currentPixel;
+                scaledY[cursor] = last;
+                cursor++;
+            }
+        }
+        scaledX[cursor] = previousPixel;
+        scaledY[cursor] = max;
+        cursor++;
+        scaledX[cursor] = previousPixel;
+        scaledY[cursor] = min;
+        cursor++;
+        scaledData.end = cursor;
+    }
+
+    private void scaleLargestTriangleThreeBucketsReduction(ListNumber xValues, ListNumber yValues, int dataStart,
+            double plotWidth, ScaledData scaledData, ProcessValue processValue) {
+        // The number of points generated by this is 2 times the
+        // number of points on the x axis. If the number of points is less
+        // than that, it's not worth it. Don't do the data reduction.
+        int nPoints = Math.max(3, ((int) plotWidth + 1) * 2);
+        if (xValues.size() <= nPoints) {
+            scaleNoReduction(xValues, yValues, dataStart, scaledData, processValue);
+            return;
+        }
+
+        scaledData.prepare(nPoints);
+        scaledData.end = LargestTriangleThreeBuckets.reduce(xValues, yValues, scaledXValues(xValues), scaledYValues(yValues),
+                dataStart, nPoints, scaledData.scaledX, scaledData.scaledY, processValue);
+    }
+    
+    /**
+     * A view of the given values scaled along x, computed on the fly.
+     */
+    private ListNumber scaledXValues(final ListNumber xValues) {
+        return new ListDouble() {
+
+            @Override
+            public double getDouble(int index) {
+                return scaledX(xValues.getDouble(index));
+            }
+
+            @Override
+            public int size() {
+                return xValues.size();
+            }
+        };
+    }
+    
+    /**
+     * A view of the given values scaled along y, computed on the fly.
+     */
+    private ListNumber scaledYValues(final ListNumber yValues) {
+        return new ListDouble() {
+
+            @Override
+            public double getDouble(int index) {
+                return scaledY(yValues.getDouble(index));
+            }
+
+            @Override
+            public int size() {
+                return yValues.size();
+            }
+        };
+    }
+}
@@ -6,9 +6,16 @@ package org.epics.graphene;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.util.Arrays;
+import java.util.List;
+import org.epics.util.array.ListDouble;
+import org.epics.util.array.ListMath;
 import org.epics.util.array.ListNumber;
 import org.epics.util.array.SortedListView;
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.TimeInterval;
+import org.epics.util.time.Timestamp;
 
 /**
  * Renderer for a line graph.
@@ -22,6 +29,10 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
             InterpolationScheme.PREVIOUS_VALUE,
             InterpolationScheme.LINEAR,
             InterpolationScheme.CUBIC);
+    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(
+            ReductionScheme.FIRST_MAX_MIN_LAST,
+            ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS,
+            ReductionScheme.NONE);
     
     @Override
     public LineTimeGraph2DRendererUpdate newUpdate() {
@@ -29,6 +40,18 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
     }
 
     private InterpolationScheme interpolation = InterpolationScheme.NEAREST_NEIGHBOR;
+    private ReductionScheme reduction = ReductionScheme.NONE;
+    private boolean scrolling = false;
+    
+    // State of the previous frame, used in scrolling mode
+    private boolean previousFrameValid = false;
+    private Timestamp scrollAnchor;
+    private long scrollPixels;
+    private TimeDuration scrollDuration;
+    private double previousPlotStart;
+    private double previousPlotEnd;
+    private double previousPlotCoordWidth;
+    private Timestamp previousLastTime;
 
     /**
      * Creates a new line graph renderer.
@@ -48,6 +71,24 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
     public InterpolationScheme getInterpolation() {
         return interpolation;
     }
+
+    /**
+     * The current reduction used for the line.
+     * 
+     * @return the current reduction
+     */
+    public ReductionScheme getDataReduction() {
+        return reduction;
+    }
+
+    /**
+     * Whether the graph is drawn as a scrolling strip chart.
+     * 
+     * @return true if the graph scrolls
+     */
+    public boolean isScrolling() {
+        return scrolling;
+    }
     
     @Override
     public void update(LineTimeGraph2DRendererUpdate update) {
@@ -55,6 +96,20 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
         if (update.getInterpolation() != null) {
             interpolation = update.getInterpolation();
         }
+        if (update.getDataReduction() != null) {
+            reduction = update.getDataReduction();
+        }
+        if (update.getScrolling() != null) {
+            scrolling = update.getScrolling();
+        }
+        // Moving the time axis is what scrolling is for: all other
+        // changes make the previous frame invalid
+        if (update.getInterpolation() != null || update.getDataReduction() != null || update.getScrolling() != null ||
+                update.getImageWidth() != null || update.getImageHeight() != null ||
+                update.getAxisRange() != null || update.getValueScale() != null ||
+                update.getTimeScale() != null) {
+            previousFrameValid = false;
+        }
     }
 
     /**
@@ -64,6 +119,10 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
      * @param data the data to display
      */
     public void draw(Graphics2D g, TimeSeriesDataset data) {
+        if (scrolling) {
+            drawScrolling(g, data);
+            return;
+        }
         this.g = g;
         
         calculateRanges(data.getStatistics(), data.getTimeInterval());
@@ -76,6 +135,166 @@ public class LineTimeGraph2DRenderer extends TemporalGraph2DRenderer<LineTimeGra
 
         setClip(g);
         g.setColor(Color.BLACK);
-        drawValueLine(xValues, yValues, interpolation);
+        drawValueLine(xValues, yValues, interpolation, reduction);
+    }
+    
+    /**
+     * Draws the graph reusing the previous frame: the plot area is shifted
+     * left by the time elapsed, and only the part that changed is drawn.
+     * The time axis is aligned to whole pixels, so that the shift is exact.
+     * The whole graph is drawn if the first frame, the value range or the
+     * size changed, or if the time went back or jumped by more than the plot.
+     * Assumes that the points already drawn do not change.
+     */
+    private void drawScrolling(Graphics2D g, TimeSeriesDataset data) {
+        this.g = g;
+        g.setClip(null);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        
+        calculateRanges(data.getStatistics(), data.getTimeInterval());
+        int shift = alignPlotTimeInterval();
+        ListNumber previousXReferenceCoords = xReferenceCoords;
+        List<Timestamp> previousTimeReferences = timeReferences;
+        calculateGraphArea();
+        if (xPlotCoordWidth != previousPlotCoordWidth) {
+            shift = -1;
+        }
+        
+        ListNumber xValues = plotNormalizedTime(data, getPlotTimeInterval());
+        ListNumber yValues = data.getValues();
+        if (shift < 0) {
+            drawBackground();
+            drawGraphArea();
+            setClip(g);
+            g.setColor(Color.BLACK);
+            drawValueLine(xValues, yValues, interpolation, reduction);
+        } else {
+            int plotWidth = xAreaEnd - xAreaStart + 1;
+            int labelsHeight = getImageHeight() - yAreaEnd - 1;
+            if (shift > 0) {
+                g.copyArea(xAreaStart + shift, yAreaStart, plotWidth - shift, yAreaEnd - yAreaStart + 1, -shift, 0);
+                
+                // The time labels move with the plot, unless they are
+                // different or they are clipped at the sides of the graph
+                if (timeReferences.equals(previousTimeReferences) &&
+                        timeLabelsCentered(previousXReferenceCoords) && timeLabelsCentered(xReferenceCoords)) {
+                    g.copyArea(xAreaStart + shift, yAreaEnd + 1, plotWidth - shift, labelsHeight, -shift, 0);
+                    g.setColor(backgroundColor);
+                    g.fillRect(xAreaEnd + 1 - shift, yAreaEnd + 1, shift, labelsHeight);
+                } else {
+                    g.setColor(backgroundColor);
+                    g.fillRect(0, yAreaEnd + 1, getImageWidth(), labelsHeight);
+                    drawXLabels();
+                }
+            }
+            
+            // Redraw the newly exposed area, and the area from the point
+            // before the last one previously drawn, as the lines
+            // to the new points change
+            int last = xValues.size() - 1;
+            int first = last;
+            double previousLast = normalize(previousLastTime, getPlotTimeInterval());
+            while (first > 0 && xValues.getDouble(first) >= previousLast) {
+                first--;
+            }
+            int xDirtyStart = xAreaEnd + 1 - shift;
+            xDirtyStart = Math.min(xDirtyStart, (int) Math.floor(scaledX(xValues.getDouble(first))));
+            // One more pixel for the antialiasing
+            xDirtyStart = Math.max(xAreaStart, xDirtyStart - 1);
+            // Include the points of the lines that cross the area,
+            // plus one more as the cubic interpolation needs it
+            while (first > 0 && scaledX(xValues.getDouble(first)) >= xDirtyStart) {
+                first--;
+            }
+            first = Math.max(0, first - 1);
+            
+            g.setClip(xDirtyStart, yAreaStart, xAreaEnd - xDirtyStart + 1, yAreaEnd - yAreaStart + 1);
+            g.setColor(backgroundColor);
+            g.fillRect(xDirtyStart, yAreaStart, xAreaEnd - xDirtyStart + 1, yAreaEnd - yAreaStart + 1);
+            drawVerticalReferenceLines();
+            drawHorizontalReferenceLines();
+            g.setColor(Color.BLACK);
+            drawValueLine(ListMath.limit(xValues, first, last + 1),
+                    ListMath.limit(yValues, first, last + 1), interpolation, reduction);
+        }
+        
+        previousFrameValid = true;
+        previousPlotStart = getPlotRange().getMinimum().doubleValue();
+        previousPlotEnd = getPlotRange().getMaximum().doubleValue();
+        previousPlotCoordWidth = xPlotCoordWidth;
+        previousLastTime = data.getTimeInterval().getEnd();
+    }
+    
+    /**
+     * Moves the start of the plot time interval to a whole number of pixels
+     * from the start of the first frame, and returns the number of pixels
+     * elapsed from the previous frame, or -1 if the previous frame can't
+     * be reused.
+     */
+    private int alignPlotTimeInterval() {
+        TimeInterval plotInterval = getPlotTimeInterval();
+        TimeDuration duration = plotInterval.getEnd().durationFrom(plotInterval.getStart());
+        if (previousFrameValid && duration.equals(scrollDuration) &&
+                previousPlotStart == getPlotRange().getMinimum().doubleValue() &&
+                previousPlotEnd == getPlotRange().getMaximum().doubleValue()) {
+            double secondsPerPixel = duration.toSeconds() / previousPlotCoordWidth;
+            long pixels = (long) Math.floor(plotInterval.getStart().durationFrom(scrollAnchor).toSeconds() / secondsPerPixel);
+            long shift = pixels - scrollPixels;
+            if (shift >= 0 && shift < previousPlotCoordWidth) {
+                scrollPixels = pixels;
+                Timestamp start = scrollAnchor.plus(TimeDuration.ofSeconds(pixels * secondsPerPixel));
+                setPlotTimeInterval(TimeInterval.between(start, start.plus(duration)));
+                return (int) shift;
+            }
+        }
+        scrollAnchor = plotInterval.getStart();
+        scrollPixels = 0;
+        scrollDuration = duration;
+        return -1;
+    }
+    
+    private boolean timeLabelsCentered(ListNumber xCoords) {
+        for (int i = 0; i < timeReferenceLabels.size(); i++) {
+            int halfWidth = labelFontMetrics.stringWidth(timeReferenceLabels.get(i)) / 2;
+            int xCenter = (int) Math.floor(xCoords.getDouble(i));
+            if (xCenter - halfWidth < xAreaStart || xCenter + halfWidth > xAreaEnd) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static double normalize(Timestamp time, TimeInterval plotInterval) {
+        // Unlike TimeScales.normalize, keeps the sign of the times before the start
+        double range = plotInterval.getEnd().durationFrom(plotInterval.getStart()).toNanosLong();
+        return time.durationFrom(plotInterval.getStart()).toNanosLong() / range;
+    }
+    
+    /**
+     * The time of the dataset normalized within the plot interval. It is
+     * calculated from the normalized time of the dataset, so that no
+     * Timestamp is created for each sample.
+     */
+    private static ListNumber plotNormalizedTime(TimeSeriesDataset data, TimeInterval plotInterval) {
+        final ListNumber normalizedTime = data.getNormalizedTime();
+        TimeInterval dataInterval = data.getTimeInterval();
+        final double offset = normalize(dataInterval.getStart(), plotInterval);
+        final double factor = normalize(dataInterval.getEnd(), plotInterval) - offset;
+        return new ListDouble() {
+
+            @Override
+            public double getDouble(int index) {
+                // A single time is normalized to NaN within the dataset
+                if (factor == 0) {
+                    return offset;
+                }
+                return offset + factor * normalizedTime.getDouble(index);
+            }
+
+            @Override
+            public int size() {
+                return normalizedTime.size();
+            }
+        };
     }
 }
@@ -11,6 +11,8 @@ package org.epics.graphene;
 public class LineTimeGraph2DRendererUpdate extends TemporalGraph2DRendererUpdate<LineTimeGraph2DRendererUpdate> {
 
     private InterpolationScheme interpolation;
+    private ReductionScheme reduction;
+    private Boolean scrolling;
     
     public LineTimeGraph2DRendererUpdate interpolation(InterpolationScheme scheme) {
         if (scheme == null) {
@@ -27,4 +29,54 @@ public class LineTimeGraph2DRendererUpdate extends TemporalGraph2DRendererUpdate
         return interpolation;
     }
     
+    /**
+     * Sets the data reduction scheme used to draw the line.
+     * 
+     * @param scheme can not be null, must be a supported scheme. Supported schemes: FIRST_MAX_MIN_LAST, LARGEST_TRIANGLE_THREE_BUCKETS, NONE
+     * @return this
+     */
+    public LineTimeGraph2DRendererUpdate dataReduction(ReductionScheme scheme) {
+        if (scheme == null) {
+            throw new NullPointerException("Data reduction scheme can't be null");
+        }
+        if (!LineTimeGraph2DRenderer.supportedReductionScheme.contains(scheme)) {
+            throw new IllegalArgumentException("Data reduction " + scheme + " is not supported");
+        }
+        this.reduction = scheme;
+        return this;
+    }
+    
+    /**
+     * Current reduction scheme.
+     * 
+     * @return the current reduction scheme
+     */
+    public ReductionScheme getDataReduction() {
+        return reduction;
+    }
+    
+    /**
+     * Updates whether the graph is drawn as a scrolling strip chart.
+     * In scrolling mode, each draw shifts the plot of the previous frame
+     * left by the elapsed time and only draws the newly arrived part.
+     * The graphics passed to each draw must paint on the image that
+     * holds the previous frame.
+     * 
+     * @param scrolling true if the graph should scroll
+     * @return this
+     */
+    public LineTimeGraph2DRendererUpdate scrolling(boolean scrolling) {
+        this.scrolling = scrolling;
+        return this;
+    }
+    
+    /**
+     * Gets whether the graph is drawn as a scrolling strip chart.
+     * 
+     * @return true if the graph scrolls
+     */
+    public Boolean getScrolling() {
+        return scrolling;
+    }
+    
 }
@@ -0,0 +1,278 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.util.stats.Ranges;
+import org.epics.util.stats.Statistics;
+
+/**
+ * A histogram of values that are added and removed over time, with a fixed
+ * number of bins. Each value is binned when added, so that adding and
+ * removing a value takes constant time: a sliding window is kept by removing
+ * each value when it leaves the window.
+ * <p>
+ * The bins start on the given range, and each bin includes its lower
+ * boundary. When a value falls outside, the range is doubled towards
+ * the value, and each pair of adjacent bins is merged into one, until the
+ * value fits. The boundaries of the new bins are boundaries of the old ones,
+ * so that a value is always counted in the bin it would fall in now, and
+ * can be removed after the bins were merged. The range never shrinks.
+ * <p>
+ * The renderers draw a {@link #snapshot()}, which is immutable. The
+ * statistics of the bin counts are updated at every addition and removal.
+ * <p>
+ * All methods are thread-safe: values can be added on one thread while
+ * snapshots are drawn on another.
+ *
+ * @author carcassi
+ */
+public class LiveCell1DHistogramDataset {
+
+    private final int nBins;
+
+    // Bin k of the grid is [origin + k * binWidth, origin + (k + 1) * binWidth),
+    // and the histogram has the bins from firstBin to firstBin + nBins - 1.
+    // The bin width is only ever doubled, which is exact, so that the bin of
+    // a value in the new grid is always half of the bin in the old grid.
+    private final double origin;
+    private double binWidth;
+    private long firstBin;
+    private int[] counts;
+    private int[] mergedCounts;
+
+    // Number of values, and sum of the squares of the bin counts
+    private int count;
+    private long sumSquares;
+
+    /**
+     * Creates a new histogram with the given initial range and
+     * number of bins.
+     *
+     * @param initialRange the range of the bins until values fall outside
+     * @param nBins the number of bins
+     */
+    public LiveCell1DHistogramDataset(Range initialRange, int nBins) {
+        if (nBins <= 0) {
+            throw new IllegalArgumentException("Number of bins must be greater than 0 (was " + nBins + ")");
+        }
+        if (initialRange == null) {
+            throw new NullPointerException("Initial range can't be null");
+        }
+        double minimum = initialRange.getMinimum().doubleValue();
+        double maximum = initialRange.getMaximum().doubleValue();
+        if (!(maximum > minimum) || Double.isInfinite(maximum - minimum)) {
+            throw new IllegalArgumentException("Initial range must be finite and not empty (was " + Ranges.toString(initialRange) + ")");
+        }
+        this.nBins = nBins;
+        this.origin = minimum;
+        this.binWidth = (maximum - minimum) / nBins;
+        this.counts = new int[nBins];
+        this.mergedCounts = new int[nBins];
+    }
+
+    /**
+     * The number of bins of the histogram.
+     *
+     * @return the number of bins
+     */
+    public int getXCount() {
+        return nBins;
+    }
+
+    /**
+     * The number of values currently in the histogram.
+     *
+     * @return the number of values
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * The current range of the bins.
+     *
+     * @return the range from the lower boundary of the first bin to the
+     * upper boundary of the last
+     */
+    public synchronized Range getXRange() {
+        return Ranges.range(boundary(0), boundary(nBins));
+    }
+
+    /**
+     * Adds a value to the histogram. If the value is outside the range,
+     * the bins are merged until it fits. NaN and infinite values are skipped.
+     *
+     * @param value the new value
+     */
+    public synchronized void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        long bin = gridBin(value);
+        while (bin < firstBin || bin >= firstBin + nBins) {
+            mergeBins(bin < firstBin);
+            bin = gridBin(value);
+        }
+        int index = (int) (bin - firstBin);
+        sumSquares += 2 * counts[index] + 1;
+        counts[index]++;
+        count++;
+    }
+
+    /**
+     * Removes a value that was previously added to the histogram.
+     * NaN and infinite values are skipped, as they are never added.
+     *
+     * @param value the value to remove
+     */
+    public synchronized void remove(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        long bin = gridBin(value);
+        if (bin < firstBin || bin >= firstBin + nBins || counts[(int) (bin - firstBin)] == 0) {
+            throw new IllegalArgumentException("Value " + value + " is not in the histogram");
+        }
+        int index = (int) (bin - firstBin);
+        counts[index]--;
+        sumSquares -= 2 * counts[index] + 1;
+        count--;
+    }
+
+    /**
+     * Returns the current bins. The snapshot does not change as values
+     * are added or removed.
+     *
+     * @return an immutable dataset with the current bins
+     */
+    public synchronized Cell1DDataset snapshot() {
+        double[] values = new double[nBins];
+        double[] boundaries = new double[nBins + 1];
+        int minCount = counts[0];
+        int maxCount = counts[0];
+        for (int i = 0; i < nBins; i++) {
+            values[i] = counts[i];
+            boundaries[i] = boundary(i);
+            minCount = Math.min(minCount, counts[i]);
+            maxCount = Math.max(maxCount, counts[i]);
+        }
+        boundaries[nBins] = boundary(nBins);
+        return new Snapshot(values, new ArrayDouble(boundaries),
+                statistics((double) minCount, (double) maxCount));
+    }
+
+    private double boundary(int index) {
+        return origin + (firstBin + index) * binWidth;
+    }
+
+    private long gridBin(double value) {
+        return (long) Math.floor((value - origin) / binWidth);
+    }
+
+    /**
+     * Doubles the bin width, merging each pair of adjacent bins, and
+     * doubles the range towards the lower or upper end.
+     */
+    private void mergeBins(boolean expandDown) {
+        // The shift rounds towards negative infinity, as the floor of the bin
+        long lastBin = firstBin + nBins - 1;
+        long newFirstBin = expandDown ? (lastBin >> 1) - nBins + 1 : firstBin >> 1;
+        for (int i = 0; i < nBins; i++) {
+            mergedCounts[i] = 0;
+        }
+        sumSquares = 0;
+        for (int i = 0; i < nBins; i++) {
+            mergedCounts[(int) (((firstBin + i) >> 1) - newFirstBin)] += counts[i];
+        }
+        for (int i = 0; i < nBins; i++) {
+            sumSquares += (long) mergedCounts[i] * mergedCounts[i];
+        }
+        int[] oldCounts = counts;
+        counts = mergedCounts;
+        mergedCounts = oldCounts;
+        firstBin = newFirstBin;
+        binWidth *= 2;
+    }
+
+    private Statistics statistics(final Double minimum, final Double maximum) {
+        final int count = nBins;
+        final double average = (double) this.count / count;
+        final double stdDev = Math.sqrt(Math.max(0, (double) sumSquares / count - average * average));
+        return new Statistics() {
+
+            @Override
+            public int getCount() {
+                return count;
+            }
+
+            @Override
+            public double getAverage() {
+                return average;
+            }
+
+            @Override
+            public double getStdDev() {
+                return stdDev;
+            }
+
+            @Override
+            public Number getMinimum() {
+                return minimum;
+            }
+
+            @Override
+            public Number getMaximum() {
+                return maximum;
+            }
+        };
+    }
+
+    private static class Snapshot implements Cell1DDataset {
+        private final double[] values;
+        private final ListNumber xBoundaries;
+        private final Range xRange;
+        private final Statistics statistics;
+
+        public Snapshot(double[] values, ListNumber xBoundaries, Statistics statistics) {
+            this.values = values;
+            this.xBoundaries = xBoundaries;
+            this.xRange = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(values.length));
+            this.statistics = statistics;
+        }
+
+        @Override
+        public double getValue(int x) {
+            return values[x];
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public Range getDisplayRange() {
+            return null;
+        }
+
+        @Override
+        public ListNumber getXBoundaries() {
+            return xBoundaries;
+        }
+
+        @Override
+        public Range getXRange() {
+            return xRange;
+        }
+
+        @Override
+        public int getXCount() {
+            return values.length;
+        }
+    }
+}
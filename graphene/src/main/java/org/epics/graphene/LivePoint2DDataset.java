@@ -0,0 +1,412 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ListDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.util.stats.Statistics;
+
+/**
+ * A buffer of 2D points that are appended over time, keeping at most
+ * a given number of points. When the buffer is full, adding a point
+ * evicts the oldest one.
+ * <p>
+ * The statistics are updated at every append and eviction: minimum and
+ * maximum are tracked with a monotonic deque, so that they are available
+ * in constant time without scanning the points. The renderers draw a
+ * {@link #snapshot()}, which is immutable and shares the storage with the
+ * buffer, so that taking a snapshot does not copy the points.
+ * <p>
+ * All methods are thread-safe: points can be added on one thread while
+ * snapshots are drawn on another.
+ *
+ * @author carcassi
+ */
+public class LivePoint2DDataset {
+
+    private final int capacity;
+
+    // Points are appended at the end of the arrays, and evicted from the start.
+    // The values that belong to a snapshot are never modified: when the end
+    // of the arrays is reached, the points are moved to new arrays.
+    private double[] xValues;
+    private double[] yValues;
+    private int start;
+    private int end;
+
+    // Sequence number of the point at index 0 of the arrays
+    private long firstSequence;
+
+    private final RunningStatistics xStatistics;
+    private final RunningStatistics yStatistics;
+
+    // The sums of the statistics are recalculated once every capacity
+    // evictions, so that rounding errors do not accumulate
+    private int evictionsSinceRecalculation;
+
+    // Number of consecutive points where x decreases, and of NaN x
+    private int xUnsortedPairs;
+    private int xNaNs;
+
+    /**
+     * Creates a new buffer that keeps at most the given number of points.
+     *
+     * @param capacity the maximum number of points
+     */
+    public LivePoint2DDataset(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0 (was " + capacity + ")");
+        }
+        this.capacity = capacity;
+        this.xValues = new double[2 * capacity];
+        this.yValues = new double[2 * capacity];
+        this.xStatistics = new RunningStatistics(capacity);
+        this.yStatistics = new RunningStatistics(capacity);
+    }
+
+    /**
+     * The maximum number of points kept by the buffer.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of points currently in the buffer.
+     *
+     * @return the number of points
+     */
+    public synchronized int getCount() {
+        return end - start;
+    }
+
+    /**
+     * Adds a point, evicting the oldest one if the buffer is full.
+     *
+     * @param x the x value
+     * @param y the y value
+     */
+    public synchronized void add(double x, double y) {
+        if (end - start == capacity) {
+            evictOldest();
+        }
+        if (end == xValues.length) {
+            // Snapshots may still use the current arrays
+            double[] newXValues = new double[xValues.length];
+            double[] newYValues = new double[yValues.length];
+            System.arraycopy(xValues, start, newXValues, 0, end - start);
+            System.arraycopy(yValues, start, newYValues, 0, end - start);
+            xValues = newXValues;
+            yValues = newYValues;
+            firstSequence += start;
+            end -= start;
+            start = 0;
+        }
+
+        if (end > start && !(x >= xValues[end - 1])) {
+            xUnsortedPairs++;
+        }
+        if (Double.isNaN(x)) {
+            xNaNs++;
+        }
+        xValues[end] = x;
+        yValues[end] = y;
+        long sequence = firstSequence + end;
+        xStatistics.add(sequence, x);
+        yStatistics.add(sequence, y);
+        end++;
+    }
+
+    /**
+     * Removes the given number of points, starting from the oldest.
+     *
+     * @param nPoints the number of points to remove
+     */
+    public synchronized void evictOldest(int nPoints) {
+        int toEvict = Math.min(nPoints, end - start);
+        for (int i = 0; i < toEvict; i++) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Removes the oldest points, as long as their x is less than
+     * the given value. Useful to keep a time window in a strip chart.
+     *
+     * @param x the minimum x of the points to keep
+     */
+    public synchronized void evictBefore(double x) {
+        while (end > start && xValues[start] < x) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        double x = xValues[start];
+        if (end - start > 1 && !(xValues[start + 1] >= x)) {
+            xUnsortedPairs--;
+        }
+        if (Double.isNaN(x)) {
+            xNaNs--;
+        }
+        long sequence = firstSequence + start;
+        xStatistics.evict(sequence, x);
+        yStatistics.evict(sequence, yValues[start]);
+        start++;
+        evictionsSinceRecalculation++;
+        if (evictionsSinceRecalculation >= capacity) {
+            xStatistics.recalculate(xValues, start, end);
+            yStatistics.recalculate(yValues, start, end);
+            evictionsSinceRecalculation = 0;
+        }
+    }
+
+    /**
+     * Returns the points currently in the buffer. The snapshot does
+     * not change as points are added or evicted, and the points are
+     * not copied.
+     *
+     * @return an immutable dataset with the current points
+     */
+    public synchronized Point2DDataset snapshot() {
+        return new Snapshot(view(xValues, start, end), view(yValues, start, end),
+                xStatistics.getStatistics(), yStatistics.getStatistics(),
+                xUnsortedPairs == 0 && xNaNs == 0);
+    }
+
+    private static ListDouble view(final double[] values, final int start, final int end) {
+        return new ListDouble() {
+
+            @Override
+            public double getDouble(int index) {
+                return values[start + index];
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    private static class Snapshot implements SortedPoint2DDataset {
+        private final ListNumber xValues;
+        private final ListNumber yValues;
+        private final Statistics xStatistics;
+        private final Statistics yStatistics;
+        private final boolean xSorted;
+
+        public Snapshot(ListNumber xValues, ListNumber yValues, Statistics xStatistics, Statistics yStatistics, boolean xSorted) {
+            this.xValues = xValues;
+            this.yValues = yValues;
+            this.xStatistics = xStatistics;
+            this.yStatistics = yStatistics;
+            this.xSorted = xSorted;
+        }
+
+        @Override
+        public ListNumber getXValues() {
+            return xValues;
+        }
+
+        @Override
+        public ListNumber getYValues() {
+            return yValues;
+        }
+
+        @Override
+        public Statistics getXStatistics() {
+            return xStatistics;
+        }
+
+        @Override
+        public Statistics getYStatistics() {
+            return yStatistics;
+        }
+
+        @Override
+        public Range getXDisplayRange() {
+            return null;
+        }
+
+        @Override
+        public Range getYDisplayRange() {
+            return null;
+        }
+
+        @Override
+        public int getCount() {
+            return xValues.size();
+        }
+
+        @Override
+        public boolean isXSorted() {
+            return xSorted;
+        }
+    }
+
+    /**
+     * Statistics of a sliding window of values. NaN values are skipped.
+     * <p>
+     * The sums are taken on the values minus a shift close to the average,
+     * so that values far from zero (e.g. times in epoch seconds) do not
+     * lose their precision in the variance.
+     */
+    private static class RunningStatistics {
+        private final MonotonicDeque maxima;
+        private final MonotonicDeque minima;
+        private int count;
+        private double shift;
+        private double sum;
+        private double sumSquares;
+
+        public RunningStatistics(int capacity) {
+            maxima = new MonotonicDeque(capacity, true);
+            minima = new MonotonicDeque(capacity, false);
+        }
+
+        public void add(long sequence, double value) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            maxima.add(sequence, value);
+            minima.add(sequence, value);
+            if (count == 0) {
+                shift = value;
+            }
+            count++;
+            double shifted = value - shift;
+            sum += shifted;
+            sumSquares += shifted * shifted;
+        }
+
+        public void evict(long sequence, double value) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            maxima.evict(sequence);
+            minima.evict(sequence);
+            count--;
+            if (count == 0) {
+                // Avoid accumulating rounding errors
+                sum = 0;
+                sumSquares = 0;
+            } else {
+                double shifted = value - shift;
+                sum -= shifted;
+                sumSquares -= shifted * shifted;
+            }
+        }
+
+        /**
+         * Recalculates the sums from the values in the window, shifted
+         * by their current average.
+         */
+        public void recalculate(double[] values, int from, int to) {
+            if (count == 0) {
+                return;
+            }
+            shift += sum / count;
+            sum = 0;
+            sumSquares = 0;
+            for (int i = from; i < to; i++) {
+                if (!Double.isNaN(values[i])) {
+                    double shifted = values[i] - shift;
+                    sum += shifted;
+                    sumSquares += shifted * shifted;
+                }
+            }
+        }
+
+        public Statistics getStatistics() {
+            if (count == 0) {
+                return null;
+            }
+            final int count = this.count;
+            final double shiftedAverage = sum / count;
+            final double average = shift + shiftedAverage;
+            final double stdDev = Math.sqrt(Math.max(0, sumSquares / count - shiftedAverage * shiftedAverage));
+            final Double minimum = minima.first();
+            final Double maximum = maxima.first();
+            return new Statistics() {
+
+                @Override
+                public int getCount() {
+                    return count;
+                }
+
+                @Override
+                public double getAverage() {
+                    return average;
+                }
+
+                @Override
+                public double getStdDev() {
+                    return stdDev;
+                }
+
+                @Override
+                public Number getMinimum() {
+                    return minimum;
+                }
+
+                @Override
+                public Number getMaximum() {
+                    return maximum;
+                }
+            };
+        }
+    }
+
+    /**
+     * The candidates for the maximum (or minimum) of a sliding window.
+     * The values in the deque are decreasing (or increasing), so that the
+     * first is the maximum (or minimum) of the window. Each value is added
+     * and removed at most once, so the cost is constant on average.
+     */
+    private static class MonotonicDeque {
+        private final long[] sequences;
+        private final double[] values;
+        private final boolean maximum;
+        private int first;
+        private int size;
+
+        public MonotonicDeque(int capacity, boolean maximum) {
+            this.sequences = new long[capacity];
+            this.values = new double[capacity];
+            this.maximum = maximum;
+        }
+
+        public void add(long sequence, double value) {
+            // Remove the values that can't be the extreme anymore
+            while (size > 0) {
+                double last = values[(first + size - 1) % values.length];
+                if (maximum ? last <= value : last >= value) {
+                    size--;
+                } else {
+                    break;
+                }
+            }
+            int index = (first + size) % values.length;
+            sequences[index] = sequence;
+            values[index] = value;
+            size++;
+        }
+
+        public void evict(long sequence) {
+            if (size > 0 && sequences[first] == sequence) {
+                first = (first + 1) % values.length;
+                size--;
+            }
+        }
+
+        public double first() {
+            return values[first];
+        }
+    }
+}
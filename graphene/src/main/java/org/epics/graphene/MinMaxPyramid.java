@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ListNumber;
+
+/**
+ * A precomputed index of the minimum and maximum of a list of values,
+ * at multiple resolutions.
+ * <p>
+ * The first level stores, for each bucket of consecutive values, the index
+ * of the minimum and of the maximum; each following level combines two
+ * buckets of the previous one. The minimum and maximum of any range can
+ * then be found in O(log n), which allows the first/max/min/last reduction
+ * to cost O(pixels &middot; log n) instead of O(n) when the data is much
+ * larger than the plot. NaN values are ignored.
+ * <p>
+ * The index takes about one byte every two values. It is immutable,
+ * and assumes the values are not changed after it is built.
+ *
+ * @author carcassi
+ */
+public final class MinMaxPyramid {
+
+    private static final int BUCKET_SIZE = 32;
+
+    private final ListNumber values;
+    // Indexes of minimum and maximum of each bucket, for each level
+    private final int[][] minIndexes;
+    private final int[][] maxIndexes;
+
+    private MinMaxPyramid(ListNumber values) {
+        this.values = values;
+        int nLevels = 0;
+        for (int size = values.size() / BUCKET_SIZE; size > 0; size /= 2) {
+            nLevels++;
+        }
+        minIndexes = new int[nLevels][];
+        maxIndexes = new int[nLevels][];
+        if (nLevels == 0) {
+            return;
+        }
+
+        // First level from the values
+        int nBuckets = values.size() / BUCKET_SIZE;
+        minIndexes[0] = new int[nBuckets];
+        maxIndexes[0] = new int[nBuckets];
+        for (int bucket = 0; bucket < nBuckets; bucket++) {
+            int minIndex = bucket * BUCKET_SIZE;
+            int maxIndex = minIndex;
+            for (int i = minIndex + 1; i < (bucket + 1) * BUCKET_SIZE; i++) {
+                minIndex = lower(minIndex, i);
+                maxIndex = higher(maxIndex, i);
+            }
+            minIndexes[0][bucket] = minIndex;
+            maxIndexes[0][bucket] = maxIndex;
+        }
+
+        // Each other level combines pairs of buckets from the previous
+        for (int level = 1; level < nLevels; level++) {
+            nBuckets = minIndexes[level - 1].length / 2;
+            minIndexes[level] = new int[nBuckets];
+            maxIndexes[level] = new int[nBuckets];
+            for (int bucket = 0; bucket < nBuckets; bucket++) {
+                minIndexes[level][bucket] = lower(minIndexes[level - 1][2 * bucket], minIndexes[level - 1][2 * bucket + 1]);
+                maxIndexes[level][bucket] = higher(maxIndexes[level - 1][2 * bucket], maxIndexes[level - 1][2 * bucket + 1]);
+            }
+        }
+    }
+
+    /**
+     * Builds the index for the given values. This is an O(n) operation,
+     * meant to be done once per dataset.
+     *
+     * @param values the values to index
+     * @return the index
+     */
+    public static MinMaxPyramid of(ListNumber values) {
+        return new MinMaxPyramid(values);
+    }
+
+    /**
+     * The values that were indexed.
+     *
+     * @return the values
+     */
+    public ListNumber getValues() {
+        return values;
+    }
+
+    private int lower(int index1, int index2) {
+        double value1 = values.getDouble(index1);
+        double value2 = values.getDouble(index2);
+        if (value2 < value1 || (Double.isNaN(value1) && !Double.isNaN(value2))) {
+            return index2;
+        }
+        return index1;
+    }
+
+    private int higher(int index1, int index2) {
+        double value1 = values.getDouble(index1);
+        double value2 = values.getDouble(index2);
+        if (value2 > value1 || (Double.isNaN(value1) && !Double.isNaN(value2))) {
+            return index2;
+        }
+        return index1;
+    }
+
+    /**
+     * Finds the indexes of the minimum and of the maximum in the given range.
+     * If all values are NaN, the first index is returned for both.
+     *
+     * @param from the first index of the range (included)
+     * @param to the last index of the range (excluded); must be greater than from
+     * @param result the array where the index of minimum and maximum are written
+     */
+    void minMaxIndexes(int from, int to, int[] result) {
+        int minIndex = from;
+        int maxIndex = from;
+        int i = from + 1;
+        while (i < to) {
+            if (i % BUCKET_SIZE != 0 || i + BUCKET_SIZE > to) {
+                // Not aligned to a bucket: use the value
+                minIndex = lower(minIndex, i);
+                maxIndex = higher(maxIndex, i);
+                i++;
+            } else {
+                // Use the largest bucket that starts here and fits in the range
+                int level = 0;
+                int size = BUCKET_SIZE;
+                while (level + 1 < minIndexes.length && i % (2 * size) == 0 && i + 2 * size <= to) {
+                    level++;
+                    size *= 2;
+                }
+                minIndex = lower(minIndex, minIndexes[level][i / size]);
+                maxIndex = higher(maxIndex, maxIndexes[level][i / size]);
+                i += size;
+            }
+        }
+        result[0] = minIndex;
+        result[1] = maxIndex;
+    }
+
+    /**
+     * Reduces the data to the first, maximum, minimum and last point of each
+     * pixel column, using the index for the minimum and maximum. The scaled
+     * lists are expected to be views that compute the scaled values on the fly,
+     * and the x values must be sorted. Only O(log n) values are read for
+     * each pixel column.
+     * <p>
+     * The process value callback is called only for the points that are
+     * retained, which are at most four for each pixel column.
+     *
+     * @param xValues the x values
+     * @param yValues the y values, starting at dataStart within the indexed values
+     * @param scaledX the x values scaled to the graph area
+     * @param scaledY the y values scaled to the graph area
+     * @param dataStart the offset of the first value within the indexed values
+     * @param outX the array where the retained scaled x values are written;
+     * it must fit four points for each pixel column
+     * @param outY the array where the retained scaled y values are written
+     * @param processValue the callback for each retained value; can be null
+     * @return the number of points written in the output arrays
+     */
+    int reduce(ListNumber xValues, ListNumber yValues,
+            ListNumber scaledX, ListNumber scaledY, int dataStart,
+            double[] outX, double[] outY, ProcessValue processValue) {
+        int dataCount = xValues.size();
+        int[] minMax = new int[2];
+        int cursor = 0;
+        int first = 0;
+        while (first < dataCount) {
+            int pixel = (int) scaledX.getDouble(first);
+            int end = endOfPixel(scaledX, first, pixel);
+            int last = end - 1;
+            minMaxIndexes(dataStart + first, dataStart + end, minMax);
+            int minIndex = minMax[0] - dataStart;
+            int maxIndex = minMax[1] - dataStart;
+
+            double firstY = scaledY.getDouble(first);
+            double lastY = scaledY.getDouble(last);
+            double minValueY = scaledY.getDouble(minIndex);
+            double maxValueY = scaledY.getDouble(maxIndex);
+            // The scale may invert the direction
+            double maxY = MathIgnoreNaN.max(MathIgnoreNaN.max(firstY, lastY), MathIgnoreNaN.max(minValueY, maxValueY));
+            double minY = MathIgnoreNaN.min(MathIgnoreNaN.min(firstY, lastY), MathIgnoreNaN.min(minValueY, maxValueY));
+            outX[cursor] = pixel;
+            outY[cursor] = firstY;
+            cursor++;
+            outX[cursor] = pixel;
+            outY[cursor] = maxY;
+            cursor++;
+            outX[cursor] = pixel;
+            outY[cursor] = minY;
+            cursor++;
+            outX[cursor] = pixel;
+            outY[cursor] = lastY;
+            cursor++;
+
+            if (processValue != null) {
+                processValue(xValues, yValues, scaledX, scaledY, dataStart, first, processValue);
+                processValue(xValues, yValues, scaledX, scaledY, dataStart, minIndex, processValue);
+                processValue(xValues, yValues, scaledX, scaledY, dataStart, maxIndex, processValue);
+                processValue(xValues, yValues, scaledX, scaledY, dataStart, last, processValue);
+            }
+            first = end;
+        }
+        return cursor;
+    }
+
+    private static void processValue(ListNumber xValues, ListNumber yValues,
+            ListNumber scaledX, ListNumber scaledY, int dataStart, int index, ProcessValue processValue) {
+        processValue.processScaledValue(dataStart + index, xValues.getDouble(index), yValues.getDouble(index),
+                scaledX.getDouble(index), scaledY.getDouble(index));
+    }
+
+    /**
+     * Finds the first index after start that is not in the given pixel column.
+     */
+    private static int endOfPixel(ListNumber scaledX, int start, int pixel) {
+        // Gallop, so that small columns cost little
+        int size = scaledX.size();
+        int low = start;
+        int step = 1;
+        while (low + step < size && (int) scaledX.getDouble(low + step) == pixel) {
+            low += step;
+            step *= 2;
+        }
+        // The answer is in (low, high]
+        int high = Math.min(low + step, size);
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if ((int) scaledX.getDouble(middle) == pixel) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+}
@@ -21,6 +21,7 @@ import static org.epics.graphene.InterpolationScheme.CUBIC;
 import static org.epics.graphene.InterpolationScheme.LINEAR;
 import static org.epics.graphene.InterpolationScheme.NEAREST_NEIGHBOR;
 import static org.epics.graphene.ReductionScheme.FIRST_MAX_MIN_LAST;
+import static org.epics.graphene.ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS;
 import static org.epics.graphene.ReductionScheme.NONE;
 import org.epics.util.array.ArrayDouble;
 import org.epics.util.array.ListDouble;
@@ -44,7 +45,7 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
     /**
      * List of supported data reduction schemes for this renderer.
      */
-    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.NONE);
+    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS, ReductionScheme.NONE);
 
     /**
      * Default interpolation scheme: nearest neighbor.
@@ -225,14 +226,17 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
         }
         
         
-        List<SortedListView> xValues = new ArrayList<SortedListView>();
-        for(int i = 0; i < numGraphs; i++){
-            xValues.add(org.epics.util.array.ListNumbers.sortedView(data.get(i).getXValues()));
-        }
-        
+        List<ListNumber> xValues = new ArrayList<ListNumber>();
         List<ListNumber> yValues = new ArrayList<ListNumber>();
         for(int i = 0; i < numGraphs; i++){
-            yValues.add(org.epics.util.array.ListNumbers.sortedView(data.get(i).getYValues(), xValues.get(i).getIndexes()));
+            if (Point2DDatasets.isXSorted(data.get(i))) {
+                xValues.add(data.get(i).getXValues());
+                yValues.add(data.get(i).getYValues());
+            } else {
+                SortedListView sortedXValues = org.epics.util.array.ListNumbers.sortedView(data.get(i).getXValues());
+                xValues.add(sortedXValues);
+                yValues.add(org.epics.util.array.ListNumbers.sortedView(data.get(i).getYValues(), sortedXValues.getIndexes()));
+            }
         }
         if(separateAreas){
             g.setColor(Color.BLACK);
@@ -972,8 +976,6 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
     }
     
     protected void drawValueExplicitLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction, int index) {
-        MultiAxisLineGraph2DRenderer.ScaledData scaledData;
-        
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
         
@@ -984,29 +986,21 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
         xValues = ListMath.limit(xValues, start, end + 1);
         yValues = ListMath.limit(yValues, start, end + 1);
         
-        switch (reduction) {
-            default:
-                throw new IllegalArgumentException("Reduction scheme " + reduction + " not supported");
-            case NONE:
-                scaledData = scaleNoReduction(xValues, yValues, start,index);
-                break;
-            case FIRST_MAX_MIN_LAST:
-                scaledData = scaleFirstMaxMinLastReduction(xValues, yValues, start, index);
-                break;
-        }
+        ScaledData scaledData = newScaledData();
+        lineScaling(index).scale(reduction, xValues, yValues, start, xPlotCoordWidth, null, scaledData, scratchProcessValue);
         
         // create path
         Path2D path;
         switch (interpolation) {
             default:
             case NEAREST_NEIGHBOR:
-                path = nearestNeighbour(scaledData);
+                path = nearestNeighbour(scaledData, newPath());
                 break;
             case LINEAR:
-                path = linearInterpolation(scaledData);
+                path = linearInterpolation(scaledData, newPath());
                 break;
             case CUBIC:
-                path = cubicInterpolation(scaledData);
+                path = cubicInterpolation(scaledData, newPath());
                 break;
         }
 
@@ -1014,107 +1008,40 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
         g.draw(path);
     }
     
-    private static class ScaledData {
-        private double[] scaledX;
-        private double[] scaledY;
-        private int start;
-        private int end;
-    }
-    
-    private MultiAxisLineGraph2DRenderer.ScaledData scaleNoReduction(ListNumber xValues, ListNumber yValues, int dataStart, int index) {
-        MultiAxisLineGraph2DRenderer.ScaledData scaledData = new MultiAxisLineGraph2DRenderer.ScaledData();
-        int dataCount = xValues.size();
-        scaledData.scaledX = new double[dataCount];
-        scaledData.scaledY = new double[dataCount];
-        for (int i = 0; i < scaledData.scaledY.length; i++) {
-            scaledData.scaledX[i] = scaledX1(xValues.getDouble(i));
-            if(separateAreas){
-                scaledData.scaledY[i] = scaledYSplit(yValues.getDouble(i), index);
-            }else{
-                scaledData.scaledY[i] = scaledY(yValues.getDouble(i), index);
-            }
-            processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), scaledData.scaledX[i], scaledData.scaledY[i]);
-        }
-        scaledData.end = dataCount;
-        return scaledData;
-    }
+    // The scaling of the line of each axis, created the first time it's used
+    private final List<LineScaling> lineScalings = new ArrayList<>();
     
-    private MultiAxisLineGraph2DRenderer.ScaledData scaleFirstMaxMinLastReduction(ListNumber xValues, ListNumber yValues, int dataStart, int index) {
-        // The number of points generated by this is about 4 times the 
-        // number of points on the x axis. If the number of points is less
-        // than that, it's not worth it. Don't do the data reduction.
-        if (xValues.size() < xPlotCoordWidth * 4) {
-            return scaleNoReduction(xValues, yValues, dataStart, index);
-        }
+    /**
+     * The scaling of the line for the given axis.
+     */
+    private LineScaling lineScaling(int index) {
+        while (lineScalings.size() <= index) {
+            final int axis = lineScalings.size();
+            lineScalings.add(new LineScaling() {
 
-        MultiAxisLineGraph2DRenderer.ScaledData scaledData = new MultiAxisLineGraph2DRenderer.ScaledData();
-        scaledData.scaledX = new double[((int) xPlotCoordWidth + 1)*4 ];
-        scaledData.scaledY = new double[((int) xPlotCoordWidth + 1)*4];
-        int cursor = 0;
-        int previousPixel = (int) scaledX1(xValues.getDouble(0));
-        double last;
-        if(separateAreas){
-            last = scaledYSplit(yValues.getDouble(0),index);
-        }else{
-            last = scaledY(yValues.getDouble(0),index);
-        }
-        double min = last;
-        double max = last;
-        scaledData.scaledX[0] = previousPixel;
-        scaledData.scaledY[0] = min;
-        processScaledValue(dataStart, xValues.getDouble(0), yValues.getDouble(0), scaledX1(xValues.getDouble(0)), last);
-        cursor++;
-        for (int i = 1; i < xValues.size(); i++) {
-            double currentScaledX = scaledX1(xValues.getDouble(i));
-            int currentPixel = (int) currentScaledX;
-            if (currentPixel == previousPixel) {
-                if(separateAreas){
-                    last = scaledYSplit(yValues.getDouble(i),index);
-                }else{
-                    last = scaledY(yValues.getDouble(i),index);
+                @Override
+                double scaledX(double value) {
+                    return scaledX1(value);
                 }
-                min = MathIgnoreNaN.min(min, last);
-                max = MathIgnoreNaN.max(max, last);
-                processScaledValue(dataStart + i, xValues.getDouble(i), yValues.getDouble(i), currentScaledX, last);
-            } else {
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = max;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = min;
-                cursor++;
-                scaledData.scaledX[cursor] = previousPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
-                previousPixel = currentPixel;
-                if(separateAreas){
-                    last = scaledYSplit(yValues.getDouble(i),index);
-                }else{
-                    last = scaledY(yValues.getDouble(i),index);
+
+                @Override
+                double scaledY(double value) {
+                    if (separateAreas) {
+                        return scaledYSplit(value, axis);
+                    } else {
+                        return MultiAxisLineGraph2DRenderer.this.scaledY(value, axis);
+                    }
                 }
-                min = last;
-                max = last;
-                scaledData.scaledX[cursor] = currentPixel;
-                scaledData.scaledY[cursor] = last;
-                cursor++;
-            }
+            });
         }
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = max;
-        cursor++;
-        scaledData.scaledX[cursor] = previousPixel;
-        scaledData.scaledY[cursor] = min;
-        cursor++;
-        scaledData.end = cursor;
-        return scaledData;
+        return lineScalings.get(index);
     }
     
-    private static Path2D.Double nearestNeighbour(MultiAxisLineGraph2DRenderer.ScaledData scaledData) {
+    private static Path2D.Double nearestNeighbour(ScaledData scaledData, Path2D.Double line) {
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
         line.moveTo(scaledX[start], scaledY[start]);
         for (int i = 1; i < end; i++) {
             double halfX = scaledX[i - 1] + (scaledX[i] - scaledX[i - 1]) / 2;
@@ -1130,12 +1057,11 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
         return line;
     }
     
-    private static Path2D.Double linearInterpolation(MultiAxisLineGraph2DRenderer.ScaledData scaledData){
+    private static Path2D.Double linearInterpolation(ScaledData scaledData, Path2D.Double line){
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double line = new Path2D.Double();
         
         for (int i = start; i < end; i++) {
             // Do I have a current value?
@@ -1161,12 +1087,11 @@ public class MultiAxisLineGraph2DRenderer extends Graph2DRenderer<MultiAxisLineG
         return line;
     }
     
-    private static Path2D.Double cubicInterpolation(MultiAxisLineGraph2DRenderer.ScaledData scaledData){
+    private static Path2D.Double cubicInterpolation(ScaledData scaledData, Path2D.Double path){
         double[] scaledX = scaledData.scaledX;
         double[] scaledY = scaledData.scaledY;
         int start = scaledData.start;
         int end = scaledData.end;
-        Path2D.Double path = new Path2D.Double();
         for (int i = start; i < end; i++) {
             
             double y1;
@@ -47,7 +47,7 @@ public class MultiAxisLineGraph2DRendererUpdate extends Graph2DRendererUpdate<Mu
     
     /**
      *Sets this object's data reduction scheme to the given scheme.
-     * @param scheme can not be null, must be a supported scheme. Supported schemes:FIRST_MAX_MIN_LAST,NONE
+     * @param scheme can not be null, must be a supported scheme. Supported schemes:FIRST_MAX_MIN_LAST,LARGEST_TRIANGLE_THREE_BUCKETS,NONE
      * @return this
      */
     public MultiAxisLineGraph2DRendererUpdate dataReduction(ReductionScheme scheme) {
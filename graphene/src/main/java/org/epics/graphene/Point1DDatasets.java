@@ -4,7 +4,6 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
 import org.epics.util.array.ListNumber;
 import org.epics.util.stats.Range;
@@ -26,7 +25,7 @@ public class Point1DDatasets {
      * @return the dataset from the values; never null
      */
     public static Point1DDataset of(final ListNumber values) {
-        final Statistics statistics = StatisticsUtil.statisticsOf(values);
+        final LazyStatistics statistics = new LazyStatistics(values);
         return new Point1DDataset() {
 
             @Override
@@ -36,7 +35,7 @@ public class Point1DDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return statistics;
+                return statistics.getStatistics();
             }
 
             @Override
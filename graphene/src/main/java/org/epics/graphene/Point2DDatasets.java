@@ -4,7 +4,6 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
 import org.epics.util.stats.Range;
 import org.epics.util.array.*;
@@ -19,6 +18,10 @@ public class Point2DDatasets {
         return lineData(new ArrayDouble(data));
     }
 
+    public static Point2DDataset lineData(final float[] data) {
+        return lineData(new ArrayFloat(data));
+    }
+
     public static Point2DDataset lineData(final ListNumber data) {
         return lineData(ListNumbers.linearList(0, 1, data.size()), data);
     }
@@ -27,6 +30,10 @@ public class Point2DDatasets {
         return lineData(new ArrayDouble(data), xInitialOffset, xIncrementSize);
     }
 
+    public static Point2DDataset lineData(final float[] data, final double xInitialOffset, final double xIncrementSize) {
+        return lineData(new ArrayFloat(data), xInitialOffset, xIncrementSize);
+    }
+
     public static Point2DDataset lineData(final ListNumber data, final double xInitialOffset, final double xIncrementSize) {
         return lineData(ListNumbers.linearList(xInitialOffset, xIncrementSize, data.size()), data);
     }
@@ -34,6 +41,10 @@ public class Point2DDatasets {
     public static Point2DDataset lineData(final double[] x, final double[] y) {
         return lineData(new ArrayDouble(x), new ArrayDouble(y));
     }
+
+    public static Point2DDataset lineData(final float[] x, final float[] y) {
+        return lineData(new ArrayFloat(x), new ArrayFloat(y));
+    }
     
     public static Point2DDataset lineData(final Range xRange, final ListNumber y) {
         return lineData(ListNumbers.linearListFromRange(xRange.getMinimum().doubleValue(), xRange.getMaximum().doubleValue(), y.size()), y);
@@ -44,20 +55,41 @@ public class Point2DDatasets {
             throw new IllegalArgumentException("Arrays length don't match: " + x.size() + " - " + y.size());
         }
         
-        return new Point2DDataset() {
-            
-            private final Statistics xStatistics = StatisticsUtil.statisticsOf(x);
-            private final Statistics yStatistics = StatisticsUtil.statisticsOf(y);
+        // Statistics are calculated only if requested
+        final LazyStatistics xStatistics = new LazyStatistics(x);
+        final LazyStatistics yStatistics = new LazyStatistics(y);
+        return new ListPoint2DDataset(x, y) {
 
             @Override
-            public ListNumber getXValues() {
-                return x;
+            public Statistics getXStatistics() {
+                return xStatistics.getStatistics();
             }
 
             @Override
-            public ListNumber getYValues() {
-                return y;
+            public Statistics getYStatistics() {
+                return yStatistics.getStatistics();
             }
+        };
+    }
+    
+    /**
+     * Wraps the given values, using the given statistics instead of
+     * calculating them. This allows datasets that are rebuilt as values are
+     * appended to keep their statistics up to date with an
+     * {@link IncrementalStatistics}, without scanning all the values each time.
+     * 
+     * @param x the x values
+     * @param y the y values
+     * @param xStatistics the statistics of the x values
+     * @param yStatistics the statistics of the y values
+     * @return the dataset
+     */
+    public static Point2DDataset lineData(final ListNumber x, final ListNumber y, final Statistics xStatistics, final Statistics yStatistics) {
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("Arrays length don't match: " + x.size() + " - " + y.size());
+        }
+        
+        return new ListPoint2DDataset(x, y) {
 
             @Override
             public Statistics getXStatistics() {
@@ -68,22 +100,143 @@ public class Point2DDatasets {
             public Statistics getYStatistics() {
                 return yStatistics;
             }
+        };
+    }
+    
+    /**
+     * Wraps the given values in a dataset that also provides a
+     * {@link MinMaxPyramid} of the y values, built the first time it is
+     * requested. This is meant for very long datasets with sorted x values
+     * that are drawn with the first/max/min/last reduction.
+     * 
+     * @param x the x values
+     * @param y the y values
+     * @return the dataset
+     */
+    public static Point2DPyramidDataset pyramidLineData(final ListNumber x, final ListNumber y) {
+        if (x.size() != y.size()) {
+            throw new IllegalArgumentException("Arrays length don't match: " + x.size() + " - " + y.size());
+        }
+        
+        return new PyramidPoint2DDataset(x, y);
+    }
+    
+    private static class PyramidPoint2DDataset extends ListPoint2DDataset implements Point2DPyramidDataset {
+        private final LazyStatistics xStatistics;
+        private final LazyStatistics yStatistics;
+        private final ListNumber y;
+        private volatile MinMaxPyramid yPyramid;
 
-            @Override
-            public Range getXDisplayRange() {
-                return null;
-            }
+        public PyramidPoint2DDataset(ListNumber x, ListNumber y) {
+            super(x, y);
+            this.y = y;
+            this.xStatistics = new LazyStatistics(x);
+            this.yStatistics = new LazyStatistics(y);
+        }
 
-            @Override
-            public Range getYDisplayRange() {
-                return null;
+        @Override
+        public Statistics getXStatistics() {
+            return xStatistics.getStatistics();
+        }
+
+        @Override
+        public Statistics getYStatistics() {
+            return yStatistics.getStatistics();
+        }
+
+        @Override
+        public MinMaxPyramid getYPyramid() {
+            if (yPyramid == null) {
+                synchronized (this) {
+                    if (yPyramid == null) {
+                        yPyramid = MinMaxPyramid.of(y);
+                    }
+                }
             }
+            return yPyramid;
+        }
+    }
+    
+    /**
+     * Common part of the datasets that wrap two lists.
+     */
+    private static abstract class ListPoint2DDataset implements SortedPoint2DDataset {
+        private final ListNumber x;
+        private final ListNumber y;
+        private volatile Boolean xSorted;
 
-            @Override
-            public int getCount() {
-                return x.size();
+        public ListPoint2DDataset(ListNumber x, ListNumber y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public ListNumber getXValues() {
+            return x;
+        }
+
+        @Override
+        public ListNumber getYValues() {
+            return y;
+        }
+
+        @Override
+        public Range getXDisplayRange() {
+            return null;
+        }
+
+        @Override
+        public Range getYDisplayRange() {
+            return null;
+        }
+
+        @Override
+        public int getCount() {
+            return x.size();
+        }
+
+        @Override
+        public boolean isXSorted() {
+            // Calculated on first use; concurrent calls give the same result
+            Boolean sorted = xSorted;
+            if (sorted == null) {
+                sorted = isSorted(x);
+                xSorted = sorted;
             }
-        };
+            return sorted;
+        }
+    }
+    
+    /**
+     * Checks whether the dataset declares its x values sorted. Datasets
+     * that do not implement {@link SortedPoint2DDataset} are never
+     * considered sorted.
+     * 
+     * @param dataset the dataset to check
+     * @return true if the x values are known to be sorted
+     */
+    static boolean isXSorted(Point2DDataset dataset) {
+        return dataset instanceof SortedPoint2DDataset && ((SortedPoint2DDataset) dataset).isXSorted();
+    }
+    
+    /**
+     * Checks whether the values are sorted in ascending order.
+     * Lists that contain NaN are not considered sorted.
+     * 
+     * @param values the values to check
+     * @return true if each value is greater or equal than the previous one
+     */
+    static boolean isSorted(ListNumber values) {
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.size(); i++) {
+            double value = values.getDouble(i);
+            // Also catches NaN
+            if (!(value >= previous)) {
+                return false;
+            }
+            previous = value;
+        }
+        return true;
     }
     
 }
@@ -0,0 +1,26 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * A {@link SortedPoint2DDataset} that provides a {@link MinMaxPyramid} of its
+ * y values.
+ * <p>
+ * When the x values are sorted, renderers use the index for the
+ * {@link ReductionScheme#FIRST_MAX_MIN_LAST} reduction, so that panning
+ * and zooming on very long datasets does not visit every point.
+ *
+ * @author carcassi
+ */
+public interface Point2DPyramidDataset extends SortedPoint2DDataset {
+    
+    /**
+     * Returns the index of the y values. The index is built once,
+     * and the same instance is returned on all following calls.
+     * 
+     * @return the index of the y values; never null
+     */
+    public MinMaxPyramid getYPyramid();
+}
@@ -4,7 +4,6 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
 import java.util.List;
 import org.epics.util.array.*;
@@ -23,9 +22,9 @@ public class Point3DWithLabelDatasets {
         
         return new Point3DWithLabelDataset() {
             
-            private final Statistics xStatistics = StatisticsUtil.statisticsOf(x);
-            private final Statistics yStatistics = StatisticsUtil.statisticsOf(y);
-            private final Statistics zStatistics = StatisticsUtil.statisticsOf(z);
+            private final LazyStatistics xStatistics = new LazyStatistics(x);
+            private final LazyStatistics yStatistics = new LazyStatistics(y);
+            private final LazyStatistics zStatistics = new LazyStatistics(z);
 
             @Override
             public ListNumber getXValues() {
@@ -49,17 +48,17 @@ public class Point3DWithLabelDatasets {
 
             @Override
             public Statistics getXStatistics() {
-                return xStatistics;
+                return xStatistics.getStatistics();
             }
 
             @Override
             public Statistics getYStatistics() {
-                return yStatistics;
+                return yStatistics.getStatistics();
             }
 
             @Override
             public Statistics getZStatistics() {
-                return zStatistics;
+                return zStatistics.getStatistics();
             }
 
             @Override
@@ -5,9 +5,29 @@
 package org.epics.graphene;
 
 /**
+ * The strategy used to reduce the number of points of a line before drawing it.
  *
  * @author carcassi
  */
 public enum ReductionScheme {
-    NONE, FIRST_MAX_MIN_LAST;
+    
+    /**
+     * All the points are drawn.
+     */
+    NONE,
+    
+    /**
+     * For each pixel column, only the first, maximum, minimum and last
+     * values are drawn.
+     */
+    FIRST_MAX_MIN_LAST,
+    
+    /**
+     * Largest-Triangle-Three-Buckets: the data is divided in a number of buckets
+     * proportional to the width of the plot, and from each bucket only the point
+     * that forms the largest triangle with its neighbors is drawn. This keeps
+     * the visual peaks while the number of points drawn only depends on the
+     * size of the plot.
+     */
+    LARGEST_TRIANGLE_THREE_BUCKETS;
 }
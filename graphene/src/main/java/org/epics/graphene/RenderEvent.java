@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+
+/**
+ * A timed operation of the rendering pipeline (drawing, data reduction,
+ * binning), as reported by {@link RenderEvents}.
+ *
+ * @author carcassi
+ */
+public final class RenderEvent {
+    
+    private final String name;
+    private final Timestamp start;
+    private final TimeDuration duration;
+    private final int datasetSize;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final String reduction;
+
+    RenderEvent(String name, Timestamp start, TimeDuration duration, int datasetSize, int imageWidth, int imageHeight, String reduction) {
+        this.name = name;
+        this.start = start;
+        this.duration = duration;
+        this.datasetSize = datasetSize;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.reduction = reduction;
+    }
+
+    /**
+     * The name of the operation (e.g. drawValueExplicitLine).
+     * 
+     * @return the operation name; never null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The wall-clock time at which the operation started, so that the event
+     * can be correlated with other events (e.g. garbage collection).
+     * 
+     * @return the start time; never null
+     */
+    public Timestamp getStart() {
+        return start;
+    }
+
+    /**
+     * The time spent in the operation.
+     * 
+     * @return the duration; never null
+     */
+    public TimeDuration getDuration() {
+        return duration;
+    }
+
+    /**
+     * The number of elements in the data processed by the operation.
+     * 
+     * @return the dataset size
+     */
+    public int getDatasetSize() {
+        return datasetSize;
+    }
+
+    /**
+     * The width of the image drawn by the operation.
+     * 
+     * @return the image width; 0 if the operation does not draw
+     */
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    /**
+     * The height of the image drawn by the operation.
+     * 
+     * @return the image height; 0 if the operation does not draw
+     */
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    /**
+     * The reduction scheme used by the operation.
+     * 
+     * @return the name of the reduction; null if no reduction is used
+     */
+    public String getReduction() {
+        return reduction;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[" + datasetSize + " elements, " + imageWidth + "x" + imageHeight
+                + ", reduction " + reduction + ", " + duration.toSeconds() * 1000 + " ms]";
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+
+/**
+ * Reports the expensive operations of the whole library (drawing the data,
+ * binning, reading files) to a single listener, so that they can be
+ * recorded together with the other events of the process.
+ * <p>
+ * This is meant to feed an event recorder: an application running on
+ * a virtual machine with Java Flight Recorder can forward each
+ * {@link RenderEvent} to its own event class. The library itself does
+ * not depend on it. When no listener is set, an operation costs one
+ * read of a volatile field, and the clock is not read.
+ *
+ * @author carcassi
+ */
+public class RenderEvents {
+    
+    /**
+     * Receives the events. It is called on the thread that did the
+     * operation, right after it is done: it should be quick and thread-safe.
+     */
+    public interface Listener {
+        
+        /**
+         * Called when an operation completes.
+         * 
+         * @param event the operation that was completed
+         */
+        public void eventCompleted(RenderEvent event);
+    }
+    
+    private static volatile Listener listener;
+
+    private RenderEvents() {
+        // Prevent instances
+    }
+
+    /**
+     * The listener that receives all events.
+     * 
+     * @return the listener; null if the events are not reported
+     */
+    public static Listener getListener() {
+        return listener;
+    }
+
+    /**
+     * Changes the listener that receives all events.
+     * 
+     * @param listener the new listener; null to stop reporting the events
+     */
+    public static void setListener(Listener listener) {
+        RenderEvents.listener = listener;
+    }
+    
+    /**
+     * Marks the start of an operation.
+     * 
+     * @return the start time, to be passed to {@link #end(java.lang.String, long, int, int, int, java.lang.String) }
+     */
+    public static long start() {
+        if (listener == null) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+    
+    /**
+     * Marks the end of an operation, and reports it to the listener.
+     * 
+     * @param name the name of the operation
+     * @param start the value returned by {@link #start() }
+     * @param datasetSize the number of elements processed
+     * @param imageWidth the width of the image drawn; 0 if not drawing
+     * @param imageHeight the height of the image drawn; 0 if not drawing
+     * @param reduction the name of the reduction scheme used (e.g. the name of
+     * a {@link ReductionScheme} or {@link CellReductionScheme}); can be null
+     */
+    public static void end(String name, long start, int datasetSize, int imageWidth, int imageHeight, String reduction) {
+        Listener currentListener = listener;
+        // The listener may have been set during the operation
+        if (currentListener == null || start == 0) {
+            return;
+        }
+        TimeDuration duration = TimeDuration.ofNanos(System.nanoTime() - start);
+        RenderEvent event = new RenderEvent(name, Timestamp.now().minus(duration), duration,
+                datasetSize, imageWidth, imageHeight, reduction);
+        currentListener.eventCompleted(event);
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * Receives the timings of each phase of a draw, so that the performance of
+ * a renderer can be monitored while it runs.
+ * <p>
+ * The callbacks are called on the thread that draws, while drawing:
+ * they should be quick. A phase may be reported more than once for the
+ * same draw (e.g. once for each line), in which case the durations add up.
+ * When no listener is set, the renderers do not read the clock.
+ *
+ * @author carcassi
+ */
+public interface RenderListener {
+    
+    /**
+     * Called at the end of each phase.
+     * 
+     * @param phase the phase that was completed
+     * @param durationNanos the time spent in the phase, in nanoseconds
+     */
+    public void phaseCompleted(RenderPhase phase, long durationNanos);
+    
+    /**
+     * Called after each line is drawn.
+     * 
+     * @param pointsIn the number of points in the data of the line
+     * @param pointsDrawn the number of points in the path, after the data reduction
+     */
+    public void lineDrawn(int pointsIn, int pointsDrawn);
+}
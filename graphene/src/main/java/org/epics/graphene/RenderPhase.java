@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * The phases of a draw, as reported to a {@link RenderListener}.
+ *
+ * @author carcassi
+ */
+public enum RenderPhase {
+    
+    /**
+     * The calculation of the plot ranges from the data.
+     */
+    RANGES,
+    
+    /**
+     * The calculation of the references and the measurement of their labels.
+     */
+    LABELS,
+    
+    /**
+     * The calculation of the graph area and of the reference coordinates.
+     */
+    LAYOUT,
+    
+    /**
+     * The drawing of the background, reference lines and labels.
+     */
+    BACKGROUND,
+    
+    /**
+     * The scaling of the data to the graph area, including the data reduction.
+     */
+    DATA_REDUCTION,
+    
+    /**
+     * The construction of the path for the line.
+     */
+    PATH,
+    
+    /**
+     * The stroke of the path on the image.
+     */
+    STROKE;
+}
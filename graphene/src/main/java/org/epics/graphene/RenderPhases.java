@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * Reports the phases of a draw to a {@link RenderListener}. When there is no
+ * listener, nothing is reported and the clock is not read.
+ *
+ * @author carcassi
+ */
+final class RenderPhases {
+
+    private RenderPhases() {
+        // Prevent instances
+    }
+
+    /**
+     * Marks the start of a phase of the draw.
+     *
+     * @param listener the listener; can be null
+     * @return the start time, to be passed to {@link #end(org.epics.graphene.RenderListener, org.epics.graphene.RenderPhase, long) }
+     */
+    static long start(RenderListener listener) {
+        if (listener == null) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a phase of the draw, and reports it to the listener.
+     *
+     * @param listener the listener; can be null
+     * @param phase the phase that was completed
+     * @param start the value returned by {@link #start(org.epics.graphene.RenderListener) }
+     * @return the end time, which can be used as the start of the next phase
+     */
+    static long end(RenderListener listener, RenderPhase phase, long start) {
+        if (listener == null) {
+            return 0;
+        }
+        long end = System.nanoTime();
+        listener.phaseCompleted(phase, end - start);
+        return end;
+    }
+
+    /**
+     * Reports a line that was drawn to the listener.
+     *
+     * @param listener the listener; can be null
+     * @param pointsIn the number of points in the data of the line
+     * @param pointsDrawn the number of points in the path, after the data reduction
+     */
+    static void lineDrawn(RenderListener listener, int pointsIn, int pointsDrawn) {
+        if (listener != null) {
+            listener.lineDrawn(pointsIn, pointsDrawn);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * The points of a line scaled to the graph area, ready to be drawn.
+ * The points are in the arrays from start (included) to end (excluded).
+ * <p>
+ * The same instance can be reused across draws, so that the arrays
+ * are only reallocated when they are too small.
+ *
+ * @author carcassi
+ */
+final class ScaledData {
+    double[] scaledX;
+    double[] scaledY;
+    int start;
+    int end;
+
+    /**
+     * Empties the structure, making sure it can hold the given number
+     * of points.
+     *
+     * @param size the number of points
+     */
+    void prepare(int size) {
+        if (scaledX == null || scaledX.length < size) {
+            scaledX = new double[size];
+            scaledY = new double[size];
+        }
+        start = 0;
+        end = 0;
+    }
+
+    /**
+     * Releases the arrays.
+     */
+    void clear() {
+        scaledX = null;
+        scaledY = null;
+        start = 0;
+        end = 0;
+    }
+}
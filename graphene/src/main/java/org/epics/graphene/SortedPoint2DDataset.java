@@ -0,0 +1,27 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+/**
+ * A {@link Point2DDataset} that can tell whether its x values are sorted.
+ * <p>
+ * Renderers that need the points ordered by x (e.g. to draw a line)
+ * use the values directly when the dataset declares them sorted, instead
+ * of sorting them at each draw. Datasets that do not implement this
+ * interface are sorted by the renderers as before.
+ *
+ * @author carcassi
+ */
+public interface SortedPoint2DDataset extends Point2DDataset {
+    
+    /**
+     * Whether the x values are sorted in ascending order.
+     * <p>
+     * If it returns false, the values may or may not be sorted.
+     * 
+     * @return true if the x values are known to be sorted
+     */
+    public boolean isXSorted();
+}
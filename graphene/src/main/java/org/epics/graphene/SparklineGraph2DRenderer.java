@@ -91,7 +91,14 @@ public class SparklineGraph2DRenderer extends Graph2DRenderer<SparklineGraph2DRe
      */
     public static java.util.List<InterpolationScheme> supportedInterpolationScheme = Arrays.asList(InterpolationScheme.NEAREST_NEIGHBOR, InterpolationScheme.LINEAR, InterpolationScheme.CUBIC);
 
+    /**
+     * The set of data reduction schemes that are supported by the <code>SparklineGraph2DRenderer</code>.
+     * The reduction schemes supported are <code>FIRST_MAX_MIN_LAST</code>, <code>LARGEST_TRIANGLE_THREE_BUCKETS</code> and <code>NONE</code>.
+     */
+    public static java.util.List<ReductionScheme> supportedReductionScheme = Arrays.asList(ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS, ReductionScheme.NONE);
+
     private InterpolationScheme interpolation = InterpolationScheme.LINEAR;
+    private ReductionScheme reduction = ReductionScheme.FIRST_MAX_MIN_LAST;
 
     
     //DRAWING FUNCTIONS
@@ -134,14 +141,22 @@ public class SparklineGraph2DRenderer extends Graph2DRenderer<SparklineGraph2DRe
         g.setColor(Color.BLACK);        
   
         //Calculates data values
-        SortedListView xValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
-        ListNumber yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), xValues.getIndexes());        
+        ListNumber xValues;
+        ListNumber yValues;
+        if (Point2DDatasets.isXSorted(data)) {
+            xValues = data.getXValues();
+            yValues = data.getYValues();
+        } else {
+            SortedListView sortedXValues = org.epics.util.array.ListNumbers.sortedView(data.getXValues());
+            xValues = sortedXValues;
+            yValues = org.epics.util.array.ListNumbers.sortedView(data.getYValues(), sortedXValues.getIndexes());
+        }
         setClip(g);
         
         //Draws Line  
         g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_DEFAULT);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);        
-        drawValueExplicitLine(xValues, yValues, interpolation, ReductionScheme.FIRST_MAX_MIN_LAST);
+        drawValueExplicitLine(xValues, yValues, interpolation, reduction);
         
         //Draws a circle at the max, min, and last value
         if(drawCircles){
@@ -283,6 +298,9 @@ public class SparklineGraph2DRenderer extends Graph2DRenderer<SparklineGraph2DRe
         if (update.getInterpolation() != null) {
             interpolation = update.getInterpolation();
         } 
+        if (update.getDataReduction() != null) {
+            reduction = update.getDataReduction();
+        }
         if (update.getAspectRatio() != null){
             aspectRatio = update.getAspectRatio();
         }
@@ -305,6 +323,14 @@ public class SparklineGraph2DRenderer extends Graph2DRenderer<SparklineGraph2DRe
         return interpolation;
     }  
     
+    /**
+     * The current data reduction used for the line.
+     * @return current data reduction scheme of line
+     */
+    public ReductionScheme getDataReduction() {
+        return reduction;
+    }
+    
     /**
      * The index corresponding to the maximum y-value.
      * If there are multiple maximums, the greatest index is returned.
@@ -18,6 +18,7 @@ import java.awt.Color;
  *      <li>Size of the circles drawn at the important data points</li>
  *      <li>Whether to draw circles at the important data points</li>
  *      <li>Interpolation scheme used in drawing the sparkline line</li>
+ *      <li>Data reduction scheme used in drawing the sparkline line</li>
  *      <li>Aspect ratio to be maintained in the graph area</li>
  * </ul>
  * 
@@ -32,6 +33,7 @@ public class SparklineGraph2DRendererUpdate extends Graph2DRendererUpdate<Sparkl
     private Boolean drawCircles;                                                //Option to not draw circles
     
     private InterpolationScheme interpolation;                                  //Data interpolation
+    private ReductionScheme reduction;                                          //Data reduction
     private Double aspectRatio;                                                 //x:y ratio
     
     /**
@@ -100,6 +102,22 @@ public class SparklineGraph2DRendererUpdate extends Graph2DRendererUpdate<Sparkl
         return self();
     }    
     
+    /**
+     * Sets the data reduction scheme of the line.
+     * @param scheme new data reduction scheme
+     * @return this
+     */
+    public SparklineGraph2DRendererUpdate dataReduction(ReductionScheme scheme) {
+        if (scheme == null) {
+            throw new NullPointerException("Data reduction scheme can't be null");
+        }
+        if (!SparklineGraph2DRenderer.supportedReductionScheme.contains(scheme)) {
+            throw new IllegalArgumentException("Data reduction " + scheme + " is not supported");
+        }
+        this.reduction = scheme;
+        return self();
+    }
+    
     /**
      * Sets the width to height aspect ratio for the graph area.
      * @param ratio ratio between width and height that should be maintained 
@@ -158,6 +176,14 @@ public class SparklineGraph2DRendererUpdate extends Graph2DRendererUpdate<Sparkl
         return interpolation;
     }    
     
+    /**
+     * Gets the data reduction scheme of the line.
+     * @return data reduction scheme for the line
+     */
+    public ReductionScheme getDataReduction() {
+        return reduction;
+    }
+    
     /**
      * Gets the width to height aspect ratio of the graph area
      * @return width to height aspect ratio
@@ -165,4 +191,4 @@ public class SparklineGraph2DRendererUpdate extends Graph2DRendererUpdate<Sparkl
     public Double getAspectRatio(){
         return aspectRatio;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -20,7 +20,9 @@ import static org.epics.graphene.InterpolationScheme.NEAREST_NEIGHBOR;
 import org.epics.util.array.ArrayDouble;
 import org.epics.util.array.ListDouble;
 import org.epics.util.array.ListInt;
+import org.epics.util.array.ListMath;
 import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
 import org.epics.util.stats.Ranges;
 import org.epics.util.time.TimeInterval;
 import org.epics.util.time.Timestamp;
@@ -128,6 +130,9 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
     protected List<String> timeReferenceLabels;
     private int xLabelMaxHeight;
     private int yLabelMaxWidth;
+    
+    // Instrumentation; set by any thread, read by the one that draws
+    private volatile RenderListener renderListener;
 
     /**
      * The current strategy to calculate the x range for the graph.
@@ -182,6 +187,46 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
     public TimeInterval getPlotTimeInterval() {
         return plotTimeInterval;
     }
+    
+    /**
+     * The listener that receives the timings of each phase of the draw.
+     * 
+     * @return the listener; null if the draw is not instrumented
+     */
+    public RenderListener getRenderListener() {
+        return renderListener;
+    }
+
+    /**
+     * Changes the listener that receives the timings of each phase of the draw.
+     * It is called on the thread that draws, and it can be changed
+     * from any thread.
+     * 
+     * @param renderListener the new listener; null to stop the instrumentation
+     */
+    public void setRenderListener(RenderListener renderListener) {
+        this.renderListener = renderListener;
+    }
+    
+    /**
+     * Marks the start of a phase of the draw.
+     * 
+     * @return the start time, to be passed to {@link #phaseEnd(org.epics.graphene.RenderPhase, long) }
+     */
+    protected final long phaseStart() {
+        return RenderPhases.start(renderListener);
+    }
+    
+    /**
+     * Marks the end of a phase of the draw, and reports it to the listener.
+     * 
+     * @param phase the phase that was completed
+     * @param start the value returned by {@link #phaseStart() }
+     * @return the end time, which can be used as the start of the next phase
+     */
+    protected final long phaseEnd(RenderPhase phase, long start) {
+        return RenderPhases.end(renderListener, phase, start);
+    }
 
     /**
      * Applies the update to the renderer.
@@ -256,11 +301,24 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
     public abstract T newUpdate();
     
     protected void calculateRanges(Range valueRange, TimeInterval timeInterval) {
+        long start = phaseStart();
         aggregatedValueRange = aggregateRange(valueRange, aggregatedValueRange);
         aggregatedTimeInterval = aggregateTimeInterval(timeInterval, aggregatedTimeInterval);
         // TODO: should be update to use display range
         plotValueRange = axisRange.axisRange(valueRange, valueRange);
         plotTimeInterval = timeAxisRange.axisRange(timeInterval, aggregatedTimeInterval);
+        phaseEnd(RenderPhase.RANGES, start);
+    }
+    
+    /**
+     * Changes the time interval of the plot calculated by
+     * {@link #calculateRanges(org.epics.util.stats.Range, org.epics.util.time.TimeInterval) }.
+     * Must be called before the graph area is calculated.
+     * 
+     * @param plotTimeInterval the new time interval of the plot
+     */
+    protected void setPlotTimeInterval(TimeInterval plotTimeInterval) {
+        this.plotTimeInterval = plotTimeInterval;
     }
     
     protected void drawHorizontalReferenceLines() {
@@ -284,6 +342,7 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
     }
     
     protected void calculateGraphArea() {
+        long start = phaseStart();
         TimeAxis timeAxis = timeScale.references(plotTimeInterval, 2, Math.max(2, getImageWidth() / 100));
         ValueAxis valueAxis = valueScale.references(plotValueRange, 2, Math.max(2, getImageHeight()/ 60));
         timeReferenceLabels = timeAxis.getTickLabels();
@@ -305,6 +364,7 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
             yLabelWidths[i] = labelFontMetrics.stringWidth(valueReferenceLabels.get(i));
             yLabelMaxWidth = Math.max(yLabelMaxWidth, yLabelWidths[i]);
         }
+        start = phaseEnd(RenderPhase.LABELS, start);
         int areaFromLeft = leftMargin + yLabelMaxWidth + yLabelMargin;
 
         xPlotValueStart = 0.0;
@@ -333,16 +393,20 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
             yRefCoords[i] = scaledY(valueReferences.getDouble(i));
         }
         yReferenceCoords = new ArrayDouble(yRefCoords);
+        phaseEnd(RenderPhase.LAYOUT, start);
     }
 
     protected void drawBackground() {
+        long start = phaseStart();
         g.setColor(backgroundColor);
         g.fillRect(0, 0, getImageWidth(), getImageHeight());
+        phaseEnd(RenderPhase.BACKGROUND, start);
     }
     
     protected void drawGraphArea() {
         drawBackground();
         
+        long start = phaseStart();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         // When drawing the reference line, align them to the pixel
         drawVerticalReferenceLines();
@@ -350,18 +414,59 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
         
         drawYLabels();
         drawXLabels();
+        phaseEnd(RenderPhase.BACKGROUND, start);
     }
     
     protected void drawValueLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation) {
-        // Scale data and sort data
-        int dataCount = xValues.size();
-        double[] scaledX = new double[dataCount];
-        double[] scaledY = new double[dataCount];
-        for (int i = 0; i < scaledY.length; i++) {
-            scaledX[i] = scaledX(xValues.getDouble(i));
-            scaledY[i] = scaledY(yValues.getDouble(i));;
+        long start = phaseStart();
+        ScaledData scaledData = new ScaledData();
+        lineScaling.scaleNoReduction(xValues, yValues, 0, scaledData, null);
+        
+        drawScaledLine(xValues.size(), scaledData, interpolation, start);
+    }
+    
+    /**
+     * Draws a line given the interpolation and reduction schemes, the normalized
+     * time and the values. The function will scale the values. The normalized
+     * time must be sorted.
+     * 
+     * @param xValues the normalized time
+     * @param yValues the values
+     * @param interpolation the interpolation
+     * @param reduction the reduction
+     */
+    protected void drawValueLine(ListNumber xValues, ListNumber yValues, InterpolationScheme interpolation, ReductionScheme reduction) {
+        if (reduction == ReductionScheme.NONE) {
+            drawValueLine(xValues, yValues, interpolation);
+            return;
         }
         
+        long phaseStart = phaseStart();
+        int pointsIn = xValues.size();
+        
+        // Narrow the data to the plot, plus one point on each side
+        int start = ListNumbers.binarySearchValueOrLower(xValues, xPlotValueStart);
+        int end = ListNumbers.binarySearchValueOrHigher(xValues, xPlotValueEnd);
+        xValues = ListMath.limit(xValues, start, end + 1);
+        yValues = ListMath.limit(yValues, start, end + 1);
+        
+        ScaledData scaledData = new ScaledData();
+        lineScaling.scale(reduction, xValues, yValues, start, xPlotCoordWidth, null, scaledData, null);
+        drawScaledLine(pointsIn, scaledData, interpolation, phaseStart);
+    }
+    
+    /**
+     * Builds the path for the scaled data and draws it, reporting the phases
+     * that started at the given time.
+     */
+    private void drawScaledLine(int pointsIn, ScaledData scaledData, InterpolationScheme interpolation, long start) {
+        double[] scaledX = scaledData.scaledX;
+        double[] scaledY = scaledData.scaledY;
+        if (scaledData.end < scaledX.length) {
+            scaledX = Arrays.copyOf(scaledX, scaledData.end);
+            scaledY = Arrays.copyOf(scaledY, scaledData.end);
+        }
+        start = phaseEnd(RenderPhase.DATA_REDUCTION, start);
         Path2D path;
         switch (interpolation) {
             default:
@@ -378,9 +483,12 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
             case CUBIC:
                 path = cubicInterpolation(scaledX, scaledY);
         }
+        start = phaseEnd(RenderPhase.PATH, start);
 
         // Draw the line
         g.draw(path);
+        phaseEnd(RenderPhase.STROKE, start);
+        RenderPhases.lineDrawn(renderListener, pointsIn, scaledX.length);
     }
 
     private static Path2D.Double nearestNeighbour(double[] scaledX, double[] scaledY) {
@@ -676,7 +784,19 @@ public abstract class TemporalGraph2DRenderer<T extends TemporalGraph2DRendererU
         }
     }
     
+    private final LineScaling lineScaling = new LineScaling() {
+
+        @Override
+        double scaledX(double value) {
+            return TemporalGraph2DRenderer.this.scaledX(value);
+        }
 
+        @Override
+        double scaledY(double value) {
+            return TemporalGraph2DRenderer.this.scaledY(value);
+        }
+    };
+    
     protected final double scaledX(double value) {
         return timeScale.scaleNormalizedTime(value, xPlotCoordStart, xPlotCoordEnd);
     }
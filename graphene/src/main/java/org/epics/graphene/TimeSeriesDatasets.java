@@ -4,9 +4,10 @@
  */
 package org.epics.graphene;
 
-import org.epics.util.stats.StatisticsUtil;
 import org.epics.util.stats.Statistics;
+import java.util.AbstractList;
 import java.util.List;
+import org.epics.util.array.ArrayDouble;
 import org.epics.util.array.ListDouble;
 import org.epics.util.array.ListNumber;
 import org.epics.util.time.TimeInterval;
@@ -27,7 +28,7 @@ public class TimeSeriesDatasets {
     public static TimeSeriesDataset timeSeriesOf(final ListNumber values, final List<Timestamp> timestamps) {
         // TODO: make sure timestamps are monotinic
         final TimeInterval timeInterval = TimeInterval.between(timestamps.get(0), timestamps.get(timestamps.size() - 1));
-        final Statistics stats = StatisticsUtil.statisticsOf(values);
+        final LazyStatistics stats = new LazyStatistics(values);
         return new TimeSeriesDataset() {
 
             @Override
@@ -58,7 +59,7 @@ public class TimeSeriesDatasets {
 
             @Override
             public Statistics getStatistics() {
-                return stats;
+                return stats.getStatistics();
             }
 
             @Override
@@ -72,4 +73,107 @@ public class TimeSeriesDatasets {
             }
         };
     }
+    
+    /**
+     * Returns a TimeSeriesDataset with the time given as nanoseconds from the epoch
+     * (1970-01-01 00:00:00 UTC), which must be sorted.
+     * <p>
+     * No Timestamp is kept in memory: they are created only when requested from
+     * {@link TimeSeriesDataset#getTimestamps() }. The normalized time is
+     * calculated in a single pass on the array the first time it is requested,
+     * and then cached.
+     * 
+     * @param values - List of values associated with the times
+     * @param epochNanos - the times, in nanoseconds from the epoch; it is not copied
+     * and must not be modified
+     * @return TimeSeriesDataset
+     */
+    public static TimeSeriesDataset timeSeriesOf(final ListNumber values, final long[] epochNanos) {
+        if (values.size() != epochNanos.length) {
+            throw new IllegalArgumentException("Values and times must have the same size (" + values.size() + " != " + epochNanos.length + ")");
+        }
+        if (epochNanos.length == 0) {
+            throw new IllegalArgumentException("Dataset can't be empty");
+        }
+        return new EpochNanosTimeSeriesDataset(values, epochNanos);
+    }
+    
+    private static class EpochNanosTimeSeriesDataset implements TimeSeriesDataset {
+        private final ListNumber values;
+        private final long[] epochNanos;
+        private final TimeInterval timeInterval;
+        private final LazyStatistics stats;
+        private volatile ListNumber normalizedTime;
+
+        public EpochNanosTimeSeriesDataset(ListNumber values, long[] epochNanos) {
+            this.values = values;
+            this.epochNanos = epochNanos;
+            this.timeInterval = TimeInterval.between(timestampOf(epochNanos[0]), timestampOf(epochNanos[epochNanos.length - 1]));
+            this.stats = new LazyStatistics(values);
+        }
+
+        @Override
+        public ListNumber getValues() {
+            return values;
+        }
+
+        @Override
+        public List<Timestamp> getTimestamps() {
+            return new AbstractList<Timestamp>() {
+
+                @Override
+                public Timestamp get(int index) {
+                    return timestampOf(epochNanos[index]);
+                }
+
+                @Override
+                public int size() {
+                    return epochNanos.length;
+                }
+            };
+        }
+
+        @Override
+        public ListNumber getNormalizedTime() {
+            // Two threads may both calculate it, with the same result
+            ListNumber result = normalizedTime;
+            if (result == null) {
+                long start = epochNanos[0];
+                double scale = 1.0 / (epochNanos[epochNanos.length - 1] - start);
+                double[] normalized = new double[epochNanos.length];
+                for (int i = 0; i < normalized.length; i++) {
+                    normalized[i] = (epochNanos[i] - start) * scale;
+                }
+                result = new ArrayDouble(normalized);
+                normalizedTime = result;
+            }
+            return result;
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            return stats.getStatistics();
+        }
+
+        @Override
+        public TimeInterval getTimeInterval() {
+            return timeInterval;
+        }
+
+        @Override
+        public int getCount() {
+            return values.size();
+        }
+    }
+    
+    private static Timestamp timestampOf(long epochNanos) {
+        // Rounds towards negative infinity, so that nanoseconds are positive
+        long sec = epochNanos / 1000000000L;
+        int nanoSec = (int) (epochNanos % 1000000000L);
+        if (nanoSec < 0) {
+            sec--;
+            nanoSec += 1000000000;
+        }
+        return Timestamp.of(sec, nanoSec);
+    }
 }
@@ -0,0 +1,293 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import org.epics.graphene.Cell2DRowDataset;
+import org.epics.graphene.LazyStatistics;
+import org.epics.util.array.CollectionDouble;
+import org.epics.util.array.IteratorDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.util.stats.Ranges;
+import org.epics.util.stats.Statistics;
+
+/**
+ * Reads datasets from files of raw binary values, with no header.
+ *
+ * @author carcassi
+ */
+public class RawBinaryIO {
+
+    // A single mapping can't be larger than 2GB
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    /**
+     * Maps the given file in memory and returns it as a 2D dataset.
+     * The file contains the values of the cells one row after the other,
+     * so that the value of the cell (x, y) is the element y * xCount + x.
+     * <p>
+     * The file is not read: the operating system pages in the rows
+     * as they are accessed. The statistics are calculated, with a full
+     * pass on the file, the first time they are requested. The file
+     * must not be modified while the dataset is in use.
+     *
+     * @param file the file to map
+     * @param type the type of the elements: double.class, float.class or short.class
+     * @param order the byte order of the elements
+     * @param xBoundaries the boundaries of the cells along x
+     * @param yBoundaries the boundaries of the cells along y
+     * @return a new dataset backed by the file
+     * @throws IOException if the file can't be mapped
+     */
+    public static Cell2DRowDataset mapCell2D(File file, Class<?> type, ByteOrder order, ListNumber xBoundaries, ListNumber yBoundaries)
+    throws IOException {
+        return mapCell2D(file, type, order, xBoundaries, yBoundaries, MAX_CHUNK_BYTES);
+    }
+
+    static Cell2DRowDataset mapCell2D(File file, Class<?> type, ByteOrder order, ListNumber xBoundaries, ListNumber yBoundaries, long maxChunkBytes)
+    throws IOException {
+        int elementSize;
+        if (type == double.class) {
+            elementSize = 8;
+        } else if (type == float.class) {
+            elementSize = 4;
+        } else if (type == short.class) {
+            elementSize = 2;
+        } else {
+            throw new IllegalArgumentException("Type " + type + " is not supported");
+        }
+
+        int xCount = xBoundaries.size() - 1;
+        int yCount = yBoundaries.size() - 1;
+        if ((long) xCount * yCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many cells (" + xCount + " * " + yCount + ")");
+        }
+        long rowBytes = (long) xCount * elementSize;
+        if (rowBytes > maxChunkBytes) {
+            throw new IllegalArgumentException("Rows of " + rowBytes + " bytes can't be mapped");
+        }
+
+        // Each mapping contains a whole number of rows
+        int rowsPerChunk = (int) Math.min(yCount, maxChunkBytes / rowBytes);
+        int nChunks = (yCount + rowsPerChunk - 1) / rowsPerChunk;
+        ByteBuffer[] chunks = new ByteBuffer[nChunks];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            if (channel.size() < rowBytes * yCount) {
+                throw new IllegalArgumentException("File " + file + " has " + channel.size() + " bytes, expected " + (rowBytes * yCount));
+            }
+            for (int i = 0; i < nChunks; i++) {
+                int rows = Math.min(rowsPerChunk, yCount - i * rowsPerChunk);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, i * rowsPerChunk * rowBytes, rows * rowBytes).order(order);
+            }
+        }
+
+        if (type == double.class) {
+            return new MappedDoubleDataset(chunks, rowsPerChunk, xBoundaries, yBoundaries);
+        } else if (type == float.class) {
+            return new MappedFloatDataset(chunks, rowsPerChunk, xBoundaries, yBoundaries);
+        } else {
+            return new MappedShortDataset(chunks, rowsPerChunk, xBoundaries, yBoundaries);
+        }
+    }
+
+    /**
+     * Common part of the mapped datasets. Subclasses read the elements
+     * at an index within a chunk.
+     */
+    private static abstract class MappedCell2DDataset implements Cell2DRowDataset {
+        protected final int rowsPerChunk;
+        protected final int xCount;
+        private final int yCount;
+        private final ListNumber xBoundaries;
+        private final ListNumber yBoundaries;
+        private final Range xRange;
+        private final Range yRange;
+        private final LazyStatistics statistics;
+
+        public MappedCell2DDataset(int rowsPerChunk, ListNumber xBoundaries, ListNumber yBoundaries) {
+            this.rowsPerChunk = rowsPerChunk;
+            this.xBoundaries = xBoundaries;
+            this.yBoundaries = yBoundaries;
+            this.xCount = xBoundaries.size() - 1;
+            this.yCount = yBoundaries.size() - 1;
+            this.xRange = Ranges.range(xBoundaries.getDouble(0), xBoundaries.getDouble(xCount));
+            this.yRange = Ranges.range(yBoundaries.getDouble(0), yBoundaries.getDouble(yCount));
+            this.statistics = new LazyStatistics(new CollectionDouble() {
+
+                @Override
+                public IteratorDouble iterator() {
+                    return new IteratorDouble() {
+                        private final double[] row = new double[xCount];
+                        private int x = xCount;
+                        private int y = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return x < xCount || y + 1 < yCount;
+                        }
+
+                        @Override
+                        public double nextDouble() {
+                            // Reads the file one row at a time
+                            if (x == xCount) {
+                                y++;
+                                x = 0;
+                                getRow(y, row);
+                            }
+                            return row[x++];
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return xCount * yCount;
+                }
+            });
+        }
+
+        protected abstract double readValue(int chunk, int index);
+
+        protected abstract void readRow(int chunk, int index, double[] dest);
+
+        @Override
+        public double getValue(int x, int y) {
+            if (x < 0 || x >= xCount) {
+                throw new ArrayIndexOutOfBoundsException(x);
+            }
+            return readValue(y / rowsPerChunk, (y % rowsPerChunk) * xCount + x);
+        }
+
+        @Override
+        public void getRow(int y, double[] dest) {
+            readRow(y / rowsPerChunk, (y % rowsPerChunk) * xCount, dest);
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            return statistics.getStatistics();
+        }
+
+        @Override
+        public Range getDisplayRange() {
+            return getStatistics();
+        }
+
+        @Override
+        public ListNumber getXBoundaries() {
+            return xBoundaries;
+        }
+
+        @Override
+        public Range getXRange() {
+            return xRange;
+        }
+
+        @Override
+        public int getXCount() {
+            return xCount;
+        }
+
+        @Override
+        public ListNumber getYBoundaries() {
+            return yBoundaries;
+        }
+
+        @Override
+        public Range getYRange() {
+            return yRange;
+        }
+
+        @Override
+        public int getYCount() {
+            return yCount;
+        }
+    }
+
+    private static class MappedDoubleDataset extends MappedCell2DDataset {
+        private final DoubleBuffer[] chunks;
+
+        public MappedDoubleDataset(ByteBuffer[] bytes, int rowsPerChunk, ListNumber xBoundaries, ListNumber yBoundaries) {
+            super(rowsPerChunk, xBoundaries, yBoundaries);
+            chunks = new DoubleBuffer[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                chunks[i] = bytes[i].asDoubleBuffer();
+            }
+        }
+
+        @Override
+        protected double readValue(int chunk, int index) {
+            return chunks[chunk].get(index);
+        }
+
+        @Override
+        protected void readRow(int chunk, int index, double[] dest) {
+            // The position of the shared buffer can't be changed
+            DoubleBuffer buffer = chunks[chunk].duplicate();
+            buffer.position(index);
+            buffer.get(dest, 0, xCount);
+        }
+    }
+
+    private static class MappedFloatDataset extends MappedCell2DDataset {
+        private final FloatBuffer[] chunks;
+
+        public MappedFloatDataset(ByteBuffer[] bytes, int rowsPerChunk, ListNumber xBoundaries, ListNumber yBoundaries) {
+            super(rowsPerChunk, xBoundaries, yBoundaries);
+            chunks = new FloatBuffer[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                chunks[i] = bytes[i].asFloatBuffer();
+            }
+        }
+
+        @Override
+        protected double readValue(int chunk, int index) {
+            return chunks[chunk].get(index);
+        }
+
+        @Override
+        protected void readRow(int chunk, int index, double[] dest) {
+            FloatBuffer buffer = chunks[chunk];
+            for (int x = 0; x < xCount; x++) {
+                dest[x] = buffer.get(index + x);
+            }
+        }
+    }
+
+    private static class MappedShortDataset extends MappedCell2DDataset {
+        private final ShortBuffer[] chunks;
+
+        public MappedShortDataset(ByteBuffer[] bytes, int rowsPerChunk, ListNumber xBoundaries, ListNumber yBoundaries) {
+            super(rowsPerChunk, xBoundaries, yBoundaries);
+            chunks = new ShortBuffer[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                chunks[i] = bytes[i].asShortBuffer();
+            }
+        }
+
+        @Override
+        protected double readValue(int chunk, int index) {
+            return chunks[chunk].get(index);
+        }
+
+        @Override
+        protected void readRow(int chunk, int index, double[] dest) {
+            ShortBuffer buffer = chunks[chunk];
+            for (int x = 0; x < xCount; x++) {
+                dest[x] = buffer.get(index + x);
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ package org.epics.graphene;
 
 import org.epics.util.stats.Range;
 import org.epics.util.stats.Ranges;
+import org.epics.util.time.TimeDuration;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
@@ -62,6 +63,79 @@ public class AxisRangesTest {
         assertThat(range.getMaximum(), equalTo((Number) 15.0));
     }
 
+    @Test
+    public void hysteresis1() {
+        AxisRange axisRange = AxisRanges.hysteresis(0.5, TimeDuration.ofSeconds(10));
+        assertThat(axisRange, equalTo(AxisRanges.hysteresis(0.5, TimeDuration.ofSeconds(10))));
+        AxisRanges.HysteresisInstance instance = (AxisRanges.HysteresisInstance) axisRange.createInstance();
+        long second = 1000000000L;
+        
+        // Rounded to nice values
+        Range range = instance.axisRange(Ranges.range(3.1, 4.87), null, 0);
+        assertThat(range.getMinimum().doubleValue(), closeTo(3.0, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(5.0, 1e-9));
+        
+        // Small jitter keeps the same range
+        assertThat(instance.axisRange(Ranges.range(3.2, 4.85), null, second), sameInstance(range));
+        
+        // Expands right away, keeping the other side
+        range = instance.axisRange(Ranges.range(3.2, 5.3), null, 2 * second);
+        assertThat(range.getMinimum().doubleValue(), closeTo(3.0, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(5.5, 1e-9));
+        
+        // Shrinks after the decay time...
+        Range smallerRange = Ranges.range(3.6, 5.2);
+        assertThat(instance.axisRange(smallerRange, null, 3 * second), sameInstance(range));
+        assertThat(instance.axisRange(smallerRange, null, 11 * second), sameInstance(range));
+        range = instance.axisRange(smallerRange, null, 12 * second);
+        assertThat(range.getMinimum().doubleValue(), closeTo(3.6, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(5.2, 1e-9));
+        
+        // ...or right away if less than half is used
+        range = instance.axisRange(Ranges.range(4.0, 4.5), null, 13 * second);
+        assertThat(range.getMinimum().doubleValue(), closeTo(4.0, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(4.5, 1e-9));
+    }
+
+    @Test
+    public void hysteresis2() {
+        AxisRanges.HysteresisInstance instance = (AxisRanges.HysteresisInstance) AxisRanges.hysteresis(0.5, TimeDuration.ofSeconds(10)).createInstance();
+        long second = 1000000000L;
+        Range range = instance.axisRange(Ranges.range(3.1, 5.4), null, 0);
+        assertThat(range.getMinimum().doubleValue(), closeTo(3.0, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(5.5, 1e-9));
+        
+        // Jitter across a nice boundary: each frame alone would fit
+        // a smaller range, but together they still need the current one
+        for (int i = 1; i <= 30; i++) {
+            Range dataRange = i % 2 == 0 ? Ranges.range(3.6, 5.3) : Ranges.range(3.1, 4.7);
+            assertThat("Frame " + i, instance.axisRange(dataRange, null, i * second), sameInstance(range));
+        }
+        
+        // Shrinks to what fits the data seen during the decay time,
+        // the current range being last needed at frame 30
+        for (int i = 31; i < 40; i++) {
+            assertThat(instance.axisRange(Ranges.range(3.6, 5.3), null, i * second), sameInstance(range));
+            assertThat(instance.axisRange(Ranges.range(3.7, 5.2), null, i * second), sameInstance(range));
+        }
+        range = instance.axisRange(Ranges.range(3.7, 5.2), null, 40 * second);
+        assertThat(range.getMinimum().doubleValue(), closeTo(3.6, 1e-9));
+        assertThat(range.getMaximum().doubleValue(), closeTo(5.4, 1e-9));
+    }
+
+    @Test
+    public void niceRange() {
+        Range range = AxisRanges.niceRange(Ranges.range(-0.13, 87.2));
+        assertThat(range.getMinimum().doubleValue(), equalTo(-10.0));
+        assertThat(range.getMaximum().doubleValue(), equalTo(90.0));
+        range = AxisRanges.niceRange(Ranges.range(1002.0, 1020.0));
+        assertThat(range.getMinimum().doubleValue(), equalTo(1002.0));
+        assertThat(range.getMaximum().doubleValue(), equalTo(1020.0));
+        range = AxisRanges.niceRange(Ranges.range(1001.0, 1020.0));
+        assertThat(range.getMinimum().doubleValue(), equalTo(1000.0));
+        assertThat(range.getMaximum().doubleValue(), equalTo(1020.0));
+    }
+
     @Test
     public void auto2() {
         AxisRange axisRange = AxisRanges.auto();
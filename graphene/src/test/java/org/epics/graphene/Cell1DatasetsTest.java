@@ -44,6 +44,18 @@ public class Cell1DatasetsTest {
         assertThat(dataset.getXBoundaries().getDouble(5), equalTo(10.0));
     }
     
+    @Test
+    public void linearRangeFloat() {
+        Cell1DDataset dataset = Cell1DDatasets.linearRange(new float[] {5, 3, 7, -1, 2}, 0, 10);
+        
+        assertThat(dataset.getXCount(), equalTo(5));
+        assertThat(dataset.getStatistics().getAverage(), equalTo(3.2));
+        assertThat(dataset.getStatistics().getMinimum().doubleValue(), equalTo(-1.0));
+        assertThat(dataset.getStatistics().getMaximum().doubleValue(), equalTo(7.0));
+        assertThat(dataset.getXBoundaries().getDouble(1), equalTo(2.0));
+        assertThat(dataset.getValue(2), equalTo(7.0));
+    }
+    
     @Test
     public void datasetFrom1() {
         ListNumber values = new ArrayDouble(5, 3, 7, -1, 2);
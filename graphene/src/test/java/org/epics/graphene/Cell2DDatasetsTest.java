@@ -95,6 +95,64 @@ public class Cell2DDatasetsTest {
         assertThat(dataset.getValue(1, 2), equalTo(2.0));
     }
 
+    @Test
+    public void datasetFromDoubleArray() {
+        Cell2DRowDataset dataset = Cell2DDatasets.datasetFrom(new double[] {5, 3, 7, -1, 2, 2},
+                new ArrayDouble(-1, 0, 1), new ArrayDouble(0, 1, 2, 3));
+
+        assertThat(dataset.getXCount(), equalTo(2));
+        assertThat(dataset.getYCount(), equalTo(3));
+        assertThat(dataset.getStatistics().getAverage(), equalTo(3.0));
+        assertThat(dataset.getStatistics().getMinimum(), equalTo((Number) (-1.0)));
+        assertThat(dataset.getStatistics().getMaximum(), equalTo((Number) 7.0));
+        assertThat(dataset.getValue(1, 1), equalTo(-1.0));
+        double[] row = new double[2];
+        dataset.getRow(1, row);
+        assertThat(row, equalTo(new double[] {7, -1}));
+        dataset.getRow(2, row);
+        assertThat(row, equalTo(new double[] {2, 2}));
+    }
+
+    @Test
+    public void datasetFromFloatArray() {
+        Cell2DRowDataset dataset = Cell2DDatasets.datasetFrom(new float[] {5, 3, 7, -1, 2, 2},
+                new ArrayDouble(-1, 0, 1), new ArrayDouble(0, 1, 2, 3));
+
+        assertThat(dataset.getXCount(), equalTo(2));
+        assertThat(dataset.getYCount(), equalTo(3));
+        assertThat(dataset.getStatistics().getAverage(), equalTo(3.0));
+        assertThat(dataset.getStatistics().getMinimum().doubleValue(), equalTo(-1.0));
+        assertThat(dataset.getStatistics().getMaximum().doubleValue(), equalTo(7.0));
+        assertThat(dataset.getValue(0, 0), equalTo(5.0));
+        double[] row = new double[2];
+        dataset.getRow(0, row);
+        assertThat(row, equalTo(new double[] {5, 3}));
+    }
+
+    @Test
+    public void linearRangeFromFloatArray() {
+        Cell2DRowDataset dataset = Cell2DDatasets.linearRange(new float[] {1, 2, 3, 4, 5, 6},
+                Ranges.range(0, 3), 3, Ranges.range(0, 2), 2);
+
+        assertThat(dataset.getStatistics().getMaximum().doubleValue(), equalTo(6.0));
+        assertThat(dataset.getValue(2, 0), equalTo(3.0));
+        double[] row = new double[3];
+        dataset.getRow(1, row);
+        assertThat(row, equalTo(new double[] {4, 5, 6}));
+    }
+
+    @Test
+    public void linearRangeFromArrayDouble() {
+        Cell2DDataset dataset = Cell2DDatasets.linearRange(new ArrayDouble(1, 2, 3, 4, 5, 6),
+                Ranges.range(0, 3), 3, Ranges.range(0, 2), 2);
+
+        assertThat(dataset, instanceOf(Cell2DRowDataset.class));
+        assertThat(dataset.getXRange().getMaximum().doubleValue(), equalTo(3.0));
+        double[] row = new double[3];
+        ((Cell2DRowDataset) dataset).getRow(1, row);
+        assertThat(row, equalTo(new double[] {4, 5, 6}));
+    }
+
     @Test
     public void datasetFromFunction2D() {
         Cell2DDataset dataset = Cell2DDatasets.datasetFrom(new Cell2DDatasets.Function2D() {
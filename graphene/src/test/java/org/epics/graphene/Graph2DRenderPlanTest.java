@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.epics.util.array.ArrayDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class Graph2DRenderPlanTest {
+
+    public Graph2DRenderPlanTest() {
+    }
+
+    private static final Graph2DRenderPlan.RendererFactory<LineGraph2DRenderer> factory =
+            new Graph2DRenderPlan.RendererFactory<LineGraph2DRenderer>() {
+
+        @Override
+        public LineGraph2DRenderer newRenderer() {
+            return new LineGraph2DRenderer(300, 200);
+        }
+    };
+
+    @Test
+    public void update1() {
+        Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan = new Graph2DRenderPlan<>(factory);
+        Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> newPlan =
+                plan.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.CUBIC))
+                .update(new LineGraph2DRendererUpdate().imageWidth(400));
+        assertThat(plan.getUpdates().size(), equalTo(0));
+        assertThat(newPlan.getUpdates().size(), equalTo(2));
+        assertThat(plan.newRenderer().getInterpolation(), equalTo(InterpolationScheme.NEAREST_NEIGHBOR));
+        assertThat(newPlan.newRenderer().getInterpolation(), equalTo(InterpolationScheme.CUBIC));
+        assertThat(newPlan.newRenderer().getImageWidth(), equalTo(400));
+        assertThat(newPlan.renderer(), sameInstance(newPlan.renderer()));
+        assertThat(newPlan.renderer(), not(sameInstance(newPlan.newRenderer())));
+    }
+
+    @Test
+    public void update3() {
+        // Updating the plan does not create renderers
+        final AtomicInteger created = new AtomicInteger();
+        Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan = new Graph2DRenderPlan<>(
+                new Graph2DRenderPlan.RendererFactory<LineGraph2DRenderer>() {
+
+            @Override
+            public LineGraph2DRenderer newRenderer() {
+                created.incrementAndGet();
+                return new LineGraph2DRenderer(300, 200);
+            }
+        });
+        plan = plan.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.CUBIC))
+                .update(new LineGraph2DRendererUpdate().imageWidth(400));
+        assertThat(created.get(), equalTo(0));
+        plan.renderer();
+        plan.renderer();
+        assertThat(created.get(), equalTo(1));
+    }
+
+    @Test
+    public void renderer1() throws Exception {
+        // The renderer of a discarded plan is released
+        Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan = new Graph2DRenderPlan<>(factory);
+        WeakReference<LineGraph2DRenderer> renderer = new WeakReference<>(plan.renderer());
+        plan = plan.update(new LineGraph2DRendererUpdate().imageWidth(400));
+        for (int i = 0; i < 50 && renderer.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            // Accessing the cache removes the entries of the collected plans
+            plan.renderer();
+        }
+        assertThat(renderer.get(), nullValue());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void update2() {
+        Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan = new Graph2DRenderPlan<>(factory);
+        plan.update(null);
+    }
+
+    @Test
+    public void concurrentDraw() throws Exception {
+        final Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan = new Graph2DRenderPlan<>(factory)
+                .update(new LineGraph2DRendererUpdate().yAxisRange(AxisRanges.fixed(0, 10)));
+        final List<Point2DDataset> datasets = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            datasets.add(Point2DDatasets.lineData(new ArrayDouble(i, 3, 9 - i, 2, 5, i % 3)));
+        }
+
+        // Each thread draws all datasets with its own renderer
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<BufferedImage>>> results = new ArrayList<>();
+            for (int n = 0; n < 4; n++) {
+                results.add(executor.submit(new Callable<List<BufferedImage>>() {
+
+                    @Override
+                    public List<BufferedImage> call() throws Exception {
+                        List<BufferedImage> images = new ArrayList<>();
+                        for (Point2DDataset data : datasets) {
+                            BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+                            plan.renderer().draw(image.createGraphics(), data);
+                            images.add(image);
+                        }
+                        return images;
+                    }
+                }));
+            }
+
+            for (int i = 0; i < datasets.size(); i++) {
+                BufferedImage expected = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+                plan.newRenderer().draw(expected.createGraphics(), datasets.get(i));
+                for (Future<List<BufferedImage>> result : results) {
+                    BufferedImage image = result.get().get(i);
+                    for (int x = 0; x < expected.getWidth(); x++) {
+                        for (int y = 0; y < expected.getHeight(); y++) {
+                            assertThat("Pixel " + x + ", " + y, image.getRGB(x, y), equalTo(expected.getRGB(x, y)));
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
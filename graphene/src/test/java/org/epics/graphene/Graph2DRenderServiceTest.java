@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.epics.util.array.ArrayDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class Graph2DRenderServiceTest {
+
+    public Graph2DRenderServiceTest() {
+    }
+
+    private static final Graph2DRenderPlan<LineGraph2DRenderer, LineGraph2DRendererUpdate> plan =
+            new Graph2DRenderPlan<>(new Graph2DRenderPlan.RendererFactory<LineGraph2DRenderer>() {
+
+        @Override
+        public LineGraph2DRenderer newRenderer() {
+            return new LineGraph2DRenderer(300, 200);
+        }
+    }).update(new LineGraph2DRendererUpdate().yAxisRange(AxisRanges.fixed(0, 10)));
+
+    private static final Graph2DRenderService.JobDrawer<LineGraph2DRenderer, Point2DDataset, BufferedImage> copyImage =
+            new Graph2DRenderService.JobDrawer<LineGraph2DRenderer, Point2DDataset, BufferedImage>() {
+
+        @Override
+        public BufferedImage draw(LineGraph2DRenderer renderer, GraphBuffer buffer, Point2DDataset dataset) {
+            renderer.draw(buffer.getGraphicsContext(), dataset);
+            BufferedImage image = new BufferedImage(buffer.getImage().getWidth(), buffer.getImage().getHeight(), buffer.getImage().getType());
+            image.setData(buffer.getImage().getData());
+            return image;
+        }
+    };
+
+    /**
+     * Waits for the start signal before drawing.
+     */
+    private static class BlockedDrawer implements Graph2DRenderService.JobDrawer<LineGraph2DRenderer, Object, Integer> {
+
+        private final CountDownLatch start = new CountDownLatch(1);
+        private final CountDownLatch running = new CountDownLatch(1);
+
+        @Override
+        public Integer draw(LineGraph2DRenderer renderer, GraphBuffer buffer, Object dataset) {
+            running.countDown();
+            try {
+                start.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return buffer.getImage().getWidth();
+        }
+    }
+
+    @Test
+    public void submit1() throws Exception {
+        Graph2DRenderService service = new Graph2DRenderService(4, 16);
+        try {
+            List<Point2DDataset> datasets = new ArrayList<>();
+            List<Future<BufferedImage>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Point2DDataset data = Point2DDatasets.lineData(new ArrayDouble(i % 8, 3, 9 - i % 8, 2, 5, i % 3));
+                datasets.add(data);
+                results.add(service.submit(plan, data, copyImage));
+            }
+
+            // Same images as drawn by a renderer of their own
+            for (int i = 0; i < datasets.size(); i++) {
+                BufferedImage expected = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+                plan.newRenderer().draw(expected.createGraphics(), datasets.get(i));
+                BufferedImage image = results.get(i).get(5, TimeUnit.SECONDS);
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    for (int y = 0; y < expected.getHeight(); y++) {
+                        assertThat("Pixel " + x + ", " + y, image.getRGB(x, y), equalTo(expected.getRGB(x, y)));
+                    }
+                }
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void submit2() throws Exception {
+        // Duplicate jobs in flight are drawn once
+        Graph2DRenderService service = new Graph2DRenderService(1, 4);
+        try {
+            BlockedDrawer drawer = new BlockedDrawer();
+            Object data1 = new Object();
+            Object data2 = new Object();
+            Future<Integer> result1 = service.submit(plan, data1, drawer);
+            assertThat(drawer.running.await(5, TimeUnit.SECONDS), equalTo(true));
+            Future<Integer> result2 = service.submit(plan, data2, drawer);
+            assertThat(service.submit(plan, data1, drawer), sameInstance(result1));
+            assertThat(service.submit(plan, data2, drawer), sameInstance(result2));
+            assertThat(service.getJobsInFlight(), equalTo(2));
+
+            drawer.start.countDown();
+            assertThat(result1.get(5, TimeUnit.SECONDS), equalTo(300));
+            assertThat(result2.get(5, TimeUnit.SECONDS), equalTo(300));
+
+            // Once done, the same job is drawn again
+            Future<Integer> result3 = service.submit(plan, data1, drawer);
+            assertThat(result3, not(sameInstance(result1)));
+            assertThat(result3.get(5, TimeUnit.SECONDS), equalTo(300));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void submit3() throws Exception {
+        // Jobs are rejected when the queue is full
+        Graph2DRenderService service = new Graph2DRenderService(1, 2);
+        try {
+            BlockedDrawer drawer = new BlockedDrawer();
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(service.submit(plan, 0, drawer));
+            assertThat(drawer.running.await(5, TimeUnit.SECONDS), equalTo(true));
+            results.add(service.submit(plan, 1, drawer));
+            results.add(service.submit(plan, 2, drawer));
+            try {
+                service.submit(plan, 3, drawer);
+                fail("Job should have been rejected");
+            } catch (RejectedExecutionException ex) {
+                // Expected
+            }
+            assertThat(service.getJobsInFlight(), equalTo(3));
+
+            drawer.start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS), equalTo(300));
+            }
+            // The rejected job can be submitted again
+            assertThat(service.submit(plan, 3, drawer).get(5, TimeUnit.SECONDS), equalTo(300));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new Graph2DRenderService(0, 4);
+    }
+}
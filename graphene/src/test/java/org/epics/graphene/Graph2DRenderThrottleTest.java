@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.time.TimeDuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class Graph2DRenderThrottleTest {
+
+    public Graph2DRenderThrottleTest() {
+    }
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void coalesce1() throws Exception {
+        final List<Point2DDataset> drawn = new CopyOnWriteArrayList<>();
+        final List<InterpolationScheme> interpolations = new CopyOnWriteArrayList<>();
+        final CountDownLatch lastDrawn = new CountDownLatch(1);
+        final Point2DDataset lastDataset = Point2DDatasets.lineData(new ArrayDouble(1, 2, 3));
+        Graph2DRenderThrottle<LineGraph2DRenderer, LineGraph2DRendererUpdate, Point2DDataset> throttle =
+                new Graph2DRenderThrottle<>(new LineGraph2DRenderer(300, 200),
+                new Graph2DRenderThrottle.FrameDrawer<LineGraph2DRenderer, Point2DDataset>() {
+
+            @Override
+            public void drawFrame(LineGraph2DRenderer renderer, Point2DDataset dataset) {
+                drawn.add(dataset);
+                interpolations.add(renderer.getInterpolation());
+                if (dataset == lastDataset) {
+                    lastDrawn.countDown();
+                }
+            }
+        }, scheduler, TimeDuration.ofMillis(100));
+
+        // Updates alone do not draw
+        throttle.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.CUBIC));
+        Thread.sleep(50);
+        assertThat(throttle.getFrameCount(), equalTo(0));
+
+        // A burst of datasets and updates is drawn in a few frames
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            throttle.setDataset(Point2DDatasets.lineData(new ArrayDouble(i, 0, i)));
+            throttle.update(new LineGraph2DRendererUpdate().interpolation(i % 2 == 0 ? InterpolationScheme.LINEAR : InterpolationScheme.NEAREST_NEIGHBOR));
+        }
+        throttle.setDataset(lastDataset);
+        throttle.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.CUBIC));
+        assertThat(lastDrawn.await(2, TimeUnit.SECONDS), equalTo(true));
+        double elapsedPeriods = (System.nanoTime() - start) / 100000000.0;
+        assertThat(drawn.size(), lessThanOrEqualTo((int) elapsedPeriods + 1));
+
+        // The last frame has the last dataset and the last value of each field
+        assertThat(drawn.get(drawn.size() - 1), sameInstance(lastDataset));
+        assertThat(interpolations.get(interpolations.size() - 1), equalTo(InterpolationScheme.CUBIC));
+        
+        // The frame is counted once the drawer returns
+        scheduler.shutdown();
+        assertThat(scheduler.awaitTermination(1, TimeUnit.SECONDS), equalTo(true));
+        assertThat(throttle.getFrameCount(), equalTo(drawn.size()));
+    }
+
+    @Test
+    public void rejectedFrame() throws Exception {
+        // A frame rejected by the scheduler is scheduled again at the next change
+        final CountDownLatch drawn = new CountDownLatch(1);
+        final boolean[] reject = {true};
+        ScheduledThreadPoolExecutor rejectingScheduler = new ScheduledThreadPoolExecutor(1) {
+
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException("Rejected for the test");
+                }
+                return super.schedule(command, delay, unit);
+            }
+        };
+        try {
+            Graph2DRenderThrottle<LineGraph2DRenderer, LineGraph2DRendererUpdate, Point2DDataset> throttle =
+                    new Graph2DRenderThrottle<>(new LineGraph2DRenderer(300, 200),
+                    new Graph2DRenderThrottle.FrameDrawer<LineGraph2DRenderer, Point2DDataset>() {
+
+                @Override
+                public void drawFrame(LineGraph2DRenderer renderer, Point2DDataset dataset) {
+                    drawn.countDown();
+                }
+            }, rejectingScheduler, TimeDuration.ofMillis(10));
+            try {
+                throttle.setDataset(Point2DDatasets.lineData(new ArrayDouble(1, 2, 3)));
+                fail("The frame was not rejected");
+            } catch (RejectedExecutionException ex) {
+                // Expected
+            }
+            reject[0] = false;
+            throttle.setDataset(Point2DDatasets.lineData(new ArrayDouble(3, 2, 1)));
+            assertThat(drawn.await(1, TimeUnit.SECONDS), equalTo(true));
+        } finally {
+            rejectingScheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void pendingUpdates() throws Exception {
+        // During a frame, the updates are merged without waiting,
+        // and applied when the frame ends
+        final CountDownLatch frameStarted = new CountDownLatch(1);
+        final CountDownLatch frameEnd = new CountDownLatch(1);
+        final List<LineGraph2DRenderer> renderers = new CopyOnWriteArrayList<>();
+        final Graph2DRenderThrottle<LineGraph2DRenderer, LineGraph2DRendererUpdate, Point2DDataset> throttle =
+                new Graph2DRenderThrottle<>(new LineGraph2DRenderer(300, 200),
+                new Graph2DRenderThrottle.FrameDrawer<LineGraph2DRenderer, Point2DDataset>() {
+
+            @Override
+            public void drawFrame(LineGraph2DRenderer renderer, Point2DDataset dataset) {
+                renderers.add(renderer);
+                frameStarted.countDown();
+                try {
+                    frameEnd.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, scheduler, TimeDuration.ofMillis(10));
+        throttle.setDataset(Point2DDatasets.lineData(new ArrayDouble(1, 2, 3)));
+        assertThat(frameStarted.await(1, TimeUnit.SECONDS), equalTo(true));
+        
+        for (int i = 0; i < 10000; i++) {
+            throttle.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.LINEAR).imageWidth(400 + i % 100));
+        }
+        throttle.update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.CUBIC));
+        LineGraph2DRenderer renderer = renderers.get(0);
+        assertThat(renderer.getInterpolation(), equalTo(InterpolationScheme.NEAREST_NEIGHBOR));
+        assertThat(renderer.getImageWidth(), equalTo(300));
+        
+        // The last value of each field is applied when the frame ends
+        frameEnd.countDown();
+        for (int i = 0; i < 100 && renderers.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(renderers.size(), equalTo(2));
+        assertThat(renderer.getInterpolation(), equalTo(InterpolationScheme.CUBIC));
+        assertThat(renderer.getImageWidth(), equalTo(499));
+    }
+
+    @Test
+    public void updateFromFrame() throws Exception {
+        // An update from within a frame does not wait for the frame
+        final CountDownLatch frameDrawn = new CountDownLatch(2);
+        final AtomicReference<Graph2DRenderThrottle<LineGraph2DRenderer, LineGraph2DRendererUpdate, Point2DDataset>> throttle = new AtomicReference<>();
+        throttle.set(new Graph2DRenderThrottle<>(new LineGraph2DRenderer(300, 200),
+                new Graph2DRenderThrottle.FrameDrawer<LineGraph2DRenderer, Point2DDataset>() {
+
+            @Override
+            public void drawFrame(LineGraph2DRenderer renderer, Point2DDataset dataset) {
+                if (renderer.getInterpolation() != InterpolationScheme.LINEAR) {
+                    throttle.get().update(new LineGraph2DRendererUpdate().interpolation(InterpolationScheme.LINEAR));
+                }
+                frameDrawn.countDown();
+            }
+        }, scheduler, TimeDuration.ofMillis(10)));
+        throttle.get().setDataset(Point2DDatasets.lineData(new ArrayDouble(1, 2, 3)));
+        assertThat(frameDrawn.await(1, TimeUnit.SECONDS), equalTo(true));
+    }
+}
@@ -9,6 +9,7 @@ import java.awt.image.BufferedImage;
 import java.util.Arrays;
 import java.util.Collections;
 import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumbers;
 import org.epics.util.stats.Ranges;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -350,5 +351,75 @@ public class Graph2DRendererTest {
         renderer.calculateLabels();
         renderer.drawValueExplicitLine(data.getXValues(), data.getYValues(), InterpolationScheme.LINEAR, ReductionScheme.FIRST_MAX_MIN_LAST);
     }
+    
+    @Test
+    public void processValue5() throws Exception {
+        final Point2DDataset data = Point2DDatasets.lineData(ListNumbers.linearList(0, 0.5, 10000));
+        final int[] calls = new int[data.getCount()];
+        Graph2DRenderer<?> renderer = new Graph2DRenderer<Graph2DRendererUpdate>(300, 200) {
+            @Override
+            public Graph2DRendererUpdate newUpdate() {
+                return new Graph2DRendererUpdate();
+            }
+
+            @Override
+            protected void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
+                assertThat(data.getXValues().getDouble(index), equalTo(valueX));
+                assertThat(data.getYValues().getDouble(index), equalTo(valueY));
+                calls[index]++;
+            }
+            
+        };
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = (Graphics2D) image.getGraphics();
+        renderer.g = graphics;
+        renderer.calculateRanges(data.getXStatistics(), data.getXDisplayRange(), data.getYStatistics(), data.getYDisplayRange());
+        renderer.calculateLabels();
+        renderer.calculateGraphArea();
+        renderer.drawValueExplicitLine(data.getXValues(), data.getYValues(), InterpolationScheme.LINEAR, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS);
+        for (int i = 0; i < calls.length; i++) {
+            assertThat(calls[i], equalTo(1));
+        }
+    }
+    
+    private static byte[] drawLine(Graph2DRenderer<?> renderer, Point2DDataset data, InterpolationScheme interpolation, ReductionScheme reduction) {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = (Graphics2D) image.getGraphics();
+        renderer.g = graphics;
+        renderer.calculateRanges(data.getXStatistics(), data.getXDisplayRange(), data.getYStatistics(), data.getYDisplayRange());
+        renderer.calculateLabels();
+        renderer.calculateGraphArea();
+        renderer.drawValueExplicitLine(data.getXValues(), data.getYValues(), interpolation, reduction);
+        return ((java.awt.image.DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    }
+    
+    @Test
+    public void reuseBuffers1() throws Exception {
+        Graph2DRenderer<?> renderer = new Graph2DRenderer<Graph2DRendererUpdate>(300, 200) {
+            @Override
+            public Graph2DRendererUpdate newUpdate() {
+                return new Graph2DRendererUpdate();
+            }
+        };
+        Graph2DRenderer<Graph2DRendererUpdate> reuseRenderer = new Graph2DRenderer<Graph2DRendererUpdate>(300, 200) {
+            @Override
+            public Graph2DRendererUpdate newUpdate() {
+                return new Graph2DRendererUpdate();
+            }
+        };
+        assertThat(reuseRenderer.isReuseBuffers(), equalTo(false));
+        reuseRenderer.update(new Graph2DRendererUpdate().reuseBuffers(true));
+        assertThat(reuseRenderer.isReuseBuffers(), equalTo(true));
+        
+        // A large dataset followed by a smaller one, so that the buffers are larger than needed
+        Point2DDataset large = Point2DDatasets.lineData(ListNumbers.linearList(0, 0.5, 1000));
+        Point2DDataset small = Point2DDatasets.lineData(new ArrayDouble(3, 1, 4, 1, 5, 9, 2, 6));
+        for (InterpolationScheme interpolation : Arrays.asList(InterpolationScheme.NEAREST_NEIGHBOR, InterpolationScheme.LINEAR, InterpolationScheme.CUBIC)) {
+            for (ReductionScheme reduction : Arrays.asList(ReductionScheme.NONE, ReductionScheme.FIRST_MAX_MIN_LAST, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS)) {
+                assertThat(drawLine(reuseRenderer, large, interpolation, reduction), equalTo(drawLine(renderer, large, interpolation, reduction)));
+                assertThat(drawLine(reuseRenderer, small, interpolation, reduction), equalTo(drawLine(renderer, small, interpolation, reduction)));
+            }
+        }
+    }
 
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.stats.Ranges;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class GraphBufferPoolTest {
+
+    public GraphBufferPoolTest() {
+    }
+
+    @Test
+    public void acquire1() {
+        GraphBufferPool pool = new GraphBufferPool(1);
+        GraphBuffer buffer = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        assertThat(buffer.getImage().getWidth(), equalTo(10));
+        assertThat(buffer.getImage().getHeight(), equalTo(5));
+        assertThat(buffer.getImage().getType(), equalTo(BufferedImage.TYPE_INT_RGB));
+        assertThat(pool.getIdleCount(), equalTo(0));
+
+        buffer.getGraphicsContext().setColor(Color.RED);
+        buffer.getGraphicsContext().fillRect(0, 0, 10, 5);
+        buffer.getGraphicsContext().setClip(0, 0, 2, 2);
+        pool.release(buffer);
+        assertThat(pool.getIdleCount(), equalTo(1));
+
+        // Different size or type: a new buffer
+        GraphBuffer otherBuffer = pool.acquire(10, 5, BufferedImage.TYPE_3BYTE_BGR);
+        assertThat(otherBuffer, not(sameInstance(buffer)));
+        assertThat(pool.acquire(10, 6, BufferedImage.TYPE_INT_RGB), not(sameInstance(buffer)));
+
+        // Same size and type: the buffer is reused, and is cleared
+        GraphBuffer reusedBuffer = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        assertThat(reusedBuffer, sameInstance(buffer));
+        assertThat(pool.getIdleCount(), equalTo(0));
+        assertThat(reusedBuffer.getImage().getRGB(4, 4), equalTo(new BufferedImage(10, 5, BufferedImage.TYPE_INT_RGB).getRGB(4, 4)));
+        assertThat(reusedBuffer.getGraphicsContext().getClip(), nullValue());
+    }
+
+    @Test
+    public void release1() {
+        GraphBufferPool pool = new GraphBufferPool(2);
+        GraphBuffer buffer1 = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        GraphBuffer buffer2 = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        GraphBuffer buffer3 = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        pool.release(buffer1);
+        pool.release(buffer2);
+        pool.release(buffer3);
+
+        // Only two are kept
+        assertThat(pool.getIdleCount(), equalTo(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void release2() {
+        GraphBufferPool pool = new GraphBufferPool(2);
+        GraphBuffer buffer = pool.acquire(10, 5, BufferedImage.TYPE_INT_RGB);
+        pool.release(buffer);
+        pool.release(buffer);
+    }
+
+    @Test
+    public void acquireForRenderer() throws Exception {
+        Cell2DDataset data = Cell2DDatasets.linearRange(ListNumbers.linearListFromRange(0, 1, 10 * 10), Ranges.range(0, 100), 10, Ranges.range(0, 100), 10);
+        IntensityGraph2DRenderer renderer = new IntensityGraph2DRenderer(300, 200);
+        GraphBufferPool pool = new GraphBufferPool(1);
+        GraphBuffer buffer = pool.acquire(renderer);
+        renderer.draw(buffer, data);
+        BufferedImage expected = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 200; y++) {
+                expected.setRGB(x, y, buffer.getImage().getRGB(x, y));
+            }
+        }
+        pool.release(buffer);
+
+        // The recycled buffer gives the same image
+        buffer = pool.acquire(renderer);
+        renderer.draw(buffer, data);
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 200; y++) {
+                assertThat("Pixel " + x + ", " + y, buffer.getImage().getRGB(x, y), equalTo(expected.getRGB(x, y)));
+            }
+        }
+    }
+}
@@ -4,9 +4,17 @@
  */
 package org.epics.graphene;
 
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import org.epics.util.array.ArrayInt;
 import org.epics.util.stats.Ranges;
 import static org.hamcrest.Matchers.*;
@@ -347,6 +355,383 @@ public class GraphBufferTest {
                
     }
     
+    private static GraphBuffer drawLine(double[] yValues, InterpolationScheme interpolation) {
+        return drawLine(yValues, interpolation, BufferedImage.TYPE_3BYTE_BGR);
+    }
+    
+    private static GraphBuffer drawLine(double[] yValues, InterpolationScheme interpolation, int imageType) {
+        return drawLine(yValues, interpolation, imageType, Color.BLACK, new BasicStroke());
+    }
+    
+    private static GraphBuffer drawLine(double[] yValues, InterpolationScheme interpolation, int imageType, Color color, Stroke stroke) {
+        return drawLine(yValues, interpolation, imageType, color, stroke, null);
+    }
+    
+    private static GraphBuffer drawLine(double[] yValues, InterpolationScheme interpolation, int imageType, Color color, Stroke stroke, RenderListener listener) {
+        Point2DDataset data = Point2DDatasets.lineData(yValues);
+        GraphBuffer buffer = new GraphBuffer(10, 10, imageType);
+        buffer.setRenderListener(listener);
+        buffer.setXScaleAsPoint(Ranges.range(0, 9), 0, 9, ValueScales.linearScale());
+        buffer.setYScaleAsPoint(Ranges.range(0, 9), 0, 9, ValueScales.linearScale());
+        buffer.preparePlot(Ranges.range(0, 9), Ranges.range(0, 9), 0.5, 9.5, 9.5, 0.5);
+        buffer.drawBackground(Color.WHITE);
+        buffer.getGraphicsContext().setColor(color);
+        buffer.getGraphicsContext().setStroke(stroke);
+        buffer.drawValueExplicitLine(data, interpolation, ReductionScheme.NONE, new ProcessValue() {
+
+            @Override
+            public void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
+            }
+        });
+        return buffer;
+    }
+    
+    private static int[] rgb(GraphBuffer buffer) {
+        BufferedImage image = buffer.getImage();
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+    
+    @Test
+    public void intImageType() throws Exception {
+        double[] yValues = new double[] {0, 1, 2, Double.NaN, 4, 5, 6, Double.NaN, 8, 9};
+        for (InterpolationScheme interpolation : Arrays.asList(InterpolationScheme.NEAREST_NEIGHBOR, InterpolationScheme.PREVIOUS_VALUE, InterpolationScheme.LINEAR)) {
+            int[] expected = rgb(drawLine(yValues, interpolation));
+            assertThat(rgb(drawLine(yValues, interpolation, BufferedImage.TYPE_INT_RGB)), equalTo(expected));
+            assertThat(rgb(drawLine(yValues, interpolation, BufferedImage.TYPE_INT_ARGB)), equalTo(expected));
+        }
+    }
+    
+    @Test
+    public void intImageTypeDrawDataImage() throws Exception {
+        Cell2DDataset data = Cell2DDatasets.linearRange(new ArrayDouble(1, 2, 3, 4, 5, 6), Ranges.range(0, 3), 3, Ranges.range(0, 2), 2);
+        NumberColorMapInstance colorMapInstance = NumberColorMaps.JET.createInstance(Ranges.range(1, 6));
+        int[] xPointToDataMap = new int[] {0, 0, 1, 1, 2, 2};
+        int[] yPointToDataMap = new int[] {0, 0, 0, 1, 1, 1};
+        int[] expected = null;
+        for (int imageType : new int[] {BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB}) {
+            GraphBuffer buffer = new GraphBuffer(10, 10, imageType);
+            buffer.drawBackground(Color.WHITE);
+            buffer.drawDataImage(2, 3, xPointToDataMap, yPointToDataMap, data, colorMapInstance);
+            if (expected == null) {
+                expected = rgb(buffer);
+            } else {
+                assertThat(rgb(buffer), equalTo(expected));
+            }
+        }
+    }
+    
+    @Test
+    public void drawDataImageParallel() throws Exception {
+        double[] values = new double[50 * 40];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        Cell2DDataset data = Cell2DDatasets.linearRange(new ArrayDouble(values), Ranges.range(0, 50), 50, Ranges.range(0, 40), 40);
+        NumberColorMapInstance colorMapInstance = NumberColorMaps.JET.createInstance(Ranges.range(0, values.length));
+        // Each data row is repeated over several pixel rows, so that
+        // the bands contain both computed and copied rows
+        int[] xPointToDataMap = new int[280];
+        for (int i = 0; i < xPointToDataMap.length; i++) {
+            xPointToDataMap[i] = i * 50 / xPointToDataMap.length;
+        }
+        int[] yPointToDataMap = new int[190];
+        for (int i = 0; i < yPointToDataMap.length; i++) {
+            yPointToDataMap[i] = i * 40 / yPointToDataMap.length;
+        }
+        
+        GraphBuffer sequential = new GraphBuffer(300, 200);
+        sequential.drawBackground(Color.WHITE);
+        sequential.drawDataImage(10, 5, xPointToDataMap, yPointToDataMap, data, colorMapInstance);
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GraphBuffer parallel = new GraphBuffer(300, 200);
+            parallel.drawBackground(Color.WHITE);
+            parallel.drawDataImage(10, 5, xPointToDataMap, yPointToDataMap, data, colorMapInstance, pool);
+            assertThat(rgb(parallel), equalTo(rgb(sequential)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void drawDataImageReduction() throws Exception {
+        // 4x4 cells reduced to 2x2 pixels; y indexes go from bottom to top
+        Cell2DDataset data = Cell2DDatasets.linearRange(new ArrayDouble(
+                0, 1, 2, 3,
+                4, 5, 6, 7,
+                8, Double.NaN, 10, 11,
+                12, 13, 14, 15), Ranges.range(0, 4), 4, Ranges.range(0, 4), 4);
+        NumberColorMapInstance colorMapInstance = new NumberColorMapInstance() {
+
+            @Override
+            public int colorFor(double value) {
+                return (int) value;
+            }
+        };
+        int[] xPointToDataMap = new int[] {0, 2};
+        int[] xPointToDataEnd = new int[] {2, 4};
+        int[] yPointToDataMap = new int[] {2, 0};
+        int[] yPointToDataEnd = new int[] {4, 2};
+        
+        GraphBuffer buffer = new GraphBuffer(2, 2, BufferedImage.TYPE_INT_RGB);
+        buffer.drawDataImage(0, 0, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                data, colorMapInstance, CellReductionScheme.MAX, null);
+        assertThat(rgb(buffer), equalTo(new int[] {0xFF00000D, 0xFF00000F, 0xFF000005, 0xFF000007}));
+        
+        buffer.drawDataImage(0, 0, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                data, colorMapInstance, CellReductionScheme.MIN, null);
+        assertThat(rgb(buffer), equalTo(new int[] {0xFF000008, 0xFF00000A, 0xFF000000, 0xFF000002}));
+        
+        buffer.drawDataImage(0, 0, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                data, colorMapInstance, CellReductionScheme.MEAN, null);
+        assertThat(rgb(buffer), equalTo(new int[] {0xFF00000B, 0xFF00000C, 0xFF000002, 0xFF000004}));
+    }
+    
+    @Test
+    public void drawDataImageRowDataset() throws Exception {
+        // The same values, read one cell at a time or a row at a time
+        Cell2DDataset cellData = Cell2DDatasets.linearRange(new Cell2DDatasets.Function2D() {
+
+            @Override
+            public double getValue(double x, double y) {
+                return 100 * Math.floor(y) + Math.floor(x);
+            }
+        }, Ranges.range(0, 6), 6, Ranges.range(0, 4), 4);
+        double[] values = new double[24];
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 6; x++) {
+                values[y * 6 + x] = cellData.getValue(x, y);
+            }
+        }
+        Cell2DDataset rowData = Cell2DDatasets.datasetFrom(values, cellData.getXBoundaries(), cellData.getYBoundaries());
+        NumberColorMapInstance colorMapInstance = new NumberColorMapInstance() {
+
+            @Override
+            public int colorFor(double value) {
+                return (int) value;
+            }
+        };
+        int[] xPointToDataMap = new int[] {0, 1, 3, 5};
+        int[] xPointToDataEnd = new int[] {1, 3, 5, 6};
+        int[] yPointToDataMap = new int[] {3, 3, 1, 0};
+        int[] yPointToDataEnd = new int[] {4, 4, 3, 1};
+        
+        GraphBuffer cellBuffer = new GraphBuffer(4, 4, BufferedImage.TYPE_INT_RGB);
+        GraphBuffer rowBuffer = new GraphBuffer(4, 4, BufferedImage.TYPE_INT_RGB);
+        cellBuffer.drawDataImage(0, 0, xPointToDataMap, yPointToDataMap, cellData, colorMapInstance);
+        rowBuffer.drawDataImage(0, 0, xPointToDataMap, yPointToDataMap, rowData, colorMapInstance);
+        assertThat(rgb(rowBuffer), equalTo(rgb(cellBuffer)));
+        assertThat(rgb(rowBuffer)[6] & 0xFFFFFF, equalTo(303));
+        
+        cellBuffer.drawDataImage(0, 0, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                cellData, colorMapInstance, CellReductionScheme.MAX, null);
+        rowBuffer.drawDataImage(0, 0, xPointToDataMap, xPointToDataEnd, yPointToDataMap, yPointToDataEnd,
+                rowData, colorMapInstance, CellReductionScheme.MAX, null);
+        assertThat(rgb(rowBuffer), equalTo(rgb(cellBuffer)));
+        assertThat(rgb(rowBuffer)[9] & 0xFFFFFF, equalTo(202));
+    }
+    
+    @Test
+    public void staticLayer() throws Exception {
+        for (int imageType : new int[] {BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB}) {
+            GraphBuffer buffer = new GraphBuffer(4, 4, imageType);
+            Object owner = new Object();
+            assertThat(buffer.restoreStaticLayer(owner, "key"), equalTo(false));
+            buffer.drawBackground(Color.WHITE);
+            buffer.setPixel(1, 2, Color.RED.getRGB());
+            buffer.saveStaticLayer(owner, "key");
+            
+            // Draw over the layer, and restore it
+            buffer.drawBackground(Color.BLACK);
+            assertThat(buffer.restoreStaticLayer(owner, "key"), equalTo(true));
+            assertThat(buffer.getImage().getRGB(0, 0), equalTo(Color.WHITE.getRGB()));
+            assertThat(buffer.getImage().getRGB(1, 2), equalTo(Color.RED.getRGB()));
+            
+            // Different inputs or owner
+            assertThat(buffer.restoreStaticLayer(owner, "otherKey"), equalTo(false));
+            assertThat(buffer.restoreStaticLayer(new Object(), "key"), equalTo(false));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedImageType() throws Exception {
+        new GraphBuffer(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+    }
+    
+    private static String pixels(GraphBuffer buffer) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < buffer.getImage().getHeight(); y++) {
+            for (int x = 0; x < buffer.getImage().getWidth(); x++) {
+                sb.append(buffer.getImage().getRGB(x, y) == Color.BLACK.getRGB() ? '#' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+    
+    @Test
+    public void drawValueExplicitLineLinear() throws Exception {
+        GraphBuffer buffer = drawLine(new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, InterpolationScheme.LINEAR);
+        assertThat(pixels(buffer), equalTo(
+                  ".........#\n"
+                + "........#.\n"
+                + ".......#..\n"
+                + "......#...\n"
+                + ".....#....\n"
+                + "....#.....\n"
+                + "...#......\n"
+                + "..#.......\n"
+                + ".#........\n"
+                + "#.........\n"));
+    }
+    
+    @Test
+    public void drawValueExplicitLineLinearNaN() throws Exception {
+        GraphBuffer buffer = drawLine(new double[] {0, 1, 2, Double.NaN, 4, 5, 6, Double.NaN, 8, Double.NaN}, InterpolationScheme.LINEAR);
+        assertThat(pixels(buffer), equalTo(
+                  "..........\n"
+                + ".......###\n"
+                + "..........\n"
+                + "......#...\n"
+                + ".....#....\n"
+                + "....#.....\n"
+                + "..........\n"
+                + "..#.......\n"
+                + ".#........\n"
+                + "#.........\n"));
+    }
+    
+    @Test
+    public void drawValueExplicitLinePreviousValue() throws Exception {
+        GraphBuffer buffer = drawLine(new double[] {0, 0, 0, 0, 0, 9, 9, Double.NaN, 4, 4}, InterpolationScheme.PREVIOUS_VALUE);
+        assertThat(pixels(buffer), equalTo(
+                  ".....###..\n"
+                + ".....#....\n"
+                + ".....#....\n"
+                + ".....#....\n"
+                + ".....#....\n"
+                + ".....#..##\n"
+                + ".....#....\n"
+                + ".....#....\n"
+                + ".....#....\n"
+                + "######....\n"));
+    }
+    
+    @Test
+    public void drawValueExplicitLineNearestNeighbor() throws Exception {
+        GraphBuffer buffer = drawLine(new double[] {0, 0, 0, 0, 9, 9, 9, 9, 9, 9}, InterpolationScheme.NEAREST_NEIGHBOR);
+        assertThat(pixels(buffer), equalTo(
+                  "....######\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + "....#.....\n"
+                + ".####.....\n"));
+    }
+    
+    @Test
+    public void drawValueExplicitLineTranslucent() throws Exception {
+        // The translucent color is blended with the background
+        for (int imageType : new int[] {BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_ARGB}) {
+            GraphBuffer buffer = drawLine(new double[] {4, 4, 4, 4, 4, 4, 4, 4, 4, 4}, InterpolationScheme.LINEAR,
+                    imageType, new Color(0, 0, 0, 128), new BasicStroke());
+            Color pixel = new Color(buffer.getImage().getRGB(4, 5), true);
+            assertThat(pixel.getAlpha(), equalTo(255));
+            assertThat(pixel.getRed(), greaterThan(100));
+            assertThat(pixel.getRed(), lessThan(160));
+            assertThat(buffer.getImage().getRGB(4, 4), equalTo(Color.WHITE.getRGB()));
+        }
+    }
+    
+    @Test
+    public void drawValueExplicitLineSameAsJava2D() throws Exception {
+        // The line painted over, which is rasterized directly, covers the same
+        // pixels as the one drawn by Java2D with the source composite,
+        // also on fractional slopes, clipped segments and missing values
+        Random rand = new Random(1);
+        for (InterpolationScheme interpolation : Arrays.asList(InterpolationScheme.NEAREST_NEIGHBOR, InterpolationScheme.PREVIOUS_VALUE, InterpolationScheme.LINEAR)) {
+            for (int n = 0; n < 50; n++) {
+                double[] yValues = new double[20];
+                for (int i = 0; i < yValues.length; i++) {
+                    yValues[i] = rand.nextInt(10) == 0 ? Double.NaN : rand.nextDouble() * 140 - 20;
+                }
+                BufferedImage raster = drawLargeLine(yValues, interpolation, AlphaComposite.SrcOver);
+                BufferedImage java2D = drawLargeLine(yValues, interpolation, AlphaComposite.Src);
+                for (int x = 0; x < raster.getWidth(); x++) {
+                    for (int y = 0; y < raster.getHeight(); y++) {
+                        assertThat(interpolation + " line " + n + " pixel " + x + ", " + y,
+                                raster.getRGB(x, y), equalTo(java2D.getRGB(x, y)));
+                    }
+                }
+            }
+        }
+    }
+    
+    private static BufferedImage drawLargeLine(double[] yValues, InterpolationScheme interpolation, Composite composite) {
+        Point2DDataset data = Point2DDatasets.lineData(yValues);
+        GraphBuffer buffer = new GraphBuffer(120, 100);
+        buffer.setXScaleAsPoint(Ranges.range(0, yValues.length - 1), 0, 119, ValueScales.linearScale());
+        buffer.setYScaleAsPoint(Ranges.range(0, 99), 0, 99, ValueScales.linearScale());
+        buffer.preparePlot(Ranges.range(0, yValues.length - 1), Ranges.range(0, 99), 0.5, 119.5, 99.5, 0.5);
+        buffer.drawBackground(Color.WHITE);
+        buffer.getGraphicsContext().setColor(Color.BLACK);
+        buffer.getGraphicsContext().setComposite(composite);
+        buffer.drawValueExplicitLine(data, interpolation, ReductionScheme.NONE, new ProcessValue() {
+
+            @Override
+            public void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
+            }
+        });
+        return buffer.getImage();
+    }
+    
+    @Test
+    public void drawValueExplicitLineWideStroke() throws Exception {
+        // The stroke width is respected
+        GraphBuffer buffer = drawLine(new double[] {4, 4, 4, 4, 4, 4, 4, 4, 4, 4}, InterpolationScheme.LINEAR,
+                BufferedImage.TYPE_3BYTE_BGR, Color.BLACK, new BasicStroke(3));
+        int drawnRows = 0;
+        for (int y = 0; y < 10; y++) {
+            if (buffer.getImage().getRGB(4, y) == Color.BLACK.getRGB()) {
+                drawnRows++;
+            }
+        }
+        assertThat(drawnRows, equalTo(3));
+    }
+    
+    @Test
+    public void drawValueExplicitLineRenderListener() throws Exception {
+        // Both the raster and the Java2D lines report their phases
+        final List<RenderPhase> phases = new ArrayList<>();
+        final List<Integer> points = new ArrayList<>();
+        RenderListener listener = new RenderListener() {
+
+            @Override
+            public void phaseCompleted(RenderPhase phase, long durationNanos) {
+                phases.add(phase);
+            }
+
+            @Override
+            public void lineDrawn(int pointsIn, int pointsDrawn) {
+                points.add(pointsIn);
+                points.add(pointsDrawn);
+            }
+        };
+        double[] yValues = new double[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (Color color : Arrays.asList(Color.BLACK, new Color(0, 0, 0, 128))) {
+            phases.clear();
+            points.clear();
+            drawLine(yValues, InterpolationScheme.LINEAR, BufferedImage.TYPE_INT_ARGB, color, new BasicStroke(), listener);
+            assertThat(phases, equalTo(Arrays.asList(RenderPhase.DATA_REDUCTION, RenderPhase.PATH, RenderPhase.STROKE)));
+            assertThat(points, equalTo(Arrays.asList(10, 10)));
+        }
+    }
+    
     /*
     @Test
     public void drawLineGraphTwoValueData() throws Exception {
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.stats.Statistics;
+import org.epics.util.stats.StatisticsUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class IncrementalStatisticsTest {
+
+    @Test
+    public void addAll() {
+        IncrementalStatistics statistics = new IncrementalStatistics();
+        assertThat(statistics.getStatistics(), nullValue());
+        statistics.addAll(new ArrayDouble(5, 3, 7));
+        Statistics first = statistics.getStatistics();
+        statistics.add(Double.NaN);
+        statistics.addAll(new ArrayDouble(-1, 2, 2));
+        
+        // Same result as a full scan
+        Statistics expected = StatisticsUtil.statisticsOf(new ArrayDouble(5, 3, 7, Double.NaN, -1, 2, 2));
+        Statistics actual = statistics.getStatistics();
+        assertThat(actual.getCount(), equalTo(expected.getCount()));
+        assertThat(actual.getAverage(), closeTo(expected.getAverage(), 0.0001));
+        assertThat(actual.getStdDev(), closeTo(expected.getStdDev(), 0.0001));
+        assertThat(actual.getMinimum(), equalTo(expected.getMinimum()));
+        assertThat(actual.getMaximum(), equalTo(expected.getMaximum()));
+        
+        // Previous statistics are not changed
+        assertThat(first.getCount(), equalTo(3));
+        assertThat(first.getMinimum(), equalTo((Number) 3.0));
+    }
+
+    @Test
+    public void largeValues() {
+        // Values far from zero keep the precision of the standard deviation
+        IncrementalStatistics statistics = new IncrementalStatistics();
+        for (int i = 0; i < 1000; i++) {
+            statistics.add(1.0e9 + (i % 2 == 0 ? 0.5 : -0.5));
+        }
+        Statistics actual = statistics.getStatistics();
+        assertThat(actual.getAverage(), closeTo(1.0e9, 1e-6));
+        assertThat(actual.getStdDev(), closeTo(0.5, 1e-6));
+    }
+
+    @Test
+    public void onlyNaN() {
+        IncrementalStatistics statistics = new IncrementalStatistics();
+        statistics.add(Double.NaN);
+        assertThat(statistics.getStatistics(), nullValue());
+    }
+}
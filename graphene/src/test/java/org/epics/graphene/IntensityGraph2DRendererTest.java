@@ -433,6 +433,96 @@ public class IntensityGraph2DRendererTest extends BaseGraphTest<IntensityGraph2D
         ImageAssert.compareImages("intensityGraph2D.addRemoveLegend.1", graphBuffer.getImage());
     }
 
+    @Test
+    public void dataReductionMax() throws Exception {
+        // A single hot cell in a dataset much larger than the plot
+        int width = 2000;
+        int height = 1500;
+        double[] values = new double[width * height];
+        values[777 * width + 1234] = 1;
+        Cell2DDataset data = Cell2DDatasets.linearRange(new ArrayDouble(values), Ranges.range(0, width), width, Ranges.range(0, height), height);
+        IntensityGraph2DRenderer renderer = new IntensityGraph2DRenderer(300, 200);
+        assertThat(renderer.getDataReduction(), equalTo(CellReductionScheme.NONE));
+        GraphBuffer noReduction = new GraphBuffer(renderer);
+        renderer.draw(noReduction, data);
+        
+        renderer.update(renderer.newUpdate().dataReduction(CellReductionScheme.MAX));
+        assertThat(renderer.getDataReduction(), equalTo(CellReductionScheme.MAX));
+        GraphBuffer maxReduction = new GraphBuffer(renderer);
+        renderer.draw(maxReduction, data);
+        
+        // Only the pixel of the hot cell changes
+        int differentPixels = 0;
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 200; y++) {
+                if (noReduction.getImage().getRGB(x, y) != maxReduction.getImage().getRGB(x, y)) {
+                    differentPixels++;
+                }
+            }
+        }
+        assertThat(differentPixels, equalTo(1));
+        
+        // The parallel version gives the same result
+        renderer.update(renderer.newUpdate().parallelDataImage(true));
+        GraphBuffer parallelMaxReduction = new GraphBuffer(renderer);
+        renderer.draw(parallelMaxReduction, data);
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 200; y++) {
+                assertThat(parallelMaxReduction.getImage().getRGB(x, y), equalTo(maxReduction.getImage().getRGB(x, y)));
+            }
+        }
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void dataReductionNull() throws Exception {
+        new IntensityGraph2DRendererUpdate().dataReduction(null);
+    }
+
+    @Test
+    public void staticLayerReused() throws Exception {
+        Cell2DDataset data1 = ellipticParaboloid(50, Ranges.range(0, 100), 50, Ranges.range(0, 100));
+        Cell2DDataset data2 = Cell2DDatasets.linearRange(ListNumbers.linearListFromRange(0, 1, 50 * 50), Ranges.range(0, 100), 50, Ranges.range(0, 100), 50);
+        IntensityGraph2DRenderer renderer = new IntensityGraph2DRenderer(300, 200);
+        GraphBuffer graphBuffer = new GraphBuffer(renderer);
+        renderer.draw(graphBuffer, data1);
+        // The second draw restores the axes and labels from the first
+        renderer.draw(graphBuffer, data2);
+        
+        IntensityGraph2DRenderer expectedRenderer = new IntensityGraph2DRenderer(300, 200);
+        GraphBuffer expected = new GraphBuffer(expectedRenderer);
+        expectedRenderer.draw(expected, data2);
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 200; j++) {
+                assertThat("Pixel " + i + ", " + j, graphBuffer.getImage().getRGB(i, j), equalTo(expected.getImage().getRGB(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void staticLayerReusedWithLegend() throws Exception {
+        // The legend drawn after a restored graph area looks the same
+        // as after a full redraw, also on a cleared pooled buffer
+        Cell2DDataset data = ellipticParaboloid(50, Ranges.range(0, 100), 50, Ranges.range(0, 100));
+        IntensityGraph2DRenderer renderer = new IntensityGraph2DRenderer(300, 200);
+        renderer.update(renderer.newUpdate().drawLegend(true));
+        GraphBufferPool pool = new GraphBufferPool(1);
+        
+        IntensityGraph2DRenderer expectedRenderer = new IntensityGraph2DRenderer(300, 200);
+        expectedRenderer.update(expectedRenderer.newUpdate().drawLegend(true));
+        GraphBuffer expected = new GraphBuffer(expectedRenderer);
+        expectedRenderer.draw(expected, data);
+        for (int frame = 0; frame < 3; frame++) {
+            GraphBuffer graphBuffer = pool.acquire(renderer);
+            renderer.draw(graphBuffer, data);
+            for (int i = 0; i < 300; i++) {
+                for (int j = 0; j < 200; j++) {
+                    assertThat("Frame " + frame + " pixel " + i + ", " + j, graphBuffer.getImage().getRGB(i, j), equalTo(expected.getImage().getRGB(i, j)));
+                }
+            }
+            pool.release(graphBuffer);
+        }
+    }
+
     @Test
     public void selectedRegion() throws Exception {
         Cell2DDataset data = ellipticParaboloid(200, Ranges.range(0, 100), 200, Ranges.range(0, 100));
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.array.ListNumbers;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class LargestTriangleThreeBucketsTest {
+
+    public LargestTriangleThreeBucketsTest() {
+    }
+
+    @Test
+    public void reduce1() {
+        ListNumber xValues = ListNumbers.linearList(0, 1, 10);
+        ListNumber yValues = new ArrayDouble(0, 0, 0, 0, 10, 0, 0, 0, 0, 0);
+        double[] outX = new double[4];
+        double[] outY = new double[4];
+        int count = LargestTriangleThreeBuckets.reduce(xValues, yValues, xValues, yValues, 0, 4, outX, outY, null);
+        assertThat(count, equalTo(4));
+        // First and last point are always kept, and the peak is preserved
+        assertThat(outX, equalTo(new double[] {0, 4, 5, 9}));
+        assertThat(outY, equalTo(new double[] {0, 10, 0, 0}));
+    }
+
+    @Test
+    public void reduce2() {
+        ListNumber xValues = ListNumbers.linearList(0, 1, 10);
+        ListNumber yValues = new ArrayDouble(0, 1, 2, 3, 4, 5, 6, 7, 8, -20);
+        double[] outX = new double[3];
+        double[] outY = new double[3];
+        int count = LargestTriangleThreeBuckets.reduce(xValues, yValues, xValues, yValues, 0, 3, outX, outY, null);
+        assertThat(count, equalTo(3));
+        assertThat(outX, equalTo(new double[] {0, 8, 9}));
+        assertThat(outY, equalTo(new double[] {0, 8, -20}));
+    }
+
+    @Test
+    public void reduceNaN() {
+        ListNumber xValues = ListNumbers.linearList(0, 1, 14);
+        ListNumber yValues = new ArrayDouble(Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 1, 1, 1, 1, 1, 1, 10, 1, 1);
+        double[] outX = new double[5];
+        double[] outY = new double[5];
+        int count = LargestTriangleThreeBuckets.reduce(xValues, yValues, xValues, yValues, 0, 5, outX, outY, null);
+        assertThat(count, equalTo(5));
+        // The gap is preserved
+        assertThat(Double.isNaN(outY[0]), equalTo(true));
+        assertThat(Double.isNaN(outY[1]), equalTo(true));
+        // The NaN anchor does not prevent the selection in the following buckets
+        assertThat(outY[2], equalTo(1.0));
+        assertThat(outX[3], equalTo(11.0));
+        assertThat(outY[3], equalTo(10.0));
+        assertThat(outY[4], equalTo(1.0));
+    }
+
+    @Test
+    public void processValue() {
+        final ListNumber xValues = ListNumbers.linearList(0, 1, 100);
+        final ListNumber yValues = ListNumbers.linearList(100, -1, 100);
+        final int[] calls = new int[100];
+        double[] outX = new double[10];
+        double[] outY = new double[10];
+        LargestTriangleThreeBuckets.reduce(xValues, yValues, xValues, yValues, 5, 10, outX, outY, new ProcessValue() {
+
+            @Override
+            public void processScaledValue(int index, double valueX, double valueY, double scaledX, double scaledY) {
+                assertThat(valueX, equalTo(xValues.getDouble(index - 5)));
+                assertThat(valueY, equalTo(yValues.getDouble(index - 5)));
+                calls[index - 5]++;
+            }
+        });
+        for (int i = 0; i < calls.length; i++) {
+            assertThat("Value " + i, calls[i], equalTo(1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reduceTooManyPoints() {
+        ListNumber xValues = ListNumbers.linearList(0, 1, 10);
+        LargestTriangleThreeBuckets.reduce(xValues, xValues, xValues, xValues, 0, 10, new double[10], new double[10], null);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class LazyStatisticsTest {
+
+    @Test
+    public void calculatedOnce() {
+        final ListDouble values = new ArrayDouble(5, 3, 7, -1, 2, 2);
+        final int[] reads = new int[1];
+        LazyStatistics statistics = new LazyStatistics(new ListDouble() {
+
+            @Override
+            public double getDouble(int index) {
+                reads[0]++;
+                return values.getDouble(index);
+            }
+
+            @Override
+            public int size() {
+                return values.size();
+            }
+        });
+        assertThat(reads[0], equalTo(0));
+        assertThat(statistics.getStatistics().getAverage(), equalTo(3.0));
+        assertThat(reads[0], equalTo(6));
+        assertThat(statistics.getStatistics().getMaximum(), equalTo((Number) 7.0));
+        assertThat(reads[0], equalTo(6));
+    }
+
+    @Test
+    public void allNaN() {
+        LazyStatistics statistics = new LazyStatistics(new ArrayDouble(Double.NaN, Double.NaN));
+        assertThat(statistics.getStatistics(), nullValue());
+    }
+}
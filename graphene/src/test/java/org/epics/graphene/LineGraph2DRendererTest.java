@@ -8,11 +8,16 @@ import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Random;
 import javax.imageio.ImageIO;
 import junit.framework.AssertionFailedError;
 import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListDouble;
 import org.junit.AfterClass;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -655,4 +660,111 @@ public class LineGraph2DRendererTest extends BaseGraphTest<LineGraph2DRendererUp
         //Compares to correct image
         ImageAssert.compareImages("lineGraph2D.updateInterpolation", image);
     }
+
+    @Test
+    public void pyramidFirstMaxMinLast() throws Exception {
+        // Same image with and without the index
+        Random rand = new Random(1);
+        double[] y = new double[100000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = rand.nextGaussian() + (i % 5000 == 0 ? 10 : 0);
+        }
+        y[777] = Double.NaN;
+        ArrayDouble x = new ArrayDouble(org.epics.util.array.CollectionNumbers.doubleArrayCopyOf(
+                org.epics.util.array.ListNumbers.linearList(0, 1, y.length)));
+        BufferedImage expected = drawFirstMaxMinLast(Point2DDatasets.lineData(x, new ArrayDouble(y)));
+        BufferedImage actual = drawFirstMaxMinLast(Point2DDatasets.pyramidLineData(x, new ArrayDouble(y)));
+        for (int i = 0; i < expected.getWidth(); i++) {
+            for (int j = 0; j < expected.getHeight(); j++) {
+                assertThat("Pixel " + i + ", " + j, actual.getRGB(i, j), equalTo(expected.getRGB(i, j)));
+            }
+        }
+    }
+    
+    @Test
+    public void layoutReused() throws Exception {
+        Point2DDataset data1 = Point2DDatasets.lineData(new ArrayDouble(0, 3, 2, 8, 1, 5));
+        Point2DDataset data2 = Point2DDatasets.lineData(new ArrayDouble(4, 1, 7, 2, 6, 3));
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        LineGraph2DRenderer renderer = new LineGraph2DRenderer(300, 200);
+        renderer.update(renderer.newUpdate().yAxisRange(AxisRanges.fixed(0, 10)));
+        renderer.draw(image.createGraphics(), data1);
+        ListDouble xReferenceCoords = renderer.xReferenceCoords;
+        List<String> yReferenceLabels = renderer.yReferenceLabels;
+        
+        // Same ranges: the layout is reused
+        renderer.draw(image.createGraphics(), data2);
+        assertThat(renderer.xReferenceCoords, sameInstance(xReferenceCoords));
+        assertThat(renderer.yReferenceLabels, sameInstance(yReferenceLabels));
+        
+        // The image is the same as a renderer that did not reuse the layout
+        BufferedImage expected = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        LineGraph2DRenderer expectedRenderer = new LineGraph2DRenderer(300, 200);
+        expectedRenderer.update(expectedRenderer.newUpdate().yAxisRange(AxisRanges.fixed(0, 10)));
+        expectedRenderer.draw(expected.createGraphics(), data2);
+        for (int i = 0; i < expected.getWidth(); i++) {
+            for (int j = 0; j < expected.getHeight(); j++) {
+                assertThat("Pixel " + i + ", " + j, image.getRGB(i, j), equalTo(expected.getRGB(i, j)));
+            }
+        }
+        
+        // A different range or margin requires a new layout
+        renderer.update(renderer.newUpdate().yAxisRange(AxisRanges.fixed(0, 20)));
+        renderer.draw(image.createGraphics(), data2);
+        assertThat(renderer.yReferenceLabels, not(sameInstance(yReferenceLabels)));
+        xReferenceCoords = renderer.xReferenceCoords;
+        renderer.update(renderer.newUpdate().leftMargin(10));
+        renderer.draw(image.createGraphics(), data2);
+        assertThat(renderer.xReferenceCoords, not(sameInstance(xReferenceCoords)));
+    }
+    
+    @Test
+    public void renderListener() throws Exception {
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.sin(i / 5000.0);
+        }
+        Point2DDataset data = Point2DDatasets.lineData(values);
+        final Map<RenderPhase, Integer> phases = new EnumMap<>(RenderPhase.class);
+        final List<Integer> points = new ArrayList<>();
+        LineGraph2DRenderer renderer = new LineGraph2DRenderer(300, 200);
+        renderer.update(renderer.newUpdate().dataReduction(ReductionScheme.FIRST_MAX_MIN_LAST));
+        renderer.setRenderListener(new RenderListener() {
+
+            @Override
+            public void phaseCompleted(RenderPhase phase, long durationNanos) {
+                assertThat(durationNanos, greaterThanOrEqualTo(0L));
+                Integer count = phases.get(phase);
+                phases.put(phase, count == null ? 1 : count + 1);
+            }
+
+            @Override
+            public void lineDrawn(int pointsIn, int pointsDrawn) {
+                points.add(pointsIn);
+                points.add(pointsDrawn);
+            }
+        });
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        renderer.draw(image.createGraphics(), data);
+        assertThat(phases.keySet(), equalTo((Set<RenderPhase>) EnumSet.allOf(RenderPhase.class)));
+        assertThat(phases.get(RenderPhase.STROKE), equalTo(1));
+        assertThat(points.get(0), equalTo(100000));
+        assertThat(points.get(1), lessThanOrEqualTo(300 * 4));
+        
+        // Nothing is reported once the listener is removed
+        renderer.setRenderListener(null);
+        phases.clear();
+        renderer.draw(image.createGraphics(), data);
+        assertThat(phases.isEmpty(), equalTo(true));
+    }
+    
+    private static BufferedImage drawFirstMaxMinLast(Point2DDataset data) {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        LineGraph2DRenderer renderer = new LineGraph2DRenderer(300, 200);
+        renderer.update(renderer.newUpdate().interpolation(InterpolationScheme.LINEAR)
+                .dataReduction(ReductionScheme.FIRST_MAX_MIN_LAST)
+                .xAxisRange(AxisRanges.fixed(12345, 83456)));
+        renderer.draw(image.createGraphics(), data);
+        return image;
+    }
 }
@@ -4,15 +4,23 @@
  */
 package org.epics.graphene;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import org.epics.util.array.ArrayDouble;
 import org.epics.util.time.TimeDuration;
+import org.epics.util.time.TimeInterval;
 import org.epics.util.time.Timestamp;
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.junit.BeforeClass;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
 
 /**
  *
@@ -103,4 +111,177 @@ public class LineTimeGraph2DRendererTest {
         ImageAssert.compareImages("lineTimeGraph.4", image);
     }
     
+    @Test
+    public void scrolling() throws Exception {
+        Timestamp start = TimeScalesTest.create(2013, 4, 5, 11, 13, 3, 900);
+        TimeDuration window = TimeDuration.ofSeconds(10);
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        LineTimeGraph2DRenderer renderer = new LineTimeGraph2DRenderer(300, 200);
+        renderer.update(new LineTimeGraph2DRendererUpdate().interpolation(InterpolationScheme.LINEAR)
+                .axisRange(AxisRanges.fixed(-1.5, 1.5)).scrolling(true));
+        Timestamp now = start;
+        for (int frame = 0; frame < 40; frame++) {
+            now = start.plus(window).plus(TimeDuration.ofMillis(frame * 130));
+            renderer.update(renderer.newUpdate().timeAxisRange(TimeAxisRanges.absolute(TimeInterval.between(now.minus(window), now))));
+            renderer.draw((Graphics2D) image.getGraphics(), sineUntil(start, now));
+        }
+        
+        // The time axis is aligned to the pixels, so it may lag by less than a pixel
+        TimeInterval plotInterval = renderer.getPlotTimeInterval();
+        assertThat(plotInterval.getStart().compareTo(now.minus(window)), lessThanOrEqualTo(0));
+        assertThat(plotInterval.getStart().compareTo(now.minus(window).minus(TimeDuration.ofMillis(50))), greaterThan(0));
+
+        // Same as drawing the last frame from scratch, above the time labels
+        BufferedImage reference = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        LineTimeGraph2DRenderer referenceRenderer = new LineTimeGraph2DRenderer(300, 200);
+        referenceRenderer.update(new LineTimeGraph2DRendererUpdate().interpolation(InterpolationScheme.LINEAR)
+                .axisRange(AxisRanges.fixed(-1.5, 1.5)).scrolling(true)
+                .timeAxisRange(TimeAxisRanges.absolute(plotInterval)));
+        referenceRenderer.draw((Graphics2D) reference.getGraphics(), sineUntil(start, now));
+        assertThat(differentPixels(image, reference, referenceRenderer.yAreaEnd + 1), equalTo(0));
+    }
+    
+    @Test
+    public void dataReduction() throws Exception {
+        // One sample per millisecond for 100 seconds
+        long start = 1365174783900000000L;
+        long[] times = new long[100000];
+        double[] values = new double[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = start + i * 1000000L;
+            values[i] = Math.sin(i / 5000.0) + ((i * 7919) % 101) / 500.0;
+        }
+        TimeSeriesDataset data = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(values), times);
+        List<Integer> points = new ArrayList<>();
+        LineTimeGraph2DRenderer referenceRenderer = new LineTimeGraph2DRenderer(300, 200);
+        BufferedImage reference = drawLinear(referenceRenderer, data, ReductionScheme.NONE, points);
+        assertThat(points, equalTo(Arrays.asList(100000, 100000)));
+        int plotWidth = (int) referenceRenderer.xPlotCoordWidth;
+        
+        // First/max/min/last keeps at most four points per pixel column,
+        // and the same vertical extent in each column. The columns at the
+        // edges also have the segments to the points outside the plot,
+        // which are drawn from the start of the pixel
+        points.clear();
+        LineTimeGraph2DRenderer renderer = new LineTimeGraph2DRenderer(300, 200);
+        BufferedImage image = drawLinear(renderer, data, ReductionScheme.FIRST_MAX_MIN_LAST, points);
+        assertThat(points.get(0), equalTo(100000));
+        assertThat(points.get(1), lessThanOrEqualTo((plotWidth + 4) * 4));
+        for (int x = renderer.xAreaStart + 1; x < renderer.xAreaEnd; x++) {
+            assertThat("Column " + x, lineExtent(image, renderer, x, x), equalTo(lineExtent(reference, renderer, x, x)));
+        }
+        
+        // LTTB keeps two points per pixel column, and the extrema of the data
+        points.clear();
+        image = drawLinear(renderer, data, ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS, points);
+        assertThat(points.get(0), equalTo(100000));
+        assertThat(points.get(1), equalTo((plotWidth + 1) * 2));
+        assertThat(lineExtent(image, renderer, renderer.xAreaStart, renderer.xAreaEnd),
+                equalTo(lineExtent(reference, renderer, renderer.xAreaStart, renderer.xAreaEnd)));
+    }
+    
+    /**
+     * The topmost and bottommost rows of the line in the given columns
+     * of the graph area.
+     */
+    private static List<Integer> lineExtent(BufferedImage image, LineTimeGraph2DRenderer renderer, int xStart, int xEnd) {
+        int top = -1;
+        int bottom = -1;
+        for (int x = xStart; x <= xEnd; x++) {
+            for (int y = renderer.yAreaStart; y <= renderer.yAreaEnd; y++) {
+                if (image.getRGB(x, y) == Color.BLACK.getRGB()) {
+                    if (top == -1 || y < top) {
+                        top = y;
+                    }
+                    bottom = Math.max(bottom, y);
+                }
+            }
+        }
+        return Arrays.asList(top, bottom);
+    }
+    
+    private static int differentPixels(BufferedImage image, BufferedImage reference) {
+        return differentPixels(image, reference, image.getHeight());
+    }
+    
+    private static int differentPixels(BufferedImage image, BufferedImage reference, int height) {
+        int differentPixels = 0;
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < height; y++) {
+                if (image.getRGB(x, y) != reference.getRGB(x, y)) {
+                    differentPixels++;
+                }
+            }
+        }
+        return differentPixels;
+    }
+    
+    @Test
+    public void renderListener() throws Exception {
+        long start = 1365174783900000000L;
+        long[] times = new long[10000];
+        double[] values = new double[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = start + i * 1000000L;
+            values[i] = Math.sin(i / 500.0);
+        }
+        TimeSeriesDataset data = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(values), times);
+        final Set<RenderPhase> phases = EnumSet.noneOf(RenderPhase.class);
+        final List<Integer> points = new ArrayList<>();
+        LineTimeGraph2DRenderer renderer = new LineTimeGraph2DRenderer(300, 200);
+        renderer.update(new LineTimeGraph2DRendererUpdate().dataReduction(ReductionScheme.LARGEST_TRIANGLE_THREE_BUCKETS));
+        renderer.setRenderListener(new RenderListener() {
+
+            @Override
+            public void phaseCompleted(RenderPhase phase, long durationNanos) {
+                phases.add(phase);
+            }
+
+            @Override
+            public void lineDrawn(int pointsIn, int pointsDrawn) {
+                points.add(pointsIn);
+                points.add(pointsDrawn);
+            }
+        });
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        renderer.draw((Graphics2D) image.getGraphics(), data);
+        assertThat(phases, equalTo((Set<RenderPhase>) EnumSet.allOf(RenderPhase.class)));
+        assertThat(points.get(0), equalTo(10000));
+        assertThat(points.get(1), lessThan(1000));
+    }
+    
+    private static BufferedImage drawLinear(LineTimeGraph2DRenderer renderer, TimeSeriesDataset data, ReductionScheme reduction, final List<Integer> points) {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+        renderer.update(new LineTimeGraph2DRendererUpdate().interpolation(InterpolationScheme.LINEAR)
+                .dataReduction(reduction));
+        renderer.setRenderListener(new RenderListener() {
+
+            @Override
+            public void phaseCompleted(RenderPhase phase, long durationNanos) {
+            }
+
+            @Override
+            public void lineDrawn(int pointsIn, int pointsDrawn) {
+                points.add(pointsIn);
+                points.add(pointsDrawn);
+            }
+        });
+        renderer.draw((Graphics2D) image.getGraphics(), data);
+        return image;
+    }
+    
+    private static TimeSeriesDataset sineUntil(Timestamp start, Timestamp end) {
+        List<Timestamp> timestamps = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (Timestamp time = start; time.compareTo(end) <= 0; time = time.plus(TimeDuration.ofMillis(100))) {
+            timestamps.add(time);
+            values.add(Math.sin(time.durationFrom(start).toSeconds()));
+        }
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(array), timestamps);
+    }
+    
 }
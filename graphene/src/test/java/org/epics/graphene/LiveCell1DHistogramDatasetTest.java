@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.Random;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.stats.Ranges;
+import org.epics.util.stats.Statistics;
+import org.epics.util.stats.StatisticsUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class LiveCell1DHistogramDatasetTest {
+
+    public LiveCell1DHistogramDatasetTest() {
+    }
+
+    @Test
+    public void add1() {
+        LiveCell1DHistogramDataset histogram = new LiveCell1DHistogramDataset(Ranges.range(0, 10), 5);
+        histogram.add(0.5);
+        histogram.add(2.0);
+        histogram.add(3.9);
+        histogram.add(9.9);
+        histogram.add(Double.NaN);
+        assertThat(histogram.getCount(), equalTo(4));
+        Cell1DDataset data = histogram.snapshot();
+        assertThat(data.getXCount(), equalTo(5));
+        assertThat(data.getValue(0), equalTo(1.0));
+        assertThat(data.getValue(1), equalTo(2.0));
+        assertThat(data.getValue(2), equalTo(0.0));
+        assertThat(data.getValue(3), equalTo(0.0));
+        assertThat(data.getValue(4), equalTo(1.0));
+        assertThat(data.getXBoundaries(), equalTo((Object) new ArrayDouble(0, 2, 4, 6, 8, 10)));
+        assertThat(Ranges.equals(data.getXRange(), Ranges.range(0, 10)), equalTo(true));
+
+        // The snapshot does not change
+        histogram.add(5.0);
+        assertThat(data.getValue(2), equalTo(0.0));
+        assertThat(histogram.snapshot().getValue(2), equalTo(1.0));
+    }
+
+    @Test
+    public void merge1() {
+        LiveCell1DHistogramDataset histogram = new LiveCell1DHistogramDataset(Ranges.range(0, 10), 5);
+        histogram.add(1.0);
+        histogram.add(3.0);
+        histogram.add(5.0);
+        histogram.add(7.0);
+
+        // Expands up: [0, 20)
+        histogram.add(12.0);
+        Cell1DDataset data = histogram.snapshot();
+        assertThat(data.getXBoundaries(), equalTo((Object) new ArrayDouble(0, 4, 8, 12, 16, 20)));
+        assertThat(data.getValue(0), equalTo(2.0));
+        assertThat(data.getValue(1), equalTo(2.0));
+        assertThat(data.getValue(3), equalTo(1.0));
+
+        // Expands down three times, keeping the last bin: [-128, 32)
+        histogram.add(-50.0);
+        data = histogram.snapshot();
+        assertThat(data.getXBoundaries(), equalTo((Object) new ArrayDouble(-128, -96, -64, -32, 0, 32)));
+        assertThat(data.getValue(2), equalTo(1.0));
+        assertThat(data.getValue(4), equalTo(5.0));
+
+        // Values added before the merge can be removed
+        histogram.remove(1.0);
+        histogram.remove(7.0);
+        histogram.remove(12.0);
+        data = histogram.snapshot();
+        assertThat(data.getValue(4), equalTo(2.0));
+        assertThat(histogram.getCount(), equalTo(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void remove1() {
+        LiveCell1DHistogramDataset histogram = new LiveCell1DHistogramDataset(Ranges.range(0, 10), 5);
+        histogram.add(1.0);
+        histogram.remove(3.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void new1() {
+        new LiveCell1DHistogramDataset(Ranges.range(1, 1), 5);
+    }
+
+    @Test
+    public void slidingWindow1() {
+        // The histogram of a sliding window matches the one of the values in the window
+        Random rand = new Random(1);
+        LiveCell1DHistogramDataset histogram = new LiveCell1DHistogramDataset(Ranges.range(-0.1, 0.1), 10);
+        double[] values = new double[3000];
+        int window = 500;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rand.nextGaussian() * (1 + i / 1000);
+            histogram.add(values[i]);
+            if (i >= window) {
+                histogram.remove(values[i - window]);
+            }
+        }
+        assertThat(histogram.getCount(), equalTo(window));
+
+        Cell1DDataset data = histogram.snapshot();
+        double[] expected = new double[10];
+        for (int i = values.length - window; i < values.length; i++) {
+            int bin = 0;
+            while (values[i] >= data.getXBoundaries().getDouble(bin + 1)) {
+                bin++;
+            }
+            expected[bin]++;
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat("Bin " + i, data.getValue(i), equalTo(expected[i]));
+        }
+
+        Statistics stats = data.getStatistics();
+        Statistics expectedStats = StatisticsUtil.statisticsOf(new ArrayDouble(expected));
+        assertThat(stats.getCount(), equalTo(10));
+        assertThat(stats.getAverage(), closeTo(expectedStats.getAverage(), 0.0001));
+        assertThat(stats.getStdDev(), closeTo(expectedStats.getStdDev(), 0.0001));
+        assertThat(stats.getMinimum().doubleValue(), equalTo(expectedStats.getMinimum().doubleValue()));
+        assertThat(stats.getMaximum().doubleValue(), equalTo(expectedStats.getMaximum().doubleValue()));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.Random;
+import org.epics.util.stats.Statistics;
+import org.epics.util.stats.StatisticsUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class LivePoint2DDatasetTest {
+
+    @Test
+    public void add1() {
+        LivePoint2DDataset buffer = new LivePoint2DDataset(3);
+        assertThat(buffer.snapshot().getCount(), equalTo(0));
+        assertThat(buffer.snapshot().getYStatistics(), nullValue());
+        buffer.add(0, 5);
+        buffer.add(1, 3);
+        buffer.add(2, 7);
+        buffer.add(3, 4);
+        Point2DDataset dataset = buffer.snapshot();
+        assertThat(dataset.getCount(), equalTo(3));
+        assertThat(dataset.getXValues().getDouble(0), equalTo(1.0));
+        assertThat(dataset.getYValues().getDouble(2), equalTo(4.0));
+        assertThat(dataset.getYStatistics().getMinimum(), equalTo((Number) 3.0));
+        assertThat(dataset.getYStatistics().getMaximum(), equalTo((Number) 7.0));
+        assertThat(dataset.getXStatistics().getMinimum(), equalTo((Number) 1.0));
+        assertThat(Point2DDatasets.isXSorted(dataset), equalTo(true));
+    }
+
+    @Test
+    public void snapshotIsStable() {
+        LivePoint2DDataset buffer = new LivePoint2DDataset(10);
+        for (int i = 0; i < 15; i++) {
+            buffer.add(i, i * 10);
+        }
+        Point2DDataset dataset = buffer.snapshot();
+        // Enough points to go through the arrays a few times
+        for (int i = 15; i < 100; i++) {
+            buffer.add(i, -i);
+        }
+        assertThat(dataset.getCount(), equalTo(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(dataset.getXValues().getDouble(i), equalTo(5.0 + i));
+            assertThat(dataset.getYValues().getDouble(i), equalTo(50.0 + i * 10));
+        }
+        assertThat(dataset.getYStatistics().getMaximum(), equalTo((Number) 140.0));
+        assertThat(buffer.snapshot().getYStatistics().getMaximum(), equalTo((Number) (-90.0)));
+    }
+
+    @Test
+    public void statisticsMatchFullScan() {
+        Random rand = new Random(1);
+        LivePoint2DDataset buffer = new LivePoint2DDataset(50);
+        for (int i = 0; i < 1000; i++) {
+            double y = i % 37 == 0 ? Double.NaN : rand.nextGaussian();
+            buffer.add(i, y);
+            if (i % 101 == 0) {
+                buffer.evictOldest(20);
+            }
+            Point2DDataset dataset = buffer.snapshot();
+            Statistics expected = StatisticsUtil.statisticsOf(dataset.getYValues());
+            Statistics actual = dataset.getYStatistics();
+            if (expected == null) {
+                assertThat(actual, nullValue());
+                continue;
+            }
+            assertThat(actual.getCount(), equalTo(expected.getCount()));
+            assertThat(actual.getMinimum(), equalTo(expected.getMinimum()));
+            assertThat(actual.getMaximum(), equalTo(expected.getMaximum()));
+            assertThat(actual.getAverage(), closeTo(expected.getAverage(), 0.000001));
+            assertThat(actual.getStdDev(), closeTo(expected.getStdDev(), 0.000001));
+        }
+    }
+
+    @Test
+    public void statisticsEpochSeconds() {
+        // Times in epoch seconds, sampled at 1 kHz, in a window of one second
+        int window = 1000;
+        LivePoint2DDataset buffer = new LivePoint2DDataset(window);
+        int nPoints = 200000;
+        for (int i = 0; i < nPoints; i++) {
+            buffer.add(1400000000.0 + i * 0.001, 0);
+        }
+        Statistics actual = buffer.snapshot().getXStatistics();
+        double expectedStdDev = 0.001 * Math.sqrt((window * window - 1) / 12.0);
+        assertThat(actual.getCount(), equalTo(window));
+        assertThat(actual.getAverage(), closeTo(1400000000.0 + (nPoints - (window + 1) / 2.0) * 0.001, 0.00001));
+        assertThat(actual.getStdDev(), closeTo(expectedStdDev, 0.00001));
+    }
+
+    @Test
+    public void evictBefore() {
+        LivePoint2DDataset buffer = new LivePoint2DDataset(10);
+        for (int i = 0; i < 8; i++) {
+            buffer.add(i, i);
+        }
+        buffer.evictBefore(5.5);
+        assertThat(buffer.getCount(), equalTo(2));
+        assertThat(buffer.snapshot().getYStatistics().getMinimum(), equalTo((Number) 6.0));
+    }
+
+    @Test
+    public void xSorted() {
+        LivePoint2DDataset buffer = new LivePoint2DDataset(3);
+        buffer.add(0, 0);
+        buffer.add(2, 0);
+        buffer.add(1, 0);
+        assertThat(Point2DDatasets.isXSorted(buffer.snapshot()), equalTo(false));
+        buffer.add(3, 0);
+        assertThat(Point2DDatasets.isXSorted(buffer.snapshot()), equalTo(false));
+        buffer.add(4, 0);
+        assertThat(Point2DDatasets.isXSorted(buffer.snapshot()), equalTo(true));
+        buffer.add(Double.NaN, 0);
+        assertThat(Point2DDatasets.isXSorted(buffer.snapshot()), equalTo(false));
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.Random;
+import org.epics.util.array.ArrayDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class MinMaxPyramidTest {
+
+    @Test
+    public void minMaxIndexes() {
+        Random rand = new Random(1);
+        double[] values = new double[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 97 == 0 ? Double.NaN : rand.nextDouble();
+        }
+        MinMaxPyramid pyramid = MinMaxPyramid.of(new ArrayDouble(values));
+        int[] result = new int[2];
+        for (int n = 0; n < 1000; n++) {
+            int from = rand.nextInt(values.length);
+            int to = from + 1 + rand.nextInt(values.length - from);
+            pyramid.minMaxIndexes(from, to, result);
+            double min = Double.NaN;
+            double max = Double.NaN;
+            for (int i = from; i < to; i++) {
+                min = MathIgnoreNaN.min(min, values[i]);
+                max = MathIgnoreNaN.max(max, values[i]);
+            }
+            assertThat("Range " + from + " - " + to, values[result[0]], equalTo(min));
+            assertThat("Range " + from + " - " + to, values[result[1]], equalTo(max));
+        }
+    }
+
+    @Test
+    public void minMaxIndexesAllNaN() {
+        MinMaxPyramid pyramid = MinMaxPyramid.of(new ArrayDouble(1, Double.NaN, Double.NaN, 0));
+        int[] result = new int[2];
+        pyramid.minMaxIndexes(1, 3, result);
+        assertThat(result, equalTo(new int[] {1, 1}));
+        pyramid.minMaxIndexes(0, 4, result);
+        assertThat(result, equalTo(new int[] {3, 0}));
+    }
+
+    @Test
+    public void reduce1() {
+        ArrayDouble xValues = new ArrayDouble(0.1, 0.5, 0.9, 1.2, 2.5, 2.6);
+        ArrayDouble yValues = new ArrayDouble(3, 1, 2, 5, 4, 8);
+        MinMaxPyramid pyramid = MinMaxPyramid.of(yValues);
+        double[] outX = new double[12];
+        double[] outY = new double[12];
+        int count = pyramid.reduce(xValues, yValues, xValues, yValues, 0, outX, outY, null);
+        // first, max, min, last for each pixel column
+        assertThat(count, equalTo(12));
+        assertThat(outX, equalTo(new double[] {0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2}));
+        assertThat(outY, equalTo(new double[] {3, 3, 1, 2, 5, 5, 5, 5, 4, 8, 4, 8}));
+    }
+}
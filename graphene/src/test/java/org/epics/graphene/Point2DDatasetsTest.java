@@ -5,6 +5,7 @@
 package org.epics.graphene;
 
 import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListFloat;
 import org.epics.util.array.ListNumber;
 import org.junit.AfterClass;
 import org.junit.Test;
@@ -42,6 +43,45 @@ public class Point2DDatasetsTest {
     }
 
     
+    @Test
+    public void lineDataSorted() {
+        assertTrue(Point2DDatasets.isXSorted(Point2DDatasets.lineData(new ArrayDouble(3, 1, 2))));
+        assertTrue(Point2DDatasets.isXSorted(Point2DDatasets.lineData(new ArrayDouble(0, 1, 1, 5), new ArrayDouble(3, 1, 2, 4))));
+        assertFalse(Point2DDatasets.isXSorted(Point2DDatasets.lineData(new ArrayDouble(0, 2, 1), new ArrayDouble(3, 1, 2))));
+        assertFalse(Point2DDatasets.isXSorted(Point2DDatasets.lineData(new ArrayDouble(0, Double.NaN, 2), new ArrayDouble(3, 1, 2))));
+        assertFalse(Point2DDatasets.isXSorted(Point2DDatasets.lineData(new ArrayDouble(3, 1, 2), -1, -1)));
+        
+        // Datasets that do not declare it are sorted by the renderers
+        assertFalse(Point2DDatasets.isXSorted(new MockOrderedDataset2D(new double[] {0, 1, 2}, new double[] {3, 1, 2})));
+    }
+    
+    @Test
+    public void lineDataFromFloatArray() {
+        Point2DDataset dataset = Point2DDatasets.lineData(new float[] {1.5f, 2, 3}, 10, 2);
+        assertEquals(3, dataset.getCount());
+        assertTrue(dataset.getYValues() instanceof ListFloat);
+        assertEquals(10.0, dataset.getXValues().getDouble(0), 0.001);
+        assertEquals(14.0, dataset.getXValues().getDouble(2), 0.001);
+        assertEquals(1.5, dataset.getYValues().getDouble(0), 0.001);
+        assertEquals(1.5, dataset.getYStatistics().getMinimum().doubleValue(), 0.001);
+        assertEquals(3.0, dataset.getYStatistics().getMaximum().doubleValue(), 0.001);
+        
+        dataset = Point2DDatasets.lineData(new float[] {0, 1, 2}, new float[] {3, 1, 2});
+        assertTrue(dataset.getXValues() instanceof ListFloat);
+        assertTrue(Point2DDatasets.isXSorted(dataset));
+    }
+    
+    @Test
+    public void lineDataWithStatistics() {
+        IncrementalStatistics yStatistics = new IncrementalStatistics();
+        yStatistics.addAll(new ArrayDouble(3, 1, 2));
+        Point2DDataset dataset = Point2DDatasets.lineData(new ArrayDouble(0, 1, 2), new ArrayDouble(3, 1, 2), null, yStatistics.getStatistics());
+        assertEquals(3, dataset.getCount());
+        assertNull(dataset.getXStatistics());
+        assertEquals(1.0, dataset.getYStatistics().getMinimum().doubleValue(), 0.001);
+        assertTrue(Point2DDatasets.isXSorted(dataset));
+    }
+    
     @Test
     public void lineDataFromListAndOffset(){
        
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumbers;
+import org.epics.util.stats.Ranges;
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class RenderEventsTest {
+
+    public RenderEventsTest() {
+    }
+
+    private final List<RenderEvent> events = new CopyOnWriteArrayList<>();
+    private final RenderEvents.Listener listener = new RenderEvents.Listener() {
+
+        @Override
+        public void eventCompleted(RenderEvent event) {
+            events.add(event);
+        }
+    };
+
+    @After
+    public void tearDown() {
+        RenderEvents.setListener(null);
+    }
+
+    @Test
+    public void drawValueExplicitLine() {
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.sin(i / 500.0);
+        }
+        Point2DDataset data = Point2DDatasets.lineData(values);
+        LineGraph2DRenderer renderer = new LineGraph2DRenderer(300, 200);
+        renderer.update(renderer.newUpdate().dataReduction(ReductionScheme.FIRST_MAX_MIN_LAST));
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR);
+
+        // No listener: nothing is recorded
+        renderer.draw(image.createGraphics(), data);
+        assertThat(events.isEmpty(), equalTo(true));
+
+        Timestamp before = Timestamp.now();
+        RenderEvents.setListener(listener);
+        renderer.draw(image.createGraphics(), data);
+        assertThat(events.size(), equalTo(1));
+        RenderEvent event = events.get(0);
+        assertThat(event.getName(), equalTo("drawValueExplicitLine"));
+        assertThat(event.getDatasetSize(), equalTo(10000));
+        assertThat(event.getImageWidth(), equalTo(300));
+        assertThat(event.getImageHeight(), equalTo(200));
+        assertThat(event.getReduction(), equalTo("FIRST_MAX_MIN_LAST"));
+        assertThat(event.getDuration().toNanosLong(), greaterThan(0L));
+        assertThat(event.getStart().compareTo(before.minus(TimeDuration.ofMillis(100))), greaterThanOrEqualTo(0));
+    }
+
+    @Test
+    public void drawDataImage() {
+        Cell2DDataset data = Cell2DDatasets.linearRange(ListNumbers.linearListFromRange(0, 1, 20 * 10), Ranges.range(0, 100), 20, Ranges.range(0, 100), 10);
+        IntensityGraph2DRenderer renderer = new IntensityGraph2DRenderer(300, 200);
+        RenderEvents.setListener(listener);
+        renderer.draw(new GraphBuffer(renderer), data);
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).getName(), equalTo("drawDataImage"));
+        assertThat(events.get(0).getDatasetSize(), equalTo(200));
+        assertThat(events.get(0).getImageWidth(), equalTo(300));
+    }
+
+    @Test
+    public void histogramBinning() {
+        RenderEvents.setListener(listener);
+        Cell1DDataset histogram = Cell1DDatasets.createHistogram(Point1DDatasets.of(new ArrayDouble(0, 1, 2, 3, 4)));
+        assertThat(histogram.getXBoundaries().size(), equalTo(histogram.getXCount() + 1));
+        assertThat(histogram.getValue(histogram.getXCount() - 1), equalTo(1.0));
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).getName(), equalTo("histogramBinning"));
+        assertThat(events.get(0).getDatasetSize(), equalTo(5));
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene;
+
+import java.util.Arrays;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class TimeSeriesDatasetsTest {
+
+    public TimeSeriesDatasetsTest() {
+    }
+
+    @Test
+    public void timeSeriesOfEpochNanos() {
+        long start = 1365174783900000000L;
+        TimeSeriesDataset data = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(0, 4, 3, 7),
+                new long[] {start, start + 1000000000L, start + 2500000000L, start + 4000000000L});
+        assertThat(data.getCount(), equalTo(4));
+        assertThat(data.getTimeInterval().getStart(), equalTo(Timestamp.of(1365174783, 900000000)));
+        assertThat(data.getTimeInterval().getEnd(), equalTo(Timestamp.of(1365174787, 900000000)));
+        assertThat(data.getTimestamps().get(2), equalTo(Timestamp.of(1365174786, 400000000)));
+        assertThat(data.getNormalizedTime(), equalTo((Object) new ArrayDouble(0, 0.25, 0.625, 1)));
+        assertThat(data.getNormalizedTime(), sameInstance(data.getNormalizedTime()));
+        assertThat(data.getStatistics().getMaximum().doubleValue(), equalTo(7.0));
+    }
+
+    @Test
+    public void timeSeriesOfEpochNanosMatchesTimestamps() {
+        Timestamp start = Timestamp.of(1365174783, 900000000);
+        TimeSeriesDataset reference = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(1, 2, 3),
+                Arrays.asList(start, start.plus(TimeDuration.ofMillis(300)), start.plus(TimeDuration.ofMillis(1300))));
+        TimeSeriesDataset data = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(1, 2, 3),
+                new long[] {1365174783900000000L, 1365174784200000000L, 1365174785200000000L});
+        assertThat(data.getTimestamps(), equalTo(reference.getTimestamps()));
+        assertThat(data.getTimeInterval(), equalTo(reference.getTimeInterval()));
+        for (int i = 0; i < 3; i++) {
+            assertThat(data.getNormalizedTime().getDouble(i), closeTo(reference.getNormalizedTime().getDouble(i), 1e-12));
+        }
+    }
+
+    @Test
+    public void timeSeriesOfEpochNanosBeforeEpoch() {
+        TimeSeriesDataset data = TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(1, 2),
+                new long[] {-1500000000L, 0});
+        assertThat(data.getTimestamps().get(0), equalTo(Timestamp.of(-2, 500000000)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timeSeriesOfEpochNanosSizeMismatch() {
+        TimeSeriesDatasets.timeSeriesOf(new ArrayDouble(1, 2), new long[] {0, 1, 2});
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2012-14 graphene developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.epics.graphene.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.epics.graphene.Cell2DRowDataset;
+import org.epics.util.array.ArrayDouble;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ *
+ * @author carcassi
+ */
+public class RawBinaryIOTest {
+
+    public RawBinaryIOTest() {
+    }
+
+    @Test
+    public void mapCell2DFloat() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(4 * 9).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 9; i++) {
+            bytes.putFloat(i * 0.5f);
+        }
+        File file = writeTempFile(bytes);
+        // Two rows per mapping, so the last row is in a second mapping
+        Cell2DRowDataset dataset = RawBinaryIO.mapCell2D(file, float.class, ByteOrder.LITTLE_ENDIAN,
+                new ArrayDouble(0, 1, 2, 3), new ArrayDouble(0, 10, 20, 30), 24);
+        assertThat(dataset.getXCount(), equalTo(3));
+        assertThat(dataset.getYCount(), equalTo(3));
+        assertThat(dataset.getYRange().getMaximum().doubleValue(), equalTo(30.0));
+        assertThat(dataset.getValue(0, 0), equalTo(0.0));
+        assertThat(dataset.getValue(2, 1), equalTo(2.5));
+        assertThat(dataset.getValue(1, 2), equalTo(3.5));
+        double[] row = new double[3];
+        dataset.getRow(2, row);
+        assertThat(row, equalTo(new double[] {3.0, 3.5, 4.0}));
+        assertThat(dataset.getStatistics().getCount(), equalTo(9));
+        assertThat(dataset.getStatistics().getMinimum().doubleValue(), equalTo(0.0));
+        assertThat(dataset.getStatistics().getMaximum().doubleValue(), equalTo(4.0));
+        assertThat(dataset.getStatistics().getAverage(), equalTo(2.0));
+    }
+
+    @Test
+    public void mapCell2DDouble() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(8 * 4).order(ByteOrder.BIG_ENDIAN);
+        bytes.putDouble(1.5).putDouble(-2).putDouble(Double.NaN).putDouble(7);
+        File file = writeTempFile(bytes);
+        Cell2DRowDataset dataset = RawBinaryIO.mapCell2D(file, double.class, ByteOrder.BIG_ENDIAN,
+                new ArrayDouble(0, 1), new ArrayDouble(0, 1, 2, 3, 4));
+        double[] row = new double[1];
+        dataset.getRow(1, row);
+        assertThat(row[0], equalTo(-2.0));
+        assertThat(Double.isNaN(dataset.getValue(0, 2)), equalTo(true));
+        assertThat(dataset.getStatistics().getCount(), equalTo(3));
+        assertThat(dataset.getDisplayRange().getMaximum().doubleValue(), equalTo(7.0));
+    }
+
+    @Test
+    public void mapCell2DShort() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(2 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putShort((short) -300).putShort((short) 5).putShort((short) 32000).putShort((short) 0);
+        File file = writeTempFile(bytes);
+        Cell2DRowDataset dataset = RawBinaryIO.mapCell2D(file, short.class, ByteOrder.LITTLE_ENDIAN,
+                new ArrayDouble(0, 1, 2), new ArrayDouble(0, 1, 2));
+        assertThat(dataset.getValue(0, 0), equalTo(-300.0));
+        assertThat(dataset.getValue(0, 1), equalTo(32000.0));
+        assertThat(dataset.getStatistics().getMinimum().doubleValue(), equalTo(-300.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapCell2DFileTooShort() throws IOException {
+        File file = writeTempFile(ByteBuffer.allocate(4 * 3));
+        RawBinaryIO.mapCell2D(file, float.class, ByteOrder.LITTLE_ENDIAN,
+                new ArrayDouble(0, 1, 2), new ArrayDouble(0, 1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapCell2DUnsupportedType() throws IOException {
+        File file = writeTempFile(ByteBuffer.allocate(4 * 4));
+        RawBinaryIO.mapCell2D(file, int.class, ByteOrder.LITTLE_ENDIAN,
+                new ArrayDouble(0, 1, 2), new ArrayDouble(0, 1, 2));
+    }
+
+    private static File writeTempFile(ByteBuffer bytes) throws IOException {
+        File file = File.createTempFile("graphene", ".raw");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes.array());
+        }
+        return file;
+    }
+}